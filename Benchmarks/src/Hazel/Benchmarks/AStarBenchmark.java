@@ -0,0 +1,54 @@
+package Hazel.Benchmarks;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import Hazel.Level.TiledLevel;
+import Hazel.Objects.Pathfinding.AStar;
+import Hazel.Objects.Pathfinding.Node;
+import Hazel.Units.Vector2i;
+
+/**
+ * Benchmarks of finding the path between opposite corners of generated mazes.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class AStarBenchmark
+{
+    @Param({"15", "31", "63"})
+    public int size; //Width and height of the maze, in tiles
+
+    private AStar search;
+    private Vector2i start, goal;
+
+    @Setup
+    public void setUp()
+    {
+        TiledLevel maze = Fixtures.maze(size, 11);
+        search = new AStar(maze);
+        start = new Vector2i(1, 1);
+        goal = new Vector2i(size - 2, size - 2);
+    }
+
+    @Benchmark
+    public List<Node> findPath()
+    {
+        return search.findPath(start, goal);
+    }
+}
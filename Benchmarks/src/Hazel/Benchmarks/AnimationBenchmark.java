@@ -0,0 +1,78 @@
+package Hazel.Benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import Hazel.Graphics.Sprites.Animation;
+import Hazel.Graphics.Sprites.AnimationClip;
+import Hazel.Graphics.Sprites.AnimationPool;
+import Hazel.Graphics.Sprites.Sprite;
+
+/**
+ * Benchmarks of advancing many animations of a shared clip by one tick, one object each
+ * versus a single pass over a pool.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class AnimationBenchmark
+{
+    private static final double TIMESTEP = 1.0 / 60;
+
+    @Param({"100", "1000", "10000"})
+    public int count; //Number of animations playing
+
+    private Animation[] animations;
+    private AnimationPool pool;
+
+    @Setup
+    public void setUp()
+    {
+        Sprite[] sprites = new Sprite[8];
+        for (int i = 0; i < sprites.length; i++) sprites[i] = new Sprite(Fixtures.bitmap(16, 16, true, i));
+        AnimationClip clip = new AnimationClip("walk", sprites, new int[]{1, 2, 1, 1, 3, 1, 2, 1}, AnimationClip.LOOP);
+
+        animations = new Animation[count];
+        pool = new AnimationPool(count);
+        for (int i = 0; i < count; i++)
+        {
+            animations[i] = new Animation(clip);
+            animations[i].setSpeed(1 + (i % 4) * 0.25f);
+            int handle = pool.add(clip);
+            pool.setSpeed(handle, 1 + (i % 4) * 0.25f);
+        }
+    }
+
+    @Benchmark
+    public int updateAnimations()
+    {
+        int sum = 0;
+        for (Animation animation : animations)
+        {
+            animation.update(TIMESTEP);
+            sum += animation.getFrameIndex();
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public AnimationPool updatePool()
+    {
+        pool.update(TIMESTEP);
+        return pool;
+    }
+}
@@ -0,0 +1,41 @@
+package Hazel.Benchmarks;
+
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * {@code BenchmarkRunner} is the entry point of the benchmark jar.
+ * <br>
+ * It accepts the same arguments as the JMH launcher, but writes the results as JSON to
+ * {@code hazel-benchmarks.json} unless another format or file is given, so that runs of
+ * different engine versions can be compared.
+ */
+public final class BenchmarkRunner
+{
+    public static final String RESULT_FILE = "hazel-benchmarks.json"; //Default file the results are written to
+
+    public static void main(String[] args) throws Exception
+    {
+        CommandLineOptions options = new CommandLineOptions(args);
+        if (options.shouldHelp())
+        {
+            options.showHelp();
+            return;
+        }
+
+        ChainedOptionsBuilder builder = new OptionsBuilder().parent(options);
+        if (!options.getResultFormat().hasValue()) builder.resultFormat(ResultFormatType.JSON);
+        if (!options.getResult().hasValue()) builder.result(RESULT_FILE);
+
+        Runner runner = new Runner(builder.build());
+        if (options.shouldList()) runner.list();
+        else runner.run();
+    }
+
+    private BenchmarkRunner()
+    {
+    }
+}
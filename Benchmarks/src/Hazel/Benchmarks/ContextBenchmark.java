@@ -0,0 +1,126 @@
+package Hazel.Benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import Hazel.Graphics.Bitmap;
+import Hazel.Graphics.Context;
+
+/**
+ * Benchmarks of the immediate drawing operations of {@code Context}.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class ContextBenchmark
+{
+    @Param({"16", "64"})
+    public int size; //Width and height of the drawn bitmaps and rectangles
+
+    private Context ctx;
+    private Bitmap opaque, translucent;
+
+    @Setup
+    public void setUp()
+    {
+        ctx = new Context(Fixtures.WIDTH, Fixtures.HEIGHT);
+        opaque = Fixtures.bitmap(size, size, false, 1);
+        translucent = Fixtures.bitmap(size, size, true, 2);
+    }
+
+    @Benchmark
+    public Context renderBitmapOpaque()
+    {
+        ctx.renderBitmap(opaque, 40, 30);
+        return ctx;
+    }
+
+    @Benchmark
+    public Context renderBitmapAlpha()
+    {
+        ctx.renderBitmap(translucent, 40, 30);
+        return ctx;
+    }
+
+    @Benchmark
+    public Context renderBitmapFade()
+    {
+        ctx.renderBitmap(opaque, 40, 30, 0.5f);
+        return ctx;
+    }
+
+    @Benchmark
+    public Context renderBitmapTint()
+    {
+        ctx.renderBitmap(opaque, 40, 30, 0xFF3080FF);
+        return ctx;
+    }
+
+    @Benchmark
+    public Context renderBitmapScale()
+    {
+        ctx.renderBitmap(opaque, 40, 30, 1f, 2f);
+        return ctx;
+    }
+
+    @Benchmark
+    public Context renderBitmapClipped()
+    {
+        ctx.renderBitmap(opaque, Fixtures.WIDTH - size / 2, Fixtures.HEIGHT - size / 2);
+        return ctx;
+    }
+
+    @Benchmark
+    public Context renderFilledRectangleOpaque()
+    {
+        ctx.renderFilledRectangle(40, 30, size, size, 0xFF3080FF);
+        return ctx;
+    }
+
+    @Benchmark
+    public Context renderFilledRectangleAlpha()
+    {
+        ctx.renderFilledRectangle(40, 30, size, size, 0x803080FF);
+        return ctx;
+    }
+
+    /*
+     * Fills of the whole context, as when drawing a background or a fade overlay.
+     * They ignore the size parameter, and give clear() a per-pixel baseline.
+     */
+
+    @Benchmark
+    public Context renderFilledRectangleFullOpaque()
+    {
+        ctx.renderFilledRectangle(0, 0, ctx.getWidth(), ctx.getHeight(), 0xFF3080FF);
+        return ctx;
+    }
+
+    @Benchmark
+    public Context renderFilledRectangleFullAlpha()
+    {
+        ctx.renderFilledRectangle(0, 0, ctx.getWidth(), ctx.getHeight(), 0x803080FF);
+        return ctx;
+    }
+
+    @Benchmark
+    public Context clear()
+    {
+        ctx.clear();
+        return ctx;
+    }
+}
@@ -0,0 +1,163 @@
+package Hazel.Benchmarks;
+
+import java.awt.image.BufferedImage;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Random;
+
+import Hazel.Graphics.Bitmap;
+import Hazel.Graphics.Sprites.Sprite;
+import Hazel.Level.Tile;
+import Hazel.Level.TiledLevel;
+import Hazel.System.Asset.AssetManager;
+import Hazel.System.Asset.Type.Fonts.Font;
+
+/**
+ * {@code Fixtures} creates the data shared by the benchmarks.
+ * <br>
+ * Everything is generated from fixed seeds, so that every run measures the same work.
+ */
+final class Fixtures
+{
+    static final int WIDTH = 320; //Width of the benchmark context
+    static final int HEIGHT = 180; //Height of the benchmark context
+    static final int TILE_SIZE = 16; //Size of the tiles of generated levels
+
+    static final int FLOOR = 0; //Tile key of walkable tiles
+    static final int WALL = 1; //Tile key of solid tiles
+
+    /**
+     * Supplies a bitmap filled with random colors.
+     *
+     * @param width  The width of the bitmap.
+     * @param height The height of the bitmap.
+     * @param alpha  Whether pixels are translucent (otherwise opaque).
+     * @param seed   The seed of the colors.
+     * @return The bitmap.
+     */
+    static Bitmap bitmap(int width, int height, boolean alpha, long seed)
+    {
+        return new Bitmap(image(width, height, alpha, seed));
+    }
+
+    /**
+     * Supplies an image filled with random colors.
+     *
+     * @param width  The width of the image.
+     * @param height The height of the image.
+     * @param alpha  Whether pixels are translucent (otherwise opaque).
+     * @param seed   The seed of the colors.
+     * @return The image.
+     */
+    static BufferedImage image(int width, int height, boolean alpha, long seed)
+    {
+        Random random = new Random(seed);
+        BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+        for (int y = 0; y < height; y++)
+        {
+            for (int x = 0; x < width; x++)
+            {
+                int a = alpha ? 0x20 + random.nextInt(0xC0) : 0xFF;
+                image.setRGB(x, y, a << 24 | random.nextInt(0x1000000));
+            }
+        }
+        return image;
+    }
+
+    /**
+     * Method used to load the default font once per benchmark fork.
+     *
+     * @return The default font.
+     */
+    static synchronized Font defaultFont()
+    {
+        if (Font.defaultFont == null)
+        {
+            Font.initializeDefaultFont("fonts/font.png");
+            AssetManager.load();
+        }
+        return Font.defaultFont;
+    }
+
+    /**
+     * Supplies a level of four kinds of random tiles, without walls.
+     *
+     * @param width  The width of the level, in tiles.
+     * @param height The height of the level, in tiles.
+     * @return The level.
+     */
+    static TiledLevel level(int width, int height)
+    {
+        TiledLevel level = emptyLevel(width, height);
+        int[] tiles = level.getData();
+        Random random = new Random(7);
+        for (int i = 0; i < tiles.length; i++) tiles[i] = random.nextInt(4);
+        for (int key = 0; key < 4; key++)
+        {
+            level.addTile(key, new Tile(new Sprite(image(TILE_SIZE, TILE_SIZE, false, key)), TILE_SIZE, TILE_SIZE, key));
+        }
+        return level;
+    }
+
+    /**
+     * Supplies a perfect maze, carved with a depth-first search from the top-left cell.
+     * Cells lie on odd coordinates, so (1, 1) and (size - 2, size - 2) are always connected.
+     *
+     * @param size The width and height of the maze, in tiles (odd).
+     * @param seed The seed of the maze.
+     * @return The maze.
+     */
+    static TiledLevel maze(int size, long seed)
+    {
+        TiledLevel level = emptyLevel(size, size);
+        int[] tiles = level.getData();
+        Arrays.fill(tiles, WALL);
+
+        Random random = new Random(seed);
+        int[] dx = {2, -2, 0, 0}, dy = {0, 0, 2, -2};
+        ArrayDeque<int[]> stack = new ArrayDeque<>();
+        tiles[1 + size] = FLOOR;
+        stack.push(new int[]{1, 1});
+        while (!stack.isEmpty())
+        {
+            int[] cell = stack.peek();
+            int first = random.nextInt(4);
+            boolean carved = false;
+            for (int i = 0; i < 4 && !carved; i++)
+            {
+                int d = (first + i) & 3;
+                int x = cell[0] + dx[d], y = cell[1] + dy[d];
+                if (x <= 0 || y <= 0 || x >= size - 1 || y >= size - 1 || tiles[x + y * size] != WALL) continue;
+
+                tiles[cell[0] + dx[d] / 2 + (cell[1] + dy[d] / 2) * size] = FLOOR;
+                tiles[x + y * size] = FLOOR;
+                stack.push(new int[]{x, y});
+                carved = true;
+            }
+            if (!carved) stack.pop();
+        }
+
+        Sprite sprite = new Sprite(image(TILE_SIZE, TILE_SIZE, false, 0));
+        level.addTile(FLOOR, new Tile(sprite, TILE_SIZE, TILE_SIZE, FLOOR));
+        level.addTile(WALL, new Tile(sprite, TILE_SIZE, TILE_SIZE, WALL)
+        {
+            @Override
+            public boolean isSolid()
+            {
+                return true;
+            }
+        });
+        return level;
+    }
+
+    private static TiledLevel emptyLevel(int width, int height)
+    {
+        TiledLevel level = new TiledLevel(width, height);
+        level.setTileSize(TILE_SIZE);
+        return level;
+    }
+
+    private Fixtures()
+    {
+    }
+}
@@ -0,0 +1,72 @@
+package Hazel.Benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import Hazel.Graphics.Context;
+import Hazel.System.Asset.Type.Fonts.Font;
+import Hazel.System.Asset.Type.Fonts.TextLayout;
+
+/**
+ * Benchmarks of drawing text with the default bitmap font.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class FontBenchmark
+{
+    private static final String TEXT = "Score: 1234567 Lives: 3";
+
+    @Param({"1.0", "2.0"})
+    public float scale; //Glyph scale
+
+    private Context ctx;
+    private Font font;
+    private TextLayout layout;
+    private long score;
+
+    @Setup
+    public void setUp()
+    {
+        ctx = new Context(Fixtures.WIDTH, Fixtures.HEIGHT);
+        font = Fixtures.defaultFont();
+        ctx.setFont(font);
+        layout = new TextLayout(font, 0xFFFFFFFF, scale);
+        layout.setText(TEXT);
+    }
+
+    @Benchmark
+    public Context render()
+    {
+        font.render(ctx, TEXT, 4, 4, 0xFFFFFFFF, scale, 1f);
+        return ctx;
+    }
+
+    @Benchmark
+    public Context renderNumber()
+    {
+        ctx.renderNumber(score++, 4, 4, 0xFFFFFFFF, scale, 1f);
+        return ctx;
+    }
+
+    @Benchmark
+    public Context renderLayout()
+    {
+        layout.render(ctx, 4, 4);
+        return ctx;
+    }
+}
@@ -0,0 +1,107 @@
+package Hazel.Benchmarks;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import Hazel.Level.TiledLevel;
+import Hazel.Objects.Object;
+import Hazel.Objects.Type.Mob;
+import Hazel.Units.Tuple2i;
+
+/**
+ * Benchmarks of the neighbour queries of {@code Level}, single queries and a whole tick of
+ * every mob looking for its neighbours.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class LevelBenchmark
+{
+    private static final int WORLD_TILES = 256; //Width and height of the level, in tiles
+    private static final int RADIUS = 64; //Radius of the queries, in pixels
+
+    @Param({"100", "1000", "10000"})
+    public int objects; //Number of objects in the level, half of them mobs
+
+    private TiledLevel level;
+    private Mob[] mobs;
+    private Object[] statics;
+    private int next;
+    private final List<Mob> mobResult = new ArrayList<>();
+    private final List<Object> objectResult = new ArrayList<>();
+
+    @Setup
+    public void setUp()
+    {
+        level = Fixtures.level(WORLD_TILES, WORLD_TILES);
+        int extent = WORLD_TILES * Fixtures.TILE_SIZE;
+        Random random = new Random(5);
+
+        mobs = new Mob[objects / 2];
+        statics = new Object[objects - mobs.length];
+        for (int i = 0; i < mobs.length; i++)
+        {
+            mobs[i] = new Mob(null, "mob", new Tuple2i(random.nextInt(extent), random.nextInt(extent)))
+            {
+            };
+            level.add(mobs[i]);
+        }
+        for (int i = 0; i < statics.length; i++)
+        {
+            statics[i] = new Object(null, "prop", Object.STATIC, new Tuple2i(random.nextInt(extent), random.nextInt(extent)))
+            {
+            };
+            level.add(statics[i]);
+        }
+    }
+
+    @Benchmark
+    public List<Mob> getMobs()
+    {
+        mobResult.clear();
+        return level.getMobs(mobs[next++ % mobs.length], RADIUS, mobResult);
+    }
+
+    @Benchmark
+    public List<Object> getObjects()
+    {
+        objectResult.clear();
+        return level.getObjects(statics[next++ % statics.length], RADIUS, objectResult);
+    }
+
+    @Benchmark
+    public List<Mob> getNearestMobs()
+    {
+        mobResult.clear();
+        return level.getNearestMobs(mobs[next++ % mobs.length], 8, mobResult);
+    }
+
+    @Benchmark
+    public int tick()
+    {
+        int neighbours = 0;
+        for (Mob mob : mobs)
+        {
+            mobResult.clear();
+            neighbours += level.getMobs(mob, RADIUS, mobResult).size();
+        }
+        return neighbours;
+    }
+}
@@ -0,0 +1,169 @@
+package Hazel.Benchmarks;
+
+import java.awt.BufferCapabilities;
+import java.awt.Canvas;
+import java.awt.Graphics;
+import java.awt.GraphicsConfiguration;
+import java.awt.GraphicsEnvironment;
+import java.awt.ImageCapabilities;
+import java.awt.image.BufferStrategy;
+import java.awt.image.BufferedImage;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import Hazel.GameEngine.GameWindow;
+import Hazel.GameEngine.Presenters.DirectPresenter;
+import Hazel.GameEngine.Presenters.VolatileImagePresenter;
+import Hazel.Graphics.Context;
+
+/**
+ * Benchmarks of presenting a whole frame at the enlargement factors of the window.
+ * <br>
+ * Each presenter's own <code>present()</code> runs against a window whose back buffer is a
+ * {@code BufferedImage}, so the measured work is what the presenter does per frame:
+ * {@code DirectPresenter} enlarges the frame (except at a factor of 1) and draws it unscaled,
+ * while {@code VolatileImagePresenter}, the previous path, copies the frame into a
+ * {@code VolatileImage} and draws that scaled. The latter needs a display and fails headless.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class PresenterBenchmark
+{
+    @Param({"1", "2", "4"})
+    public int factor; //Enlargement factor of the window
+
+    private Context ctx;
+    private ImageWindow window;
+    private DirectPresenter direct, directSerial;
+    private VolatileImagePresenter volatileImage;
+
+    @Setup
+    public void setUp()
+    {
+        ctx = new Context(Fixtures.WIDTH, Fixtures.HEIGHT);
+        ctx.renderBitmap(Fixtures.bitmap(Fixtures.WIDTH, Fixtures.HEIGHT, false, 3), 0, 0);
+        window = new ImageWindow(Fixtures.WIDTH * factor, Fixtures.HEIGHT * factor);
+
+        direct = new DirectPresenter();
+        directSerial = new DirectPresenter();
+        directSerial.setParallel(false);
+        volatileImage = new VolatileImagePresenter();
+    }
+
+    @TearDown
+    public void tearDown()
+    {
+        direct.cleanUp();
+        directSerial.cleanUp();
+        volatileImage.cleanUp();
+    }
+
+    @Benchmark
+    public BufferedImage presentDirect()
+    {
+        direct.present(ctx, window, window.width, window.height);
+        return window.backBuffer;
+    }
+
+    @Benchmark
+    public BufferedImage presentDirectSerial()
+    {
+        directSerial.present(ctx, window, window.width, window.height);
+        return window.backBuffer;
+    }
+
+    @Benchmark
+    public BufferedImage presentVolatileImage()
+    {
+        volatileImage.present(ctx, window, window.width, window.height);
+        return window.backBuffer;
+    }
+
+    /**
+     * A window without a frame, whose buffer strategy draws into an image that is never shown.
+     */
+    private static final class ImageWindow extends GameWindow
+    {
+        private final int width, height;
+        private final BufferedImage backBuffer;
+        private final BufferStrategy strategy;
+        private Canvas canvas;
+
+        private ImageWindow(int width, int height)
+        {
+            super("Benchmark", width, height, 1);
+            this.width = width;
+            this.height = height;
+            backBuffer = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+            strategy = new BufferStrategy()
+            {
+                private final BufferCapabilities capabilities =
+                        new BufferCapabilities(new ImageCapabilities(false), new ImageCapabilities(false), null);
+
+                @Override
+                public BufferCapabilities getCapabilities()
+                {
+                    return capabilities;
+                }
+
+                @Override
+                public Graphics getDrawGraphics()
+                {
+                    return backBuffer.createGraphics();
+                }
+
+                @Override
+                public boolean contentsLost()
+                {
+                    return false;
+                }
+
+                @Override
+                public boolean contentsRestored()
+                {
+                    return false;
+                }
+
+                @Override
+                public void show()
+                {
+                }
+            };
+        }
+
+        @Override
+        public BufferStrategy getBufferStrategy()
+        {
+            return strategy;
+        }
+
+        @Override
+        public Canvas getCanvas()
+        {
+            //Only the VolatileImage path asks for it, and it needs the screen's configuration
+            if (canvas == null)
+            {
+                GraphicsConfiguration gc = GraphicsEnvironment.getLocalGraphicsEnvironment()
+                        .getDefaultScreenDevice().getDefaultConfiguration();
+                canvas = new Canvas(gc);
+            }
+            return canvas;
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package Hazel.Benchmarks;
+
+import java.awt.image.BufferedImage;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import Hazel.Graphics.Sprites.Spritesheet;
+
+/**
+ * Benchmarks of cutting a sheet into sprites.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class SpritesheetBenchmark
+{
+    @Param({"16", "32"})
+    public int cellSize; //Width and height of each sprite
+
+    @Param({"false", "true"})
+    public boolean bounds; //Whether pixel-perfect bounds are computed for every sprite
+
+    private BufferedImage sheet;
+
+    @Setup
+    public void setUp()
+    {
+        sheet = Fixtures.image(256, 256, true, 4);
+    }
+
+    @Benchmark
+    public Spritesheet construct()
+    {
+        return new Spritesheet(sheet, cellSize, bounds);
+    }
+}
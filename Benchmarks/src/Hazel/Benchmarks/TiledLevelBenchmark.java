@@ -0,0 +1,50 @@
+package Hazel.Benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import Hazel.Graphics.Context;
+import Hazel.Level.TiledLevel;
+
+/**
+ * Benchmarks of drawing the visible tiles of a level.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class TiledLevelBenchmark
+{
+    @Param({"64", "256"})
+    public int size; //Width and height of the level, in tiles
+
+    private Context ctx;
+    private TiledLevel level;
+
+    @Setup
+    public void setUp()
+    {
+        ctx = new Context(Fixtures.WIDTH, Fixtures.HEIGHT);
+        level = Fixtures.level(size, size);
+    }
+
+    @Benchmark
+    public Context render()
+    {
+        level.render(null, ctx);
+        return ctx;
+    }
+}
@@ -0,0 +1,81 @@
+package Hazel.Serialization;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.annotations.TearDown;
+
+/**
+ * Benchmarks of writing and reading back a save database, in memory and through a file.
+ * <br>
+ * This class lives in the package of {@code TinyDatabase}, which is not public, so the
+ * benchmarks return the number of objects read back rather than the database itself.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class TinyDatabaseBenchmark
+{
+    @Param({"10", "100"})
+    public int objects; //Number of objects in the database
+
+    private TinyDatabase database;
+    private byte[] buffer;
+    private File file;
+
+    @Setup
+    public void setUp() throws IOException
+    {
+        database = new TinyDatabase("save");
+        for (int i = 0; i < objects; i++)
+        {
+            TinyObject object = new TinyObject("entity" + i);
+            object.addField(TinyField.Integer("x", i * 16));
+            object.addField(TinyField.Integer("y", i * 32));
+            object.addField(TinyField.Float("health", 0.75f));
+            object.addField(TinyField.Boolean("alive", true));
+            object.addString(TinyString.Create("name", "Entity number " + i));
+            object.addArray(TinyArray.Integer("inventory", new int[64]));
+            database.addObject(object);
+        }
+
+        buffer = new byte[database.getSize()];
+        file = File.createTempFile("hazel-benchmark", ".tdb");
+        file.deleteOnExit();
+    }
+
+    @TearDown
+    public void tearDown()
+    {
+        file.delete();
+    }
+
+    @Benchmark
+    public int roundTrip()
+    {
+        database.getBytes(buffer, 0);
+        return TinyDatabase.Deserialize(buffer).objects.size();
+    }
+
+    @Benchmark
+    public int roundTripFile()
+    {
+        database.serializeToFile(file.getPath());
+        return TinyDatabase.DeserializeFromFile(file.getPath()).objects.size();
+    }
+}
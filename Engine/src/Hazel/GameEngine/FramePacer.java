@@ -0,0 +1,252 @@
+package Hazel.GameEngine;
+
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * {@code FramePacer} is a frame pacing class.
+ * <br>
+ * This class should be used to wait for the deadline of the next frame. The wait is split
+ * into a coarse sleep with {@code LockSupport.parkNanos()}, which ends early by a margin
+ * that covers the measured oversleep of the operating system timer, followed by yielding or
+ * spinning until the deadline. The pacer also keeps statistics about frame times and jitter.
+ */
+public class FramePacer
+{
+    public static final int POWER_SAVING = 0x0; //Sleeps the whole wait, accepting late wake-ups
+    public static final int BALANCED = 0x1; //Sleeps most of the wait, then yields until the deadline
+    public static final int LOW_LATENCY = 0x2; //Sleeps part of the wait, then spins until the deadline
+
+    private static final long MIN_MARGIN = 1000000L; //Least time, in nanoseconds, left for yielding or spinning
+    private static final long LOW_LATENCY_MARGIN = 2000000L; //Least time, in nanoseconds, left for spinning
+
+    private int strategy; //The pacing strategy
+    private long period; //Length of a frame, in nanoseconds
+    private long deadline; //Deadline of the next frame (0 before the first frame)
+    private long oversleep = 500000L; //Moving average of how late parkNanos() returns, in nanoseconds
+
+    private long lastFrame; //Time at which the previous frame ended
+    private long frames; //Number of frame times recorded
+    private long missed; //Number of frames that took more than one and a half periods
+    private double mean; //Mean frame time, in nanoseconds
+    private double squares; //Sum of squared deviations from the mean frame time
+    private double jitter; //Sum of absolute differences between frame times and the period
+    private long minimum = Long.MAX_VALUE; //Shortest frame time, in nanoseconds
+    private long maximum; //Longest frame time, in nanoseconds
+
+    /**
+     * Creates a frame pacer for 60 frames per second.
+     *
+     * @param strategy The pacing strategy ({@code POWER_SAVING}, {@code BALANCED} or {@code LOW_LATENCY}).
+     */
+    public FramePacer(int strategy)
+    {
+        this(strategy, 60);
+    }
+
+    /**
+     * Creates a frame pacer.
+     *
+     * @param strategy The pacing strategy ({@code POWER_SAVING}, {@code BALANCED} or {@code LOW_LATENCY}).
+     * @param rate     Desired number of frames per second.
+     */
+    public FramePacer(int strategy, int rate)
+    {
+        setStrategy(strategy);
+        setTargetRate(rate);
+    }
+
+    /**
+     * Method used to wait until the deadline of the next frame and record the frame time.
+     * Deadlines are spaced exactly one period apart; if the caller falls behind by more
+     * than a period, the schedule restarts from the current time instead of rushing
+     * through the missed frames.
+     */
+    public void sync()
+    {
+        long now = System.nanoTime();
+        if (deadline == 0)
+        {
+            deadline = now + period;
+            lastFrame = now;
+        }
+
+        waitUntil(deadline);
+
+        now = System.nanoTime();
+        record(now - lastFrame);
+        lastFrame = now;
+
+        deadline += period;
+        if (now - deadline > period) deadline = now + period;
+    }
+
+    /**
+     * Method used to wait until a point in time using the pacing strategy.
+     *
+     * @param time The time to wait for, as given by {@code System.nanoTime()}.
+     */
+    public void waitUntil(long time)
+    {
+        long margin = strategy == POWER_SAVING ? 0 : Math.max(strategy == LOW_LATENCY ? LOW_LATENCY_MARGIN : MIN_MARGIN, 2 * oversleep);
+
+        long remaining = time - System.nanoTime();
+        while (remaining > margin)
+        {
+            long request = remaining - margin;
+            long before = System.nanoTime();
+            LockSupport.parkNanos(request);
+            long slept = System.nanoTime() - before;
+
+            //Only full naps say something about the timer, not early returns
+            if (slept >= request) oversleep += ((slept - request) - oversleep) / 8;
+
+            remaining = time - System.nanoTime();
+        }
+
+        while (time - System.nanoTime() > 0)
+        {
+            if (strategy == BALANCED) Thread.yield();
+        }
+    }
+
+    /**
+     * Records a frame time.
+     */
+    private void record(long frameTime)
+    {
+        frames++;
+        double difference = frameTime - mean;
+        mean += difference / frames;
+        squares += difference * (frameTime - mean);
+        jitter += Math.abs(frameTime - period);
+        if (frameTime > period + period / 2) missed++;
+        if (frameTime < minimum) minimum = frameTime;
+        if (frameTime > maximum) maximum = frameTime;
+    }
+
+    /**
+     * Method used to discard the recorded frame time statistics.
+     */
+    public void resetStatistics()
+    {
+        frames = 0;
+        missed = 0;
+        mean = 0;
+        squares = 0;
+        jitter = 0;
+        minimum = Long.MAX_VALUE;
+        maximum = 0;
+    }
+
+    /**
+     * Method used to restart the frame schedule, e.g. after a pause.
+     */
+    public void reset()
+    {
+        deadline = 0;
+    }
+
+    /**
+     * Sets the pacing strategy.
+     *
+     * @param strategy The pacing strategy ({@code POWER_SAVING}, {@code BALANCED} or {@code LOW_LATENCY}).
+     */
+    public void setStrategy(int strategy)
+    {
+        if (strategy != POWER_SAVING && strategy != BALANCED && strategy != LOW_LATENCY)
+            throw new IllegalArgumentException("Unknown pacing strategy! strategy: " + strategy);
+
+        this.strategy = strategy;
+    }
+
+    /**
+     * @return The pacing strategy.
+     */
+    public int getStrategy()
+    {
+        return strategy;
+    }
+
+    /**
+     * Sets the desired number of frames per second.
+     *
+     * @param rate Desired number of frames per second.
+     */
+    public void setTargetRate(int rate)
+    {
+        if (rate <= 0) throw new IllegalArgumentException("Frame rate must be positive! rate: " + rate);
+
+        this.period = 1000000000L / rate;
+    }
+
+    /**
+     * @return Length of a frame, in nanoseconds.
+     */
+    public long getPeriod()
+    {
+        return period;
+    }
+
+    /**
+     * @return Number of frame times recorded since the statistics were reset.
+     */
+    public long getFrameCount()
+    {
+        return frames;
+    }
+
+    /**
+     * @return Number of frames that took more than one and a half periods.
+     */
+    public long getMissedFrames()
+    {
+        return missed;
+    }
+
+    /**
+     * @return Mean frame time, in nanoseconds.
+     */
+    public double getMeanFrameTime()
+    {
+        return mean;
+    }
+
+    /**
+     * @return Standard deviation of the frame time, in nanoseconds.
+     */
+    public double getFrameTimeDeviation()
+    {
+        return frames > 1 ? Math.sqrt(squares / (frames - 1)) : 0;
+    }
+
+    /**
+     * @return Mean absolute difference between the frame time and the period, in nanoseconds.
+     */
+    public double getMeanJitter()
+    {
+        return frames > 0 ? jitter / frames : 0;
+    }
+
+    /**
+     * @return Shortest frame time, in nanoseconds (0 if none was recorded).
+     */
+    public long getMinFrameTime()
+    {
+        return frames > 0 ? minimum : 0;
+    }
+
+    /**
+     * @return Longest frame time, in nanoseconds.
+     */
+    public long getMaxFrameTime()
+    {
+        return maximum;
+    }
+
+    @Override
+    public String toString()
+    {
+        return String.format("frame %.2f ms (min %.2f, max %.2f, sd %.3f), jitter %.3f ms, %d missed",
+                mean / 1e6, getMinFrameTime() / 1e6, maximum / 1e6, getFrameTimeDeviation() / 1e6, getMeanJitter() / 1e6, missed);
+    }
+}
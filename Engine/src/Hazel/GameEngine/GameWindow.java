@@ -4,6 +4,8 @@ import java.awt.BorderLayout;
 import java.awt.Canvas;
 import java.awt.Dimension;
 import java.awt.Graphics;
+import java.awt.event.WindowAdapter;
+import java.awt.event.WindowEvent;
 import java.awt.image.BufferStrategy;
 
 import javax.swing.JFrame;
@@ -23,6 +25,7 @@ public class GameWindow
     private int windowWidth; //The width of the game window
     private int windowHeight; //The height of the game window
     private int windowScale; //The scale of the game window
+    private volatile boolean invalidated = true; //Whether the window lost its contents since the last present
 
     /**
      * Creates the game window object.
@@ -71,7 +74,29 @@ public class GameWindow
         frame.setLayout(new BorderLayout());
         frame.setLocationRelativeTo(null);
         frame.setVisible(true);
-        canvas = new Canvas();
+        frame.addWindowListener(new WindowAdapter()
+        {
+            @Override
+            public void windowDeiconified(WindowEvent e)
+            {
+                invalidate();
+            }
+        });
+        canvas = new Canvas()
+        {
+            //The game draws actively; a repaint asked for by the system means the window was exposed
+            @Override
+            public void paint(Graphics g)
+            {
+                GameWindow.this.invalidate();
+            }
+
+            @Override
+            public void update(Graphics g)
+            {
+                paint(g);
+            }
+        };
         frame.add(canvas, BorderLayout.CENTER);
         frame.pack();
 
@@ -92,6 +117,27 @@ public class GameWindow
         frame.dispose();
     }
 
+    /**
+     * Marks the contents of the window as lost, e.g. after it was exposed or restored,
+     * so that the next frame is presented even if nothing in it has changed.
+     */
+    public void invalidate()
+    {
+        invalidated = true;
+    }
+
+    /**
+     * Clears the invalidated state of the window.
+     *
+     * @return Whether the window was invalidated since the previous call.
+     */
+    public boolean validate()
+    {
+        boolean was = invalidated;
+        invalidated = false;
+        return was;
+    }
+
     /**
      * @return The game title.
      */
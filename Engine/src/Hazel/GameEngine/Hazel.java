@@ -1,16 +1,23 @@
 package Hazel.GameEngine;
 
-import java.awt.Graphics;
-import java.awt.Graphics2D;
-import java.awt.GraphicsEnvironment;
-import java.awt.image.BufferStrategy;
-import java.awt.image.VolatileImage;
+import java.io.IOException;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
 
 import Hazel.GameEngine.Interfaces.Cortex;
+import Hazel.GameEngine.Interfaces.Presenter;
+import Hazel.GameEngine.Presenters.DirectPresenter;
+import Hazel.GameEngine.Presenters.HeadlessPresenter;
 import Hazel.Graphics.Context;
+import Hazel.Graphics.RenderQueue;
 import Hazel.Input.Input;
-import Hazel.System.Error;
+import Hazel.Input.InputRecorder;
+import Hazel.Input.InputReplay;
 import Hazel.System.Util;
+import Hazel.System.Profiler.FrameEvent;
+import Hazel.System.Profiler.Profiler;
+import Hazel.System.Profiler.ProfilerOverlay;
 import Hazel.System.Asset.AssetManager;
 
 /**
@@ -33,20 +40,53 @@ public abstract class Hazel implements Runnable, Cortex
     private static final int WideScreen = 0x0; //16 x 9 Aspect Ratio
     public static final int Square = 0x1; // 4 x 3 Aspect Ratio
 
-    private boolean isRunning = false; //The variable that controls if game is running or not
-    private static final String ERROR_MESSAGE = "Failed to Load " + gameTitle + " " + gameVersion; //Basic error message
+    private volatile boolean isRunning = false; //The variable that controls if game is running or not
     @SuppressWarnings("unused")
     private long start = System.currentTimeMillis(); //The tile timer
 
     private boolean fpsVerbose = false; //The global debug mode variable
+    private final boolean headless; //Whether the engine runs without a game window
+    private boolean renderEnabled = true; //Whether frames are rendered into the context
+    private boolean unthrottled = false; //Whether ticks run as fast as possible instead of at the target FPS
 
     private Hazel gameEngine; //The game object
     private GameWindow gameWindow; //The game window handler
     private Context ctx; //Game render 'canvas'
-    private VolatileImage nativeImage; //Native hardware accelerated canvas image
+    private Presenter presenter = new DirectPresenter(); //Pushes finished frames to the screen
     private int numBuffers = 3; //Number of BufferStrategy to use (higher prevents flicker, but slows performance)
     private int targetFPS = 60; //Desired FPS performance (Default Value = 60 FPS)
-    private double delta = 0d; //Time elapsed between each frame
+    private int updateRate = 0; //Desired updates per second (0 follows the target FPS)
+    private int maxCatchUp = 5; //Most updates run before a frame is rendered
+    private static double timestep = 1d / 60; //Fixed time step of each update, in seconds
+    private double alpha = 0d; //Fraction of a time step elapsed since the latest update
+
+    private static final int FRAME_SCOPE = Profiler.register("Hazel.frame"); //Profiler scope of a whole loop iteration
+    private static final int UPDATE_SCOPE = Profiler.register("Hazel.update"); //Profiler scope of each update
+    private static final int RENDER_SCOPE = Profiler.register("Hazel.render"); //Profiler scope of rendering (recording when pipelined)
+    private static final int RASTERIZE_SCOPE = Profiler.register("Hazel.rasterize"); //Profiler scope of the render thread's rasterization
+    private static final int PRESENT_SCOPE = Profiler.register("Hazel.present"); //Profiler scope of presenting a frame
+    private ProfilerOverlay profilerOverlay; //Draws the profiler results on screen (null when hidden)
+    private long frameNumber; //Number of loop iterations run
+    private long updateTime; //Time spent updating during the current loop iteration, in nanoseconds
+    private long renderTime; //Time spent rendering during the current loop iteration, in nanoseconds
+    private volatile long presentTime; //Duration of the latest present, in nanoseconds (written by the render thread when pipelined)
+
+    private static final int FRESH = 0x4; //Marks a handed-over frame the render thread has not taken yet
+    private boolean pipelined = false; //Whether frames are rasterized and presented on a separate render thread
+    private Thread renderThread; //The render thread (null when not pipelined)
+    private final RenderQueue[] frameQueues = new RenderQueue[3]; //Recorded frames, triple-buffered between both threads
+    private final AtomicInteger handover = new AtomicInteger(); //Index of the frame between both threads, or-ed with FRESH
+    private int recordingFrame; //Index of the frame being recorded (owned by the game thread)
+    private int renderingFrame; //Index of the frame being rasterized (owned by the render thread)
+    private final FramePacer pacer = new FramePacer(FramePacer.BALANCED); //Waits for the deadline of each frame
+
+    public static final String RECORD_PROPERTY = "hazel.record"; //System property naming a file the input of the session is recorded to
+    public static final String REPLAY_PROPERTY = "hazel.replay"; //System property naming an input recording to replay headless
+    public static final String REPLAY_STATS_PROPERTY = "hazel.replay.stats"; //System property naming a file the replay statistics are written to
+    private static final Random random = new Random(); //Random numbers of the game, reseeded before every update
+    private long seed = System.nanoTime(); //The random seed of the session
+    private long tick; //Number of updates run
+    private ReplayRunner replayRunner; //Replays recorded input and measures each tick (null when not replaying)
     private Input input; //The game input handler
 
     protected static Manager manager; //handler for all game object's
@@ -60,11 +100,30 @@ public abstract class Hazel implements Runnable, Cortex
      * @param gameRatio   The aspect ratio of the game window based on the {@code gameWidth}.
      * @param gameScale   The scale of the game window.
      */
-    @SuppressWarnings("static-access")
     public Hazel(String gameTitle, String gameVersion, int gameWidth, int gameRatio, int gameScale)
+    {
+        this(gameTitle, gameVersion, gameWidth, gameRatio, gameScale, false);
+    }
+
+    /**
+     * Creates the game engine instance, optionally without a game window.
+     * A headless engine runs the same {@code init()}, {@code update()} and {@code render()}
+     * lifecycle, but frames are only rendered into the {@code Context} and input is never received.
+     *
+     * @param gameTitle   The title of the game.
+     * @param gameVersion The version of the game.
+     * @param gameWidth   The width of the game window.
+     * @param gameRatio   The aspect ratio of the game window based on the {@code gameWidth}.
+     * @param gameScale   The scale of the game window.
+     * @param headless    Whether the engine runs without a game window.
+     */
+    @SuppressWarnings("static-access")
+    public Hazel(String gameTitle, String gameVersion, int gameWidth, int gameRatio, int gameScale, boolean headless)
     {
         printStartScreen();
 
+        this.headless = headless || System.getProperty(REPLAY_PROPERTY) != null;
+
         this.gameTitle = gameTitle;
         this.gameVersion = gameVersion;
         this.gameWidth = gameWidth;
@@ -76,7 +135,8 @@ public abstract class Hazel implements Runnable, Cortex
         ctx = new Context(gameWidth / gameScale, gameHeight / gameScale);
 
         this.gameEngine = this;
-        gameWindow = new GameWindow(this);
+        if (this.headless) presenter = new HeadlessPresenter();
+        else gameWindow = new GameWindow(this);
         input = new Input(this);
 
         manager = new Manager(this);
@@ -97,6 +157,7 @@ public abstract class Hazel implements Runnable, Cortex
     {
         printStartScreen();
 
+        this.headless = false;
         this.gameWindow = window;
         this.gameTitle = window.getTitle();
         this.gameVersion = gameVersion;
@@ -133,9 +194,9 @@ public abstract class Hazel implements Runnable, Cortex
 
     /**
      * Stops the game loop by setting the {@code isRunning} variable
-     * to false.
+     * to false. The engine cleans up once the current tick has finished.
      */
-    private synchronized void stop()
+    public synchronized void stop()
     {
         if (!isRunning) return;
         isRunning = false;
@@ -148,64 +209,215 @@ public abstract class Hazel implements Runnable, Cortex
     public void run()
     {
         init();
+        startFromProperties();
+        if (pipelined) startRenderThread();
 
         long then = System.nanoTime();
-        double unprocessed = 0;
-        double nsPerFrame = 1000000000.0d / targetFPS;
+        long accumulator = 0;
+        pacer.setTargetRate(targetFPS);
+        pacer.reset();
         int frames = 0, updates = 0;
         long lastVerbose = System.currentTimeMillis();
 
         while (isRunning)
         {
-            long now = System.nanoTime();
-            delta = unprocessed += (now - then) / nsPerFrame;
-            then = now;
-            boolean shouldRender = false;
+            long step = replayRunner != null ? replayRunner.getReplay().getTimestep() : 1000000000L / getUpdateRate();
+            timestep = step / 1e9;
 
-            while (unprocessed >= 1)
+            long now = System.nanoTime();
+            long frameStart = Profiler.begin();
+            if (replayRunner != null) replayRunner.beginTick();
+            FrameEvent event = new FrameEvent();
+            event.begin();
+            updateTime = 0;
+            renderTime = 0;
+            int updatesBefore = updates;
+            if (unthrottled || replayRunner != null)
             {
+                //Every tick advances the game by exactly one time step, however long it took
+                accumulator = 0;
                 update();
                 updates++;
+            } else
+            {
+                accumulator += now - then;
 
-                unprocessed -= 1;
-                shouldRender = true;
-            }
+                int steps = 0;
+                while (accumulator >= step && steps < maxCatchUp)
+                {
+                    update();
+                    updates++;
 
-            try
-            {
-                Thread.sleep(2);
-            } catch (InterruptedException e)
-            {
-                new Error(ERROR_MESSAGE);
+                    accumulator -= step;
+                    steps++;
+                }
+
+                //Time the game could not catch up on is dropped, so slow frames cannot snowball
+                if (accumulator >= step) accumulator %= step;
             }
+            then = now;
+            alpha = (double) accumulator / step;
 
-            if (shouldRender)
+            if (renderEnabled)
             {
                 render();
                 frames++;
             }
 
+            Profiler.end(FRAME_SCOPE, frameStart);
+            Profiler.endFrame();
+
+            event.end();
+            if (event.shouldCommit())
+            {
+                event.frame = frameNumber;
+                event.updates = updates - updatesBefore;
+                event.updateTime = updateTime;
+                event.renderTime = renderTime;
+                event.presentTime = presentTime;
+                event.commit();
+            }
+            frameNumber++;
+
+            if (replayRunner != null)
+            {
+                replayRunner.endTick();
+                if (replayRunner.isFinished()) stop();
+            } else if (!unthrottled) pacer.sync();
+
             if (fpsVerbose && System.currentTimeMillis() - lastVerbose > 1000)
             {
-                System.out.printf("[%d fps, %d updates]\n", frames, updates);
+                System.out.printf("[%d fps, %d updates, %s]\n", frames, updates, pacer);
+                pacer.resetStatistics();
                 lastVerbose += 1000;
                 frames = 0;
                 updates = 0;
             }
         }
 
+        if (renderThread != null)
+        {
+            LockSupport.unpark(renderThread);
+            try
+            {
+                renderThread.join();
+            } catch (InterruptedException e)
+            {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        if (replayRunner != null) finishReplay();
+
         cleanUp();
         stop();
     }
 
+    /**
+     * Starts recording or replaying input when asked for by the system properties.
+     */
+    private void startFromProperties()
+    {
+        String replayPath = System.getProperty(REPLAY_PROPERTY);
+        if (replayPath != null && replayRunner == null)
+        {
+            try
+            {
+                setReplay(new ReplayRunner(new InputReplay(replayPath)));
+            } catch (IOException e)
+            {
+                e.printStackTrace();
+                stop();
+            }
+        }
+
+        String recordPath = System.getProperty(RECORD_PROPERTY);
+        if (recordPath != null && replayRunner == null && input.getRecorder() == null)
+        {
+            try
+            {
+                startRecording(recordPath);
+            } catch (IOException e)
+            {
+                e.printStackTrace();
+            }
+        }
+    }
+
+    /**
+     * Reports the measurements of a finished replay.
+     */
+    private void finishReplay()
+    {
+        Util.log("[" + ENGINE_TITLE + "]: " + replayRunner);
+
+        String statsPath = System.getProperty(REPLAY_STATS_PROPERTY);
+        if (statsPath == null) return;
+
+        try
+        {
+            replayRunner.writeStatistics(statsPath);
+        } catch (IOException e)
+        {
+            e.printStackTrace();
+        }
+    }
+
+    /**
+     * Starts the render thread of the two-thread pipeline. The context is deferred, and
+     * its queue becomes one of three frame queues passed between both threads.
+     */
+    private void startRenderThread()
+    {
+        ctx.setDeferred(true);
+        frameQueues[0] = ctx.getRenderQueue();
+        frameQueues[1] = new RenderQueue();
+        frameQueues[2] = new RenderQueue();
+        recordingFrame = 0;
+        handover.set(1);
+        renderingFrame = 2;
+
+        renderThread = new Thread(this::renderLoop, gameTitle + " " + gameVersion + " Renderer");
+        renderThread.setPriority(Thread.MAX_PRIORITY);
+        renderThread.start();
+    }
+
+    /**
+     * The render loop of the two-thread pipeline rasterizes and presents the latest frame
+     * handed over by the game thread, while the game thread updates and records the next one.
+     */
+    private void renderLoop()
+    {
+        while (isRunning)
+        {
+            if ((handover.get() & FRESH) == 0)
+            {
+                LockSupport.park(this);
+                continue;
+            }
+
+            //Take the latest frame and give back the one rendered before
+            renderingFrame = handover.getAndSet(renderingFrame) & ~FRESH;
+            long start = Profiler.begin();
+            frameQueues[renderingFrame] = ctx.renderFrame(frameQueues[renderingFrame]);
+            Profiler.end(RASTERIZE_SCOPE, start);
+
+            present();
+        }
+    }
+
     /**
      * The parent update method which handles internal engine
      * object updates before invoking <pre>update()</pre>.
      */
     private void update()
     {
-        update(manager, delta);
+        long start = System.nanoTime();
+        random.setSeed(seed + tick * 0x9E3779B97F4A7C15L);
         input.update();
+        update(manager, timestep * targetFPS);
+        tick++;
+        updateTime += Profiler.elapsed(UPDATE_SCOPE, start);
     }
 
     /**
@@ -214,32 +426,57 @@ public abstract class Hazel implements Runnable, Cortex
      */
     private void render()
     {
-        int ctxWidth = ctx.getWidth(), ctxHeight = ctx.getHeight();
-        if (nativeImage == null)
+        if (renderThread != null)
         {
-            nativeImage = GraphicsEnvironment.getLocalGraphicsEnvironment().getDefaultScreenDevice()
-                    .getDefaultConfiguration().createCompatibleVolatileImage(ctxWidth, ctxHeight, VolatileImage.TRANSLUCENT);
-        }
-
-        BufferStrategy bs = this.gameWindow.getBufferStrategy();
-        if (bs == null)
-        {
-            this.gameWindow.getCanvas().createBufferStrategy(numBuffers);
-            this.gameWindow.getCanvas().requestFocus();
+            record();
             return;
         }
 
-        Graphics g = bs.getDrawGraphics();
+        long start = System.nanoTime();
         ctx.clear();
 
-        render(manager, ctx);
+        renderGame();
+        ctx.flush();
+        renderTime += Profiler.elapsed(RENDER_SCOPE, start);
+
+        present();
+    }
+
+    /**
+     * Renders the game, followed by the profiler overlay when shown.
+     */
+    private void renderGame()
+    {
+        render(manager, ctx, alpha);
+        if (profilerOverlay != null) profilerOverlay.render(ctx, 2, 2);
+    }
+
+    /**
+     * Pushes the rendered frame to the screen.
+     */
+    private void present()
+    {
+        long start = System.nanoTime();
+        presenter.present(ctx, gameWindow, getWidth() * getScale(), getHeight() * getScale());
+        presentTime = Profiler.elapsed(PRESENT_SCOPE, start);
+    }
+
+    /**
+     * Records a frame and hands it over to the render thread. A frame the render thread
+     * has not taken yet is replaced, so the render thread always draws the latest one.
+     */
+    private void record()
+    {
+        long start = System.nanoTime();
+        renderGame();
+        renderTime += Profiler.elapsed(RENDER_SCOPE, start);
+
+        int replaced = handover.getAndSet(recordingFrame | FRESH);
+        recordingFrame = replaced & ~FRESH;
+        frameQueues[recordingFrame].clear();
+        ctx.swapRenderQueue(frameQueues[recordingFrame]);
 
-        Graphics2D _g = nativeImage.createGraphics();
-        _g.drawImage(ctx.getImage(), 0, 0, null);
-        _g.dispose();
-        g.drawImage(nativeImage, 0, 0, getWidth() * getScale(), getHeight() * getScale(), null);
-        g.dispose();
-        bs.show();
+        LockSupport.unpark(renderThread);
     }
 
     /**
@@ -248,7 +485,9 @@ public abstract class Hazel implements Runnable, Cortex
      */
     private void cleanUp()
     {
-        gameWindow.cleanUp();
+        stopRecording();
+        presenter.cleanUp();
+        if (gameWindow != null) gameWindow.cleanUp();
         AssetManager.cleanUp();
     }
 
@@ -268,13 +507,76 @@ public abstract class Hazel implements Runnable, Cortex
     /**
      * Sets the desired FPS.
      *
-     * @param target Desired FPS.
+     * @param target Desired FPS (must be positive).
      */
     public void setTargetFPS(int target)
     {
+        if (target <= 0) throw new IllegalArgumentException("Target FPS must be positive! target: " + target);
+
+        pacer.setTargetRate(target);
         this.targetFPS = target;
     }
 
+    /**
+     * Sets the desired number of updates per second, independently of the frame rate.
+     * Updates then run at a fixed time step, and each frame is rendered with the fraction
+     * of a time step elapsed since the latest update, to interpolate between game states.
+     *
+     * @param rate Desired updates per second (0 to follow the target FPS).
+     */
+    public void setUpdateRate(int rate)
+    {
+        if (rate < 0) throw new IllegalArgumentException("Update rate cannot be negative! rate: " + rate);
+
+        this.updateRate = rate;
+    }
+
+    /**
+     * @return The desired number of updates per second.
+     */
+    public int getUpdateRate()
+    {
+        return updateRate > 0 ? updateRate : targetFPS;
+    }
+
+    /**
+     * Sets the most updates run before a frame is rendered. When the game falls further
+     * behind, the remaining time is dropped and the game runs slower instead of spending
+     * ever more time catching up.
+     *
+     * @param updates Most updates per frame.
+     */
+    public void setMaxCatchUp(int updates)
+    {
+        if (updates < 1) throw new IllegalArgumentException("At least one update per frame is required! updates: " + updates);
+
+        this.maxCatchUp = updates;
+    }
+
+    /**
+     * @return The most updates run before a frame is rendered.
+     */
+    public int getMaxCatchUp()
+    {
+        return maxCatchUp;
+    }
+
+    /**
+     * @return The fixed time step of each update, in seconds.
+     */
+    public static double getTimestep()
+    {
+        return timestep;
+    }
+
+    /**
+     * @return The frame pacer, e.g. to change its strategy or read its jitter statistics.
+     */
+    public FramePacer getFramePacer()
+    {
+        return pacer;
+    }
+
     /**
      * @return The current desired FPS.
      */
@@ -302,6 +604,192 @@ public abstract class Hazel implements Runnable, Cortex
         return fpsVerbose;
     }
 
+    /**
+     * Shows or hides the profiler results on screen, drawn over the game with the current font.
+     * Scopes are only timed while the {@code Profiler} is enabled.
+     *
+     * @param visible Overlay flag.
+     */
+    public void setProfilerOverlay(boolean visible)
+    {
+        profilerOverlay = visible ? new ProfilerOverlay(FRAME_SCOPE) : null;
+    }
+
+    /**
+     * @return Whether the profiler results are shown on screen.
+     */
+    public boolean isProfilerOverlay()
+    {
+        return profilerOverlay != null;
+    }
+
+    /**
+     * Sets whether frames are rasterized and presented on a separate render thread.
+     * The game thread then only updates the game and records each frame into the deferred
+     * context, while the render thread draws the frame recorded before, so a slow frame
+     * no longer holds up the game. Frames are handed over lock-free through three render
+     * queues; when the render thread falls behind, it skips to the latest frame.
+     * <br>
+     * Must be set from {@code init()}. Recorded frames refer to bitmaps rather than copies of
+     * them, so bitmaps edited in place while being drawn may show the edit a frame early.
+     *
+     * @param pipelined Pipeline flag.
+     */
+    public void setPipelined(boolean pipelined)
+    {
+        this.pipelined = pipelined;
+    }
+
+    /**
+     * @return Whether frames are rasterized and presented on a separate render thread.
+     */
+    public boolean isPipelined()
+    {
+        return pipelined;
+    }
+
+    /**
+     * @return Whether the engine runs without a game window.
+     */
+    public boolean isHeadless()
+    {
+        return headless;
+    }
+
+    /**
+     * Sets whether frames are rendered into the context. With rendering disabled only
+     * {@code update()} is run, e.g. on simulation servers.
+     *
+     * @param enabled Rendering flag.
+     */
+    public void setRenderEnabled(boolean enabled)
+    {
+        this.renderEnabled = enabled;
+    }
+
+    /**
+     * @return Whether frames are rendered into the context.
+     */
+    public boolean isRenderEnabled()
+    {
+        return renderEnabled;
+    }
+
+    /**
+     * Sets whether ticks run back to back as fast as possible instead of at the target FPS.
+     * Every unthrottled tick advances the game by exactly one time step, so runs are reproducible
+     * regardless of machine speed. Usually set from {@code init()}, e.g. for benchmarks.
+     *
+     * @param unthrottled Unthrottled flag.
+     */
+    public void setUnthrottled(boolean unthrottled)
+    {
+        this.unthrottled = unthrottled;
+    }
+
+    /**
+     * @return Whether ticks run as fast as possible instead of at the target FPS.
+     */
+    public boolean isUnthrottled()
+    {
+        return unthrottled;
+    }
+
+    /**
+     * Method used to start recording the input of every tick, along with the random seed,
+     * so that the session can be replayed. Any previous recording is finished first.
+     *
+     * @param path The path to the recording file.
+     * @throws IOException If the file cannot be created.
+     */
+    public void startRecording(String path) throws IOException
+    {
+        stopRecording();
+        input.setRecorder(new InputRecorder(path, seed, tick, 1000000000L / getUpdateRate()));
+    }
+
+    /**
+     * Method used to finish the current input recording, if any.
+     */
+    public void stopRecording()
+    {
+        InputRecorder recorder = input.getRecorder();
+        if (recorder == null) return;
+
+        input.setRecorder(null);
+        try
+        {
+            recorder.close();
+        } catch (IOException e)
+        {
+            e.printStackTrace();
+        }
+    }
+
+    /**
+     * Sets the runner replaying recorded input. The random seed and tick number are taken
+     * from the recording, ticks run unpaced at the recorded time step, and the engine stops
+     * after the last recorded tick. Usually set from {@code init()}, or through the
+     * {@code hazel.replay} system property, which also makes the engine headless.
+     *
+     * @param runner The replay runner (null to take input from the game window again).
+     */
+    public void setReplay(ReplayRunner runner)
+    {
+        replayRunner = runner;
+        input.setReplay(runner != null ? runner.getReplay() : null);
+        if (runner == null) return;
+
+        seed = runner.getReplay().getSeed();
+        tick = runner.getReplay().getFirstTick();
+    }
+
+    /**
+     * @return The runner replaying recorded input (null when not replaying).
+     */
+    public ReplayRunner getReplay()
+    {
+        return replayRunner;
+    }
+
+    /**
+     * Sets the random seed of the session. The random numbers of every update are derived
+     * from the seed and the tick number, so that a replayed session draws the same ones.
+     *
+     * @param seed The random seed.
+     */
+    public void setSeed(long seed)
+    {
+        this.seed = seed;
+    }
+
+    /**
+     * @return The random seed of the session.
+     */
+    public long getSeed()
+    {
+        return seed;
+    }
+
+    /**
+     * @return Number of updates run (the number of the next tick).
+     */
+    public long getTick()
+    {
+        return tick;
+    }
+
+    /**
+     * Supplies the random numbers of the game. Drawing from this generator during updates
+     * keeps recorded sessions repeatable, as it is reseeded before every update.
+     *
+     * @return The random number generator of the game.
+     */
+    public static Random getRandom()
+    {
+        return random;
+    }
+
     /**
      * @return The game title.
      */
@@ -350,6 +838,28 @@ public abstract class Hazel implements Runnable, Cortex
         return gameHeight * gameScale;
     }
 
+    /**
+     * Sets the presenter that pushes finished frames to the screen,
+     * e.g. a {@code VolatileImagePresenter} for the original presentation path.
+     *
+     * @param presenter The presenter to use.
+     */
+    public void setPresenter(Presenter presenter)
+    {
+        if (presenter == null) throw new IllegalArgumentException("A presenter is required!");
+
+        this.presenter.cleanUp();
+        this.presenter = presenter;
+    }
+
+    /**
+     * @return The presenter that pushes finished frames to the screen.
+     */
+    public Presenter getPresenter()
+    {
+        return presenter;
+    }
+
     /**
      * @return The number of BufferStrategy to use (higher prevents flicker but slows performance).
      */
@@ -20,7 +20,9 @@ public interface Cortex
      * Updates the game based on the back-end game clock.
      *
      * @param manager The engine manager object.
-     * @param delta   Time elapsed between each frame.
+     * @param delta   Time step of the update, in frames of the target frame rate (1.0 unless the
+     *                update rate differs from the target FPS). {@link Hazel.GameEngine.Hazel#getTimestep()}
+     *                gives the same step in seconds.
      */
     void update(Manager manager, double delta);
 
@@ -32,4 +34,18 @@ public interface Cortex
      * @param ctx     The Game render 'canvas'.
      */
     void render(Manager manager, Context ctx);
+
+    /**
+     * Renders all of the game objects between two updates.
+     * Override this to interpolate game objects between their previous and latest states;
+     * by default the latest state is rendered.
+     *
+     * @param manager The engine manager object.
+     * @param ctx     The Game render 'canvas'.
+     * @param alpha   Fraction of a time step elapsed since the latest update (between 0 and 1).
+     */
+    default void render(Manager manager, Context ctx, double alpha)
+    {
+        render(manager, ctx);
+    }
 }
@@ -0,0 +1,28 @@
+package Hazel.GameEngine.Interfaces;
+
+import Hazel.GameEngine.GameWindow;
+import Hazel.Graphics.Context;
+
+/**
+ * {@code Presenter} is the main game engine's presentation interface class.
+ * <br>
+ * This class is used to push finished frames of a render context to the screen, so that
+ * the way pixels reach the display can be chosen by the game.
+ */
+public interface Presenter
+{
+    /**
+     * Pushes the finished frame of a render context to the screen.
+     *
+     * @param ctx    The Game render 'canvas', already flushed.
+     * @param window The game window (null when running headless).
+     * @param width  Width of the area to be covered on screen.
+     * @param height Height of the area to be covered on screen.
+     */
+    void present(Context ctx, GameWindow window, int width, int height);
+
+    /**
+     * Method used to clean up memory used by the presenter.
+     */
+    void cleanUp();
+}
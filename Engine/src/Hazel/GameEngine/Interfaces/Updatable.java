@@ -14,7 +14,9 @@ public interface Updatable
      * Updates the game based on the back-end game clock.
      *
      * @param manager The engine manager object.
-     * @param delta   Time elapsed between each frame.
+     * @param delta   Time step of the update, in frames of the target frame rate (1.0 unless the
+     *                update rate differs from the target FPS). {@link Hazel.GameEngine.Hazel#getTimestep()}
+     *                gives the same step in seconds.
      */
     void update(Manager manager, double delta);
 }
@@ -0,0 +1,200 @@
+package Hazel.GameEngine.Presenters;
+
+import java.awt.AlphaComposite;
+import java.awt.Graphics2D;
+import java.awt.image.BufferStrategy;
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
+import java.util.stream.IntStream;
+
+import Hazel.GameEngine.GameWindow;
+import Hazel.GameEngine.Interfaces.Presenter;
+import Hazel.Graphics.Context;
+import Hazel.Graphics.DamageRegion;
+
+/**
+ * {@code DirectPresenter} pushes the pixels of the context to the back buffer in one step.
+ * <br>
+ * The context is enlarged by the largest whole factor that fits the window, using
+ * nearest-neighbour replication straight from its {@code int[]} pixel data, and the
+ * result is drawn onto the back buffer without any further scaling. At a factor of 1 the
+ * context image is drawn directly. No intermediate {@code VolatileImage} is involved.
+ * When the context tracks dirty regions, only the damaged regions are enlarged again, and
+ * a frame without damage is only presented again when the window has been invalidated.
+ */
+public class DirectPresenter implements Presenter
+{
+    private static final int PARALLEL_THRESHOLD = 256 * 256; //Enlarged pixels from which rows are split across threads
+
+    private BufferedImage staging; //Enlarged copy of the context (null at a factor of 1)
+    private int[] stagingData; //Pixel data of the enlarged copy
+    private int factor; //Current enlargement factor
+    private boolean parallel = true; //Whether large areas are enlarged on several threads
+
+    @Override
+    public void present(Context ctx, GameWindow window, int width, int height)
+    {
+        BufferStrategy bs = window.getBufferStrategy();
+        if (bs == null) return;
+        boolean invalidated = window.validate();
+
+        int ctxWidth = ctx.getWidth(), ctxHeight = ctx.getHeight();
+        int scale = Math.max(1, Math.min(width / ctxWidth, height / ctxHeight));
+
+        boolean resized = scale != factor || (scale > 1 && (staging == null
+                || staging.getWidth() != ctxWidth * scale || staging.getHeight() != ctxHeight * scale));
+        if (resized)
+        {
+            factor = scale;
+            staging = scale > 1 ? new BufferedImage(ctxWidth * scale, ctxHeight * scale, BufferedImage.TYPE_INT_RGB) : null;
+            stagingData = staging != null ? ((DataBufferInt) staging.getRaster().getDataBuffer()).getData() : null;
+        }
+
+        //Only the damaged regions are enlarged, unless the back buffer or the staging image is new
+        if (ctx.isDirtyTracking() && !resized && !bs.contentsLost())
+        {
+            DamageRegion damage = ctx.getDamage();
+            //An exposed window is given the last frame again, even when nothing has changed
+            if (damage.isEmpty() && !invalidated) return;
+
+            if (staging != null)
+            {
+                for (int i = 0; i < damage.size(); i++)
+                {
+                    int x = damage.getX(i), y = damage.getY(i);
+                    enlarge(ctx.getPixels(), ctxWidth, x, y, x + damage.getWidth(i), y + damage.getHeight(i));
+                }
+            }
+        } else if (staging != null)
+        {
+            enlarge(ctx.getPixels(), ctxWidth, 0, 0, ctxWidth, ctxHeight);
+        }
+
+        BufferedImage frame = staging != null ? staging : ctx.getImage();
+        do
+        {
+            do
+            {
+                Graphics2D g = (Graphics2D) bs.getDrawGraphics();
+                g.setComposite(AlphaComposite.Src);
+                g.drawImage(frame, 0, 0, width, height, null);
+                g.dispose();
+            } while (bs.contentsRestored());
+
+            bs.show();
+        } while (bs.contentsLost());
+    }
+
+    /**
+     * Enlarges a region of the context into the staging image.
+     */
+    private void enlarge(int[] src, int srcWidth, int x0, int y0, int x1, int y1)
+    {
+        boolean split = parallel && (long) (x1 - x0) * (y1 - y0) * factor * factor >= PARALLEL_THRESHOLD;
+        scale(src, srcWidth, stagingData, factor, x0, y0, x1, y1, split);
+    }
+
+    /**
+     * Enlarges a region of a pixel buffer by a whole factor using nearest-neighbour
+     * replication. Every source pixel is written <code>factor</code> times into the first
+     * destination row of its block, which is then copied into the remaining rows.
+     *
+     * @param src      Source pixel data.
+     * @param srcWidth Width of the source, in pixels.
+     * @param dst      Destination pixel data, <code>factor</code> times as wide and high as the source.
+     * @param factor   Enlargement factor (1 or more).
+     * @param x0       Left edge of the source region (inclusive).
+     * @param y0       Top edge of the source region (inclusive).
+     * @param x1       Right edge of the source region (exclusive).
+     * @param y1       Bottom edge of the source region (exclusive).
+     * @param parallel Whether source rows are enlarged on several threads.
+     */
+    public static void scale(int[] src, int srcWidth, int[] dst, int factor,
+                             int x0, int y0, int x1, int y1, boolean parallel)
+    {
+        if (factor < 1) throw new IllegalArgumentException("Cannot enlarge by a factor of " + factor + "!");
+        if (x0 >= x1 || y0 >= y1) return;
+
+        int dstWidth = srcWidth * factor;
+        int span = (x1 - x0) * factor;
+
+        if (parallel)
+            IntStream.range(y0, y1).parallel().forEach(y -> scaleRow(src, srcWidth, dst, dstWidth, factor, x0, x1, y, span));
+        else
+            for (int y = y0; y < y1; y++) scaleRow(src, srcWidth, dst, dstWidth, factor, x0, x1, y, span);
+    }
+
+    /**
+     * Enlarges a single source row into its block of destination rows.
+     */
+    private static void scaleRow(int[] src, int srcWidth, int[] dst, int dstWidth, int factor,
+                                 int x0, int x1, int y, int span)
+    {
+        int first = y * factor * dstWidth + x0 * factor;
+        int d = first;
+        int s = y * srcWidth + x0;
+
+        if (factor == 1)
+        {
+            System.arraycopy(src, s, dst, d, span);
+            return;
+        }
+
+        if (factor == 2)
+        {
+            for (int x = x0; x < x1; x++, s++)
+            {
+                int pixel = src[s];
+                dst[d++] = pixel;
+                dst[d++] = pixel;
+            }
+        } else
+        {
+            for (int x = x0; x < x1; x++, s++)
+            {
+                int pixel = src[s];
+                for (int i = 0; i < factor; i++) dst[d++] = pixel;
+            }
+        }
+
+        for (int row = 1; row < factor; row++)
+        {
+            System.arraycopy(dst, first, dst, first + row * dstWidth, span);
+        }
+    }
+
+    @Override
+    public void cleanUp()
+    {
+        if (staging != null) staging.flush();
+        staging = null;
+        stagingData = null;
+        factor = 0;
+    }
+
+    /**
+     * Sets whether large areas are enlarged on several threads.
+     *
+     * @param parallel Multithreading flag.
+     */
+    public void setParallel(boolean parallel)
+    {
+        this.parallel = parallel;
+    }
+
+    /**
+     * @return Whether large areas are enlarged on several threads.
+     */
+    public boolean isParallel()
+    {
+        return parallel;
+    }
+
+    /**
+     * @return The current enlargement factor (0 before the first frame).
+     */
+    public int getFactor()
+    {
+        return factor;
+    }
+}
@@ -0,0 +1,35 @@
+package Hazel.GameEngine.Presenters;
+
+import Hazel.GameEngine.GameWindow;
+import Hazel.GameEngine.Interfaces.Presenter;
+import Hazel.Graphics.Context;
+
+/**
+ * {@code HeadlessPresenter} is a presenter that never touches the screen.
+ * <br>
+ * This class should be used when no display is available, e.g. on servers and in tests,
+ * where frames are rendered into the context but not shown.
+ */
+public class HeadlessPresenter implements Presenter
+{
+    private long frames; //Number of frames handed to the presenter
+
+    @Override
+    public void present(Context ctx, GameWindow window, int width, int height)
+    {
+        frames++;
+    }
+
+    @Override
+    public void cleanUp()
+    {
+    }
+
+    /**
+     * @return The number of frames handed to the presenter.
+     */
+    public long getFrameCount()
+    {
+        return frames;
+    }
+}
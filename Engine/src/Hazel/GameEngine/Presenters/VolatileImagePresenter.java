@@ -0,0 +1,96 @@
+package Hazel.GameEngine.Presenters;
+
+import java.awt.AlphaComposite;
+import java.awt.Graphics;
+import java.awt.Graphics2D;
+import java.awt.GraphicsConfiguration;
+import java.awt.GraphicsEnvironment;
+import java.awt.image.BufferStrategy;
+import java.awt.image.VolatileImage;
+
+import Hazel.GameEngine.GameWindow;
+import Hazel.GameEngine.Interfaces.Presenter;
+import Hazel.Graphics.Context;
+import Hazel.Graphics.DamageRegion;
+
+/**
+ * {@code VolatileImagePresenter} is the original presentation path of the engine.
+ * <br>
+ * Each frame is copied into a hardware accelerated {@code VolatileImage}, which is then
+ * scaled onto the back buffer. When the context tracks dirty regions, only the damaged
+ * regions are copied, and a frame without damage is only presented again when the window has
+ * been invalidated. Contents lost by either image are restored by copying the frame again.
+ */
+public class VolatileImagePresenter implements Presenter
+{
+    private VolatileImage nativeImage; //Native hardware accelerated canvas image
+
+    @Override
+    public void present(Context ctx, GameWindow window, int width, int height)
+    {
+        BufferStrategy bs = window.getBufferStrategy();
+        if (bs == null) return;
+        boolean invalidated = window.validate();
+
+        int ctxWidth = ctx.getWidth(), ctxHeight = ctx.getHeight();
+        GraphicsConfiguration gc = window.getCanvas().getGraphicsConfiguration();
+        if (nativeImage == null)
+        {
+            nativeImage = GraphicsEnvironment.getLocalGraphicsEnvironment().getDefaultScreenDevice()
+                    .getDefaultConfiguration().createCompatibleVolatileImage(ctxWidth, ctxHeight, VolatileImage.TRANSLUCENT);
+        }
+
+        do
+        {
+            int status = nativeImage.validate(gc);
+            if (status == VolatileImage.IMAGE_INCOMPATIBLE)
+            {
+                nativeImage.flush();
+                nativeImage = gc.createCompatibleVolatileImage(ctxWidth, ctxHeight, VolatileImage.TRANSLUCENT);
+            }
+
+            //Only the damaged regions are copied, unless the native image lost its contents
+            boolean restored = status != VolatileImage.IMAGE_OK;
+            if (ctx.isDirtyTracking() && !restored && !bs.contentsLost())
+            {
+                DamageRegion damage = ctx.getDamage();
+                //An exposed window is given the last frame again, even when nothing has changed
+                if (damage.isEmpty() && !invalidated) return;
+
+                Graphics2D _g = nativeImage.createGraphics();
+                _g.setComposite(AlphaComposite.Src);
+                for (int i = 0; i < damage.size(); i++)
+                {
+                    int x = damage.getX(i), y = damage.getY(i);
+                    int x1 = x + damage.getWidth(i), y1 = y + damage.getHeight(i);
+                    _g.drawImage(ctx.getImage(), x, y, x1, y1, x, y, x1, y1, null);
+                }
+                _g.dispose();
+            } else
+            {
+                Graphics2D _g = nativeImage.createGraphics();
+                _g.drawImage(ctx.getImage(), 0, 0, null);
+                _g.dispose();
+            }
+        } while (nativeImage.contentsLost());
+
+        do
+        {
+            do
+            {
+                Graphics g = bs.getDrawGraphics();
+                g.drawImage(nativeImage, 0, 0, width, height, null);
+                g.dispose();
+            } while (bs.contentsRestored());
+
+            bs.show();
+        } while (bs.contentsLost());
+    }
+
+    @Override
+    public void cleanUp()
+    {
+        if (nativeImage != null) nativeImage.flush();
+        nativeImage = null;
+    }
+}
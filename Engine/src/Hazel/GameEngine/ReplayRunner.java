@@ -0,0 +1,187 @@
+package Hazel.GameEngine;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+
+import Hazel.Input.InputReplay;
+import Hazel.System.Profiler.Histogram;
+
+/**
+ * {@code ReplayRunner} replays recorded input as a repeatable benchmark.
+ * <br>
+ * While a runner is set on the engine, every tick takes its input from the recording and
+ * advances the game by the recorded time step, with the random numbers reseeded as in the
+ * recorded session. Ticks run back to back without pacing, and the engine stops after the
+ * last recorded tick. The runner measures the time and, where the JVM supports it, the
+ * bytes allocated by the game thread during each tick.
+ */
+public class ReplayRunner
+{
+    private final InputReplay replay; //The recording being replayed
+    private final long[] tickTimes; //Duration of each replayed tick, in nanoseconds
+    private final long[] tickAllocations; //Bytes allocated by the game thread during each replayed tick (-1 if unsupported)
+    private final com.sun.management.ThreadMXBean threads; //Measures allocations (null if unsupported)
+
+    private long tickStart; //Time at which the current tick started
+    private long allocationStart; //Bytes allocated by the game thread when the current tick started
+    private int ticks; //Number of ticks measured
+
+    /**
+     * Creates a runner for a recording.
+     *
+     * @param replay The recording to replay.
+     */
+    public ReplayRunner(InputReplay replay)
+    {
+        this.replay = replay;
+        tickTimes = new long[replay.getTickCount()];
+        tickAllocations = new long[replay.getTickCount()];
+
+        ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        if (bean instanceof com.sun.management.ThreadMXBean
+                && ((com.sun.management.ThreadMXBean) bean).isThreadAllocatedMemorySupported())
+        {
+            threads = (com.sun.management.ThreadMXBean) bean;
+            threads.setThreadAllocatedMemoryEnabled(true);
+        } else threads = null;
+    }
+
+    /**
+     * Method used to start measuring a tick, called by the engine on the game thread.
+     */
+    void beginTick()
+    {
+        allocationStart = allocatedBytes();
+        tickStart = System.nanoTime();
+    }
+
+    /**
+     * Method used to finish measuring a tick, called by the engine on the game thread.
+     */
+    void endTick()
+    {
+        long time = System.nanoTime() - tickStart;
+        long allocated = threads != null ? allocatedBytes() - allocationStart : -1;
+
+        if (ticks < tickTimes.length)
+        {
+            tickTimes[ticks] = time;
+            tickAllocations[ticks] = allocated;
+            ticks++;
+        }
+    }
+
+    /**
+     * @return Bytes allocated by the current thread so far (0 if unsupported).
+     */
+    private long allocatedBytes()
+    {
+        return threads != null ? threads.getThreadAllocatedBytes(Thread.currentThread().getId()) : 0;
+    }
+
+    /**
+     * @return The recording being replayed.
+     */
+    public InputReplay getReplay()
+    {
+        return replay;
+    }
+
+    /**
+     * @return Whether every recorded tick has been replayed.
+     */
+    public boolean isFinished()
+    {
+        return replay.isFinished();
+    }
+
+    /**
+     * @return Number of ticks measured.
+     */
+    public int getTickCount()
+    {
+        return ticks;
+    }
+
+    /**
+     * @param tick The index of the tick, from 0.
+     * @return Duration of the tick, in nanoseconds.
+     */
+    public long getTickTime(int tick)
+    {
+        return tickTimes[tick];
+    }
+
+    /**
+     * @param tick The index of the tick, from 0.
+     * @return Bytes allocated by the game thread during the tick (-1 if the JVM cannot tell).
+     */
+    public long getTickAllocation(int tick)
+    {
+        return tickAllocations[tick];
+    }
+
+    /**
+     * @return The durations of the measured ticks, in nanoseconds.
+     */
+    public Histogram getTickTimes()
+    {
+        Histogram histogram = new Histogram();
+        for (int i = 0; i < ticks; i++) histogram.record(tickTimes[i]);
+        return histogram;
+    }
+
+    /**
+     * @return Total duration of the measured ticks, in nanoseconds.
+     */
+    public long getTotalTime()
+    {
+        long total = 0;
+        for (int i = 0; i < ticks; i++) total += tickTimes[i];
+        return total;
+    }
+
+    /**
+     * @return Total bytes allocated during the measured ticks (-1 if the JVM cannot tell).
+     */
+    public long getTotalAllocation()
+    {
+        if (threads == null) return -1;
+
+        long total = 0;
+        for (int i = 0; i < ticks; i++) total += tickAllocations[i];
+        return total;
+    }
+
+    /**
+     * Method used to write the measurements of every tick as CSV ({@code tick,nanos,bytes}).
+     *
+     * @param path The path to the statistics file.
+     * @throws IOException If the file cannot be written.
+     */
+    public void writeStatistics(String path) throws IOException
+    {
+        try (PrintWriter writer = new PrintWriter(path, "UTF-8"))
+        {
+            writer.println("tick,nanos,bytes");
+            for (int i = 0; i < ticks; i++)
+            {
+                writer.println((replay.getFirstTick() + i) + "," + tickTimes[i] + "," + tickAllocations[i]);
+            }
+        }
+    }
+
+    @Override
+    public String toString()
+    {
+        Histogram histogram = getTickTimes();
+        long total = getTotalTime();
+        long allocated = getTotalAllocation();
+        return String.format("replayed %d ticks in %.1f ms (%.0f ticks/s), tick p50 %.3f ms, p99 %.3f ms, max %.3f ms, %s",
+                ticks, total / 1e6, total > 0 ? ticks * 1e9 / total : 0,
+                histogram.getValueAtPercentile(50) / 1e6, histogram.getValueAtPercentile(99) / 1e6, histogram.getMax() / 1e6,
+                allocated < 0 ? "allocations unknown" : String.format("%.1f KB allocated per tick", ticks > 0 ? allocated / 1024d / ticks : 0));
+    }
+}
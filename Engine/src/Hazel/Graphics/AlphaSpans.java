@@ -0,0 +1,121 @@
+package Hazel.Graphics;
+
+/**
+ * A precomputed, run-length description of the alpha channel of a block of pixels.
+ * Each row is split into runs that are either skipped (fully transparent), copied
+ * (fully opaque) or blended (translucent), so the blitter never has to test the alpha
+ * of a pixel it is about to skip or copy.
+ * <p>
+ * Runs are packed into a single integer array as <code>(length &lt;&lt; 2) | kind</code>,
+ * and <code>rowStart[row]</code> points at the first run of each row. Fully opaque
+ * blocks store no runs at all; their rows are always copied whole.
+ */
+final class AlphaSpans
+{
+    /**
+     * Run of fully transparent pixels
+     */
+    static final int SKIP = 0;
+
+    /**
+     * Run of fully opaque pixels
+     */
+    static final int COPY = 1;
+
+    /**
+     * Run of translucent pixels
+     */
+    static final int BLEND = 2;
+
+    /**
+     * Alpha classification of the whole block (see <code>Bitmap.OPAQUE</code> etc.)
+     */
+    final int alphaClass;
+
+    /**
+     * Index of the first run of each row, plus one trailing entry
+     */
+    final int[] rowStart;
+
+    /**
+     * Packed runs of all rows
+     */
+    final int[] runs;
+
+    private AlphaSpans(int alphaClass, int[] rowStart, int[] runs)
+    {
+        this.alphaClass = alphaClass;
+        this.rowStart = rowStart;
+        this.runs = runs;
+    }
+
+    /**
+     * Classifies and run-length encodes a block of pixels.
+     *
+     * @param data   Pixel data.
+     * @param offset Index of the top-left pixel.
+     * @param stride Distance between two rows, in pixels.
+     * @param width  Width of the block, in pixels.
+     * @param height Height of the block, in pixels.
+     * @return The span description of the block.
+     */
+    static AlphaSpans build(int[] data, int offset, int stride, int width, int height)
+    {
+        boolean opaque = true, binary = true;
+        for (int y = 0, row = offset; y < height && binary; y++, row += stride)
+        {
+            for (int i = row, end = row + width; i < end; i++)
+            {
+                int a = data[i] >>> 24;
+                if (a == 255) continue;
+                opaque = false;
+                if (a != 0)
+                {
+                    binary = false;
+                    break;
+                }
+            }
+        }
+
+        if (opaque) return new AlphaSpans(Bitmap.OPAQUE, null, null);
+
+        int[] rowStart = new int[height + 1];
+        int[] runs = new int[Math.max(16, height * 2)];
+        int count = 0;
+
+        for (int y = 0, row = offset; y < height; y++, row += stride)
+        {
+            rowStart[y] = count;
+            int x = 0;
+            while (x < width)
+            {
+                int kind = kindOf(data[row + x]);
+                int start = x++;
+                while (x < width && kindOf(data[row + x]) == kind) x++;
+
+                if (count == runs.length)
+                {
+                    int[] grown = new int[runs.length * 2];
+                    System.arraycopy(runs, 0, grown, 0, count);
+                    runs = grown;
+                }
+                runs[count++] = ((x - start) << 2) | kind;
+            }
+        }
+        rowStart[height] = count;
+
+        int[] packed = new int[count];
+        System.arraycopy(runs, 0, packed, 0, count);
+        return new AlphaSpans(binary ? Bitmap.BINARY_ALPHA : Bitmap.TRANSLUCENT, rowStart, packed);
+    }
+
+    /**
+     * @param pixel Color integer with model ARGB.
+     * @return The run kind a pixel belongs to.
+     */
+    private static int kindOf(int pixel)
+    {
+        int a = pixel >>> 24;
+        return a == 255 ? COPY : a == 0 ? SKIP : BLEND;
+    }
+}
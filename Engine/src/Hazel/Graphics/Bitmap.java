@@ -2,21 +2,44 @@ package Hazel.Graphics;
 
 import Hazel.System.Asset.Type.Images.Image;
 
-import java.awt.AlphaComposite;
-import java.awt.Color;
-import java.awt.Graphics2D;
-import java.awt.GraphicsEnvironment;
 import java.awt.image.BufferedImage;
-import java.awt.image.VolatileImage;
+import java.awt.image.DataBufferInt;
+import java.awt.image.Raster;
+import java.awt.image.SinglePixelPackedSampleModel;
 
 /**
  * Bitmap is a representation of a region of pixel data as derived from a BufferedImage.
  * Assets (images) are loaded in the form of BufferedImage before translated into an array
  * integer representation of its pixel data. The render context then calculates the suitable
  * coordinate on-screen to render the bitmap.
+ * <p>
+ * When a bitmap is created from existing pixel data, its alpha channel is classified and
+ * split into per-row runs of transparent, opaque and translucent pixels, which lets the
+ * render context skip, copy or blend whole runs at once. If the pixel data is modified
+ * afterwards, <code>updateSpans()</code> must be called.
+ * <p>
+ * A bitmap may also be a view: a rectangular window into the pixels of another bitmap,
+ * described by an offset into the shared array and the distance between two rows (the
+ * stride). Views copy nothing, so spritesheet cells, font glyphs and sub-regions cost no
+ * more memory than their parent. Edits made through either bitmap are visible in both.
  */
 public class Bitmap
 {
+    /**
+     * Alpha classification: every pixel is fully opaque
+     */
+    public static final int OPAQUE = 0x0;
+
+    /**
+     * Alpha classification: every pixel is either fully opaque or fully transparent
+     */
+    public static final int BINARY_ALPHA = 0x1;
+
+    /**
+     * Alpha classification: at least one pixel is translucent
+     */
+    public static final int TRANSLUCENT = 0x2;
+
     /**
      * Width of bitmap image
      */
@@ -28,15 +51,40 @@ public class Bitmap
     private int height;
 
     /**
-     * Pixel color data
+     * Pixel color data (shared with the parent when this bitmap is a view)
      */
     private int[] data;
 
     /**
-     * Original image representation of Bitmap
+     * Index of the top-left pixel within the pixel data
+     */
+    private int offset;
+
+    /**
+     * Distance between two rows within the pixel data, in pixels
+     */
+    private int stride;
+
+    /**
+     * Original image representation of Bitmap (created on demand for views)
      */
     private BufferedImage image;
 
+    /**
+     * Image of the outermost parent, if this bitmap is a view
+     */
+    private BufferedImage source;
+
+    /**
+     * Location of a view within the image of its outermost parent
+     */
+    private int sourceX, sourceY;
+
+    /**
+     * Precomputed alpha runs of the pixel data (null if unknown)
+     */
+    private AlphaSpans spans;
+
     /**
      * Creates an empty bitmap of specified size.
      *
@@ -47,6 +95,7 @@ public class Bitmap
     {
         this.width = width;
         this.height = height;
+        this.stride = width;
         this.image = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
         this.data = Image.getData(image);
     }
@@ -60,14 +109,47 @@ public class Bitmap
     {
         this.width = bitmap.width;
         this.height = bitmap.height;
+        this.stride = width;
         this.image = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
         this.image.setRGB(0, 0, width, height, bitmap.getImage().getRGB(0, 0, width, height, null, 0, width), 0, width);
         this.data = Image.getData(image);
+        updateSpans();
+    }
+
+    /**
+     * Creates a view of a rectangular region of another bitmap. No pixels are copied;
+     * the view reads and writes the pixel data of its parent.
+     *
+     * @param parent Bitmap to be viewed (may itself be a view).
+     * @param x      x-coordinate of the region within the parent.
+     * @param y      y-coordinate of the region within the parent.
+     * @param width  Width of the region.
+     * @param height Height of the region.
+     */
+    public Bitmap(Bitmap parent, int x, int y, int width, int height)
+    {
+        if (width <= 0 || height <= 0)
+            throw new IllegalArgumentException(String.format("View size must be positive! width: %d, height: %d", width, height));
+        if (x < 0 || y < 0 || x + width > parent.width || y + height > parent.height)
+            throw new IllegalArgumentException(String.format("Selected region out of bounds! x: %d, y: %d, width: %d, height: %d (parent: %dx%d)", x, y, width, height, parent.width, parent.height));
+
+        this.width = width;
+        this.height = height;
+        this.data = parent.data;
+        this.stride = parent.stride;
+        this.offset = parent.offset + y * parent.stride + x;
+        this.source = parent.source != null ? parent.source : parent.image;
+        this.sourceX = parent.sourceX + x;
+        this.sourceY = parent.sourceY + y;
+        if (x == 0 && y == 0 && width == parent.width && height == parent.height) this.image = parent.image;
+        updateSpans();
     }
 
     /**
      * Creates a bitmap from a sample BufferedImage.
      * All color data and other properties are then derived from this image.
+     * Integer images share their pixel data with the bitmap, including sub-images
+     * obtained from <code>BufferedImage.getSubimage()</code>.
      *
      * @param image Sample BufferedImage.
      */
@@ -76,8 +158,23 @@ public class Bitmap
         this.image = image;
         this.width = image.getWidth();
         this.height = image.getHeight();
-        this.data = new int[width * height];
-        this.data = Image.getData(image);
+        this.stride = width;
+
+        Raster raster = image.getRaster();
+        if ((image.getType() == BufferedImage.TYPE_INT_ARGB || image.getType() == BufferedImage.TYPE_INT_RGB)
+                && raster.getSampleModel() instanceof SinglePixelPackedSampleModel)
+        {
+            SinglePixelPackedSampleModel model = (SinglePixelPackedSampleModel) raster.getSampleModel();
+            DataBufferInt buffer = (DataBufferInt) raster.getDataBuffer();
+            this.data = buffer.getData();
+            this.stride = model.getScanlineStride();
+            this.offset = buffer.getOffset() + model.getOffset(
+                    -raster.getSampleModelTranslateX(), -raster.getSampleModelTranslateY());
+        } else
+        {
+            this.data = Image.getData(image);
+        }
+        updateSpans();
     }
 
     /**
@@ -92,10 +189,11 @@ public class Bitmap
     {
         this.width = w;
         this.height = h;
-        this.data = new int[w * h];
+        this.stride = w;
         this.image = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
         image.setRGB(0, 0, width, height, data, 0, width);
         this.data = Image.getData(image);
+        updateSpans();
     }
 
     /**
@@ -110,7 +208,8 @@ public class Bitmap
     }
 
     /**
-     * Generates a scaled version of this bitmap based on a new given dimension.
+     * Generates a scaled version of this bitmap based on a new given dimension,
+     * using nearest-neighbour sampling.
      *
      * @param width  Width of scaled bitmap.
      * @param height Height of scaled bitmap.
@@ -118,19 +217,24 @@ public class Bitmap
      */
     public Bitmap getScaled(int width, int height)
     {
-        VolatileImage img = GraphicsEnvironment.getLocalGraphicsEnvironment()
-                .getDefaultScreenDevice().getDefaultConfiguration()
-                .createCompatibleVolatileImage(width, height, VolatileImage.TRANSLUCENT);
-        Graphics2D _g = img.createGraphics();
-        _g.setComposite(AlphaComposite.DstOut);
-        _g.setColor(new Color(0f, 0f, 0f, 0f));
-        _g.fillRect(0, 0, width, height);
-        _g.setComposite(AlphaComposite.Src);
-        _g.drawImage(image, 0, 0, width, height, null);
-        _g.dispose();
-        BufferedImage result = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
-        result.setRGB(0, 0, width, height, img.getSnapshot().getRGB(0, 0, width, height, null, 0, width), 0, width);
-        return new Bitmap(result);
+        return getScaled(width, height, Scaler.NEAREST);
+    }
+
+    /**
+     * Generates a scaled version of this bitmap based on a new given dimension.
+     * Scaling is done in software and does not require a display device.
+     *
+     * @param width  Width of scaled bitmap.
+     * @param height Height of scaled bitmap.
+     * @param filter Scaling filter (<code>Scaler.NEAREST</code> or <code>Scaler.BILINEAR</code>).
+     * @return The scaled version of this bitmap based on a new given dimension.
+     */
+    public Bitmap getScaled(int width, int height, int filter)
+    {
+        Bitmap result = new Bitmap(width, height);
+        Scaler.scale(data, offset, stride, this.width, this.height, result.data, width, height, filter);
+        result.updateSpans();
+        return result;
     }
 
     /**
@@ -150,14 +254,12 @@ public class Bitmap
         if (xStart < 0 || xEnd > width || yStart < 0 || yEnd > height)
             throw new IllegalArgumentException(String.format("Selected region out of bounds! xStart: %d, xEnd: %d | yStart: %d (width: %d), yEnd: %d (height: %d)", xStart, xEnd, yStart, width, yEnd, height));
 
-        int[] result = new int[(xEnd - xStart) * (yEnd - yStart)];
+        int regionWidth = xEnd - xStart;
+        int[] result = new int[regionWidth * (yEnd - yStart)];
 
-        for (int x = xStart; x < xEnd; x++)
+        for (int y = yStart; y < yEnd; y++)
         {
-            for (int y = yStart; y < yEnd; y++)
-            {
-                result[(y - yStart) * (xEnd - xStart) + (x - xStart)] = data[x + y * width];
-            }
+            System.arraycopy(data, offset + y * stride + xStart, result, (y - yStart) * regionWidth, regionWidth);
         }
 
         return result;
@@ -166,48 +268,36 @@ public class Bitmap
     /**
      * Creates a transformed bitmap that has been flipping vertically or horizontally.
      * A copy of the pixel data is generated and the original is not affected by
-     * this method.
+     * this method. To draw a flipped bitmap without a copy, pass the
+     * <code>Context.FLIP_*</code> flags to <code>Context.renderBitmap()</code> instead.
      *
-     * @param horizontal Flag for flipping horizontally.
-     * @param vertical   Flag for flipping vertically.
+     * @param horizontal Flag for mirroring left to right.
+     * @param vertical   Flag for mirroring upside down.
      * @return A bitmap that is flipped by provided parameters.
      */
     public Bitmap getFlipped(boolean horizontal, boolean vertical)
     {
         if (!horizontal && !vertical) return this;
-        int[] data = new int[getData().length];
-        if (horizontal && !vertical)
-        {
-            for (int x = 0; x < getWidth(); x++)
-            {
-                for (int y = getHeight() - 1; y >= 0; y--)
-                {
-                    data[(getHeight() - y - 1) * getWidth() + x] = data[y * getWidth() + x];
-                }
-            }
-        } else if (!horizontal)
-        {
-            for (int x = getWidth() - 1; x >= 0; x--)
-            {
-                for (int y = 0; y < getHeight(); y++)
-                {
-                    data[y * getWidth() + (getWidth() - x - 1)] = data[y * getWidth() + x];
-                }
-            }
-        } else
+
+        Bitmap result = new Bitmap(width, height);
+        for (int y = 0; y < height; y++)
         {
-            for (int i = data.length - 1; i > 0; i--)
+            int srcRow = offset + (vertical ? height - 1 - y : y) * stride;
+            int dstRow = y * width;
+            for (int x = 0; x < width; x++)
             {
-                data[data.length - i] = data[i];
+                result.data[dstRow + x] = data[srcRow + (horizontal ? width - 1 - x : x)];
             }
         }
-        return new Bitmap(data, width, height);
+        result.updateSpans();
+        return result;
     }
 
     /**
      * Returns a bitmap that is a smaller portion of the original. This is
      * similar to 'getPixels(int xStart, int yStart, int xEnd, int yEnd)' but the result
-     * is wrapped in a Bitmap class for simplified use in Context.
+     * is wrapped in a Bitmap class for simplified use in Context. The result is a view
+     * and shares its pixels with the original.
      * <p>
      * The parameters specified define the bounds for the sub-bitmap.
      *
@@ -220,7 +310,39 @@ public class Bitmap
      */
     public Bitmap getRegionAsBitmap(int xStart, int yStart, int xEnd, int yEnd)
     {
-        return new Bitmap(getData(xStart, yStart, xEnd, yEnd), xEnd - xStart, yEnd - yStart);
+        if (xEnd <= xStart || yEnd <= yStart)
+            throw new IllegalArgumentException(String.format("xEnd <= xStart or yEnd <= yStart! xStart: %d, xEnd: %d | yStart: %d, yEnd: %d", xStart, xEnd, yStart, yEnd));
+
+        return new Bitmap(this, xStart, yStart, xEnd - xStart, yEnd - yStart);
+    }
+
+    /**
+     * Re-classifies the alpha channel and rebuilds the per-row pixel runs. Must be called
+     * after the pixel data of this bitmap has been modified.
+     */
+    public void updateSpans()
+    {
+        spans = AlphaSpans.build(data, offset, stride, width, height);
+    }
+
+    /**
+     * Supplies the alpha classification of this bitmap: <code>OPAQUE</code>,
+     * <code>BINARY_ALPHA</code> or <code>TRANSLUCENT</code>. Blank bitmaps that
+     * have not been classified yet report <code>TRANSLUCENT</code>.
+     *
+     * @return Alpha classification of the bitmap.
+     */
+    public int getAlphaClass()
+    {
+        return spans == null ? TRANSLUCENT : spans.alphaClass;
+    }
+
+    /**
+     * @return Precomputed alpha runs of the pixel data, or null if unknown.
+     */
+    AlphaSpans getSpans()
+    {
+        return spans;
     }
 
     /**
@@ -244,22 +366,81 @@ public class Bitmap
     }
 
     /**
-     * Supplies the pixel data of this bitmap.
+     * Supplies the pixel data of this bitmap, row after row. For views this is a
+     * copy of the viewed region; use <code>getBackingData()</code> with
+     * <code>getOffset()</code> and <code>getStride()</code> to edit the shared pixels.
      *
      * @return Pixel data of the bitmap.
      */
     public int[] getData()
     {
+        if (isView()) return getData(0, 0, width, height);
+
         return data;
     }
 
     /**
-     * Supplies the original BufferedImage of this bitmap.
+     * Supplies the array holding the pixels of this bitmap, which views share with
+     * their parent. Pixel <code>(x, y)</code> is found at
+     * <code>getOffset() + y * getStride() + x</code>.
+     *
+     * @return Backing pixel data of the bitmap.
+     */
+    public int[] getBackingData()
+    {
+        return data;
+    }
+
+    /**
+     * @return Index of the top-left pixel within the backing pixel data.
+     */
+    public int getOffset()
+    {
+        return offset;
+    }
+
+    /**
+     * @return Distance between two rows within the backing pixel data, in pixels.
+     */
+    public int getStride()
+    {
+        return stride;
+    }
+
+    /**
+     * @return Whether this bitmap does not cover its backing pixel data row after row from the start.
+     */
+    public boolean isView()
+    {
+        return offset != 0 || stride != width || data.length != width * height;
+    }
+
+    /**
+     * @return Width of the pixel data, regardless of any overriding <code>getWidth()</code>.
+     */
+    public final int pixelWidth()
+    {
+        return width;
+    }
+
+    /**
+     * @return Height of the pixel data, regardless of any overriding <code>getHeight()</code>.
+     */
+    public final int pixelHeight()
+    {
+        return height;
+    }
+
+    /**
+     * Supplies the original BufferedImage of this bitmap. For views this is a
+     * sub-image of the parent image, which shares its pixels.
      *
      * @return Original BufferedImage of the bitmap.
      */
     public BufferedImage getImage()
     {
+        if (image == null && source != null) image = source.getSubimage(sourceX, sourceY, width, height);
+
         return image;
     }
 
@@ -269,6 +450,15 @@ public class Bitmap
      */
     public void cleanUp()
     {
+        spans = null;
+        if (source != null)
+        {
+            //The pixels belong to the parent, so only drop the references
+            image = null;
+            source = null;
+            return;
+        }
+
         image.flush();
 
         for (int i = 0; i < data.length; i++) data[i] = 0;
@@ -0,0 +1,370 @@
+package Hazel.Graphics;
+
+import java.util.Arrays;
+
+/**
+ * The raster kernels behind the render context. Every kernel walks its clipped
+ * destination rectangle row by row, so both the source and destination arrays are read
+ * and written contiguously, and opaque runs are moved with <code>Arrays.fill()</code> or
+ * <code>System.arraycopy()</code>.
+ * <p>
+ * Callers pass the clip rectangle explicitly (<code>clipX0, clipY0</code> inclusive,
+ * <code>clipX1, clipY1</code> exclusive) and must guarantee that it lies within the
+ * destination buffer; no per-pixel bounds checks are performed.
+ */
+final class Blitter
+{
+    /**
+     * Fills a rectangle with a color, blending if the color is translucent.
+     *
+     * @param dst      Destination pixel data.
+     * @param dstWidth Width of the destination, in pixels.
+     * @param clipX0   Left edge of the clip (inclusive).
+     * @param clipY0   Top edge of the clip (inclusive).
+     * @param clipX1   Right edge of the clip (exclusive).
+     * @param clipY1   Bottom edge of the clip (exclusive).
+     * @param x0       Left edge of the rectangle (inclusive).
+     * @param y0       Top edge of the rectangle (inclusive).
+     * @param x1       Right edge of the rectangle (exclusive).
+     * @param y1       Bottom edge of the rectangle (exclusive).
+     * @param color    Fill color of type ARGB.
+     */
+    static void fill(int[] dst, int dstWidth, int clipX0, int clipY0, int clipX1, int clipY1,
+                     int x0, int y0, int x1, int y1, int color)
+    {
+        int colorAlpha = color >>> 24;
+        if (colorAlpha == 0) return;
+
+        if (x0 < clipX0) x0 = clipX0;
+        if (y0 < clipY0) y0 = clipY0;
+        if (x1 > clipX1) x1 = clipX1;
+        if (y1 > clipY1) y1 = clipY1;
+        if (x0 >= x1 || y0 >= y1) return;
+
+        if (colorAlpha == 255)
+        {
+            if (x0 == 0 && x1 == dstWidth)
+            {
+                Arrays.fill(dst, y0 * dstWidth, y1 * dstWidth, color);
+                return;
+            }
+
+            for (int row = y0 * dstWidth, end = y1 * dstWidth; row < end; row += dstWidth)
+            {
+                Arrays.fill(dst, row + x0, row + x1, color);
+            }
+            return;
+        }
+
+        for (int row = y0 * dstWidth, end = y1 * dstWidth; row < end; row += dstWidth)
+        {
+            for (int i = row + x0, rowEnd = row + x1; i < rowEnd; i++)
+            {
+                dst[i] = Color.blend(dst[i], color, colorAlpha);
+            }
+        }
+    }
+
+    /**
+     * Draws the one pixel wide outline of a rectangle.
+     *
+     * @param dst      Destination pixel data.
+     * @param dstWidth Width of the destination, in pixels.
+     * @param clipX0   Left edge of the clip (inclusive).
+     * @param clipY0   Top edge of the clip (inclusive).
+     * @param clipX1   Right edge of the clip (exclusive).
+     * @param clipY1   Bottom edge of the clip (exclusive).
+     * @param x0       Left edge of the rectangle (inclusive).
+     * @param y0       Top edge of the rectangle (inclusive).
+     * @param x1       Right edge of the rectangle (exclusive).
+     * @param y1       Bottom edge of the rectangle (exclusive).
+     * @param color    Outline color of type ARGB.
+     */
+    static void outline(int[] dst, int dstWidth, int clipX0, int clipY0, int clipX1, int clipY1,
+                        int x0, int y0, int x1, int y1, int color)
+    {
+        if (x0 >= x1 || y0 >= y1) return;
+
+        fill(dst, dstWidth, clipX0, clipY0, clipX1, clipY1, x0, y0, x1, y0 + 1, color);
+        if (y1 - 1 > y0)
+            fill(dst, dstWidth, clipX0, clipY0, clipX1, clipY1, x0, y1 - 1, x1, y1, color);
+        fill(dst, dstWidth, clipX0, clipY0, clipX1, clipY1, x0, y0 + 1, x0 + 1, y1 - 1, color);
+        if (x1 - 1 > x0)
+            fill(dst, dstWidth, clipX0, clipY0, clipX1, clipY1, x1 - 1, y0 + 1, x1, y1 - 1, color);
+    }
+
+    /**
+     * Transfers a block of source pixels onto the destination. Fully transparent pixels
+     * are skipped, runs of opaque pixels are copied and translucent pixels are blended.
+     * A tint color and a global alpha may additionally be applied.
+     * <p>
+     * When the alpha spans of the source are known, the runs are taken from them instead
+     * of testing every pixel, and fully opaque sources are copied row by row.
+     *
+     * @param dst       Destination pixel data.
+     * @param dstWidth  Width of the destination, in pixels.
+     * @param clipX0    Left edge of the clip (inclusive).
+     * @param clipY0    Top edge of the clip (inclusive).
+     * @param clipX1    Right edge of the clip (exclusive).
+     * @param clipY1    Bottom edge of the clip (exclusive).
+     * @param src       Source pixel data.
+     * @param srcOffset Index of the top-left source pixel.
+     * @param srcStride Distance between two source rows, in pixels.
+     * @param srcWidth  Width of the source block, in pixels.
+     * @param srcHeight Height of the source block, in pixels.
+     * @param spans     Precomputed alpha spans of the source block, or null to test each pixel.
+     * @param x         x-coordinate of the block on the destination.
+     * @param y         y-coordinate of the block on the destination.
+     * @param alpha     Global opacity between 0 - 255.
+     * @param tintColor Tint color of type ARGB (0 for none).
+     */
+    static void blit(int[] dst, int dstWidth, int clipX0, int clipY0, int clipX1, int clipY1,
+                     int[] src, int srcOffset, int srcStride, int srcWidth, int srcHeight, AlphaSpans spans,
+                     int x, int y, int alpha, int tintColor)
+    {
+        if (alpha <= 0) return;
+
+        int x0 = Math.max(x, clipX0);
+        int y0 = Math.max(y, clipY0);
+        int x1 = Math.min(x + srcWidth, clipX1);
+        int y1 = Math.min(y + srcHeight, clipY1);
+        if (x0 >= x1 || y0 >= y1) return;
+
+        boolean plain = alpha == 255 && tintColor == 0;
+        if (spans != null && spans.alphaClass != Bitmap.OPAQUE)
+        {
+            blitRuns(dst, dstWidth, src, srcOffset, srcStride, spans, x, y, x0, y0, x1, y1, plain, alpha, tintColor);
+            return;
+        }
+
+        int span = x1 - x0;
+        int dstRow = y0 * dstWidth + x0;
+        int srcRow = srcOffset + (y0 - y) * srcStride + (x0 - x);
+
+        if (spans != null && plain)
+        {
+            for (int row = y0; row < y1; row++, dstRow += dstWidth, srcRow += srcStride)
+            {
+                System.arraycopy(src, srcRow, dst, dstRow, span);
+            }
+            return;
+        }
+
+        if (plain)
+        {
+            for (int row = y0; row < y1; row++, dstRow += dstWidth, srcRow += srcStride)
+            {
+                copyRow(dst, dstRow, src, srcRow, span);
+            }
+            return;
+        }
+
+        for (int row = y0; row < y1; row++, dstRow += dstWidth, srcRow += srcStride)
+        {
+            for (int i = 0; i < span; i++)
+            {
+                int pixel = src[srcRow + i];
+                int pixelAlpha = pixel >>> 24;
+                if (pixelAlpha == 0) continue;
+
+                int d = dstRow + i;
+                if (pixelAlpha != 255) pixel = Color.blend(dst[d], pixel, pixelAlpha);
+                if (tintColor != 0) pixel = Color.tint(pixel, tintColor);
+                if (alpha != 255) pixel = Color.blend(dst[d], pixel, alpha);
+                dst[d] = pixel;
+            }
+        }
+    }
+
+    /**
+     * Transfers a block of source pixels onto the destination, rotated and/or mirrored as
+     * given by the <code>Context.FLIP_*</code> and <code>Context.ROTATE_90</code> flags.
+     * No transformed copy is made: every destination row walks the source with a signed
+     * step, backwards along a row when mirrored and down a column when rotated.
+     * When rotated, the block covers <code>srcHeight</code> by <code>srcWidth</code> pixels.
+     *
+     * @param dst       Destination pixel data.
+     * @param dstWidth  Width of the destination, in pixels.
+     * @param clipX0    Left edge of the clip (inclusive).
+     * @param clipY0    Top edge of the clip (inclusive).
+     * @param clipX1    Right edge of the clip (exclusive).
+     * @param clipY1    Bottom edge of the clip (exclusive).
+     * @param src       Source pixel data.
+     * @param srcOffset Index of the top-left source pixel.
+     * @param srcStride Distance between two source rows, in pixels.
+     * @param srcWidth  Width of the source block, in pixels.
+     * @param srcHeight Height of the source block, in pixels.
+     * @param spans     Precomputed alpha spans of the source block, or null if unknown.
+     * @param x         x-coordinate of the transformed block on the destination.
+     * @param y         y-coordinate of the transformed block on the destination.
+     * @param alpha     Global opacity between 0 - 255.
+     * @param tintColor Tint color of type ARGB (0 for none).
+     * @param flags     Combination of <code>Context.FLIP_HORIZONTAL</code>, <code>Context.FLIP_VERTICAL</code>
+     *                  and <code>Context.ROTATE_90</code>.
+     */
+    static void blit(int[] dst, int dstWidth, int clipX0, int clipY0, int clipX1, int clipY1,
+                     int[] src, int srcOffset, int srcStride, int srcWidth, int srcHeight, AlphaSpans spans,
+                     int x, int y, int alpha, int tintColor, int flags)
+    {
+        if (flags == 0)
+        {
+            blit(dst, dstWidth, clipX0, clipY0, clipX1, clipY1, src, srcOffset, srcStride, srcWidth, srcHeight, spans,
+                    x, y, alpha, tintColor);
+            return;
+        }
+        if (flags == Context.FLIP_VERTICAL)
+        {
+            //Rows stay contiguous, so walking them bottom-up keeps every fast path but the spans
+            blit(dst, dstWidth, clipX0, clipY0, clipX1, clipY1, src, srcOffset + (srcHeight - 1) * srcStride, -srcStride,
+                    srcWidth, srcHeight, null, x, y, alpha, tintColor);
+            return;
+        }
+        if (alpha <= 0) return;
+
+        boolean rotated = (flags & Context.ROTATE_90) != 0;
+        int width = rotated ? srcHeight : srcWidth;
+        int height = rotated ? srcWidth : srcHeight;
+
+        int x0 = Math.max(x, clipX0);
+        int y0 = Math.max(y, clipY0);
+        int x1 = Math.min(x + width, clipX1);
+        int y1 = Math.min(y + height, clipY1);
+        if (x0 >= x1 || y0 >= y1) return;
+
+        //Source index of destination pixel (u, v) is origin + u * du + v * dv
+        int origin, du, dv;
+        if (rotated)
+        {
+            //Turned clockwise: destination rows run up the source columns
+            origin = srcOffset + (srcHeight - 1) * srcStride;
+            du = -srcStride;
+            dv = 1;
+        } else
+        {
+            origin = srcOffset;
+            du = 1;
+            dv = srcStride;
+        }
+        if ((flags & Context.FLIP_HORIZONTAL) != 0)
+        {
+            origin += (width - 1) * du;
+            du = -du;
+        }
+        if ((flags & Context.FLIP_VERTICAL) != 0)
+        {
+            origin += (height - 1) * dv;
+            dv = -dv;
+        }
+
+        boolean opaque = spans != null && spans.alphaClass == Bitmap.OPAQUE;
+        boolean plain = alpha == 255 && tintColor == 0;
+        int span = x1 - x0;
+
+        for (int row = y0; row < y1; row++)
+        {
+            int s = origin + (x0 - x) * du + (row - y) * dv;
+            int d = row * dstWidth + x0;
+
+            for (int i = 0; i < span; i++, s += du, d++)
+            {
+                int pixel = src[s];
+                int pixelAlpha = opaque ? 255 : pixel >>> 24;
+                if (pixelAlpha == 0) continue;
+
+                if (pixelAlpha != 255) pixel = Color.blend(dst[d], pixel, pixelAlpha);
+                if (!plain)
+                {
+                    if (tintColor != 0) pixel = Color.tint(pixel, tintColor);
+                    if (alpha != 255) pixel = Color.blend(dst[d], pixel, alpha);
+                }
+                dst[d] = pixel;
+            }
+        }
+    }
+
+    /**
+     * Walks the precomputed runs of each clipped source row. Skipped runs cost nothing,
+     * opaque runs are copied (or only tinted/faded when modulated) and translucent runs
+     * are blended.
+     */
+    private static void blitRuns(int[] dst, int dstWidth, int[] src, int srcOffset, int srcStride, AlphaSpans spans,
+                                 int x, int y, int x0, int y0, int x1, int y1, boolean plain, int alpha, int tintColor)
+    {
+        int[] runs = spans.runs;
+        int[] rowStart = spans.rowStart;
+        int lo = x0 - x;
+        int hi = x1 - x;
+
+        for (int row = y0; row < y1; row++)
+        {
+            int sy = row - y;
+            int srcRow = srcOffset + sy * srcStride;
+            int dstRow = row * dstWidth + x;
+            int sx = 0;
+
+            for (int r = rowStart[sy], end = rowStart[sy + 1]; r < end && sx < hi; r++)
+            {
+                int run = runs[r];
+                int a = sx;
+                int b = sx + (run >>> 2);
+                sx = b;
+
+                int kind = run & 3;
+                if (kind == AlphaSpans.SKIP) continue;
+                if (a < lo) a = lo;
+                if (b > hi) b = hi;
+                if (a >= b) continue;
+
+                if (kind == AlphaSpans.COPY && plain)
+                {
+                    System.arraycopy(src, srcRow + a, dst, dstRow + a, b - a);
+                    continue;
+                }
+
+                for (int i = a; i < b; i++)
+                {
+                    int d = dstRow + i;
+                    int pixel = src[srcRow + i];
+                    if (kind == AlphaSpans.BLEND) pixel = Color.blend(dst[d], pixel, pixel >>> 24);
+                    if (tintColor != 0) pixel = Color.tint(pixel, tintColor);
+                    if (alpha != 255) pixel = Color.blend(dst[d], pixel, alpha);
+                    dst[d] = pixel;
+                }
+            }
+        }
+    }
+
+    /**
+     * Composites a single row of source pixels without tint or global alpha.
+     *
+     * @param dst    Destination pixel data.
+     * @param d      Index of the first destination pixel.
+     * @param src    Source pixel data.
+     * @param s      Index of the first source pixel.
+     * @param length Number of pixels in the row.
+     */
+    private static void copyRow(int[] dst, int d, int[] src, int s, int length)
+    {
+        int i = 0;
+        while (i < length)
+        {
+            int pixel = src[s + i];
+            int pixelAlpha = pixel >>> 24;
+            if (pixelAlpha == 255)
+            {
+                int j = i + 1;
+                while (j < length && (src[s + j] >>> 24) == 255) j++;
+                System.arraycopy(src, s + i, dst, d + i, j - i);
+                i = j;
+                continue;
+            }
+
+            if (pixelAlpha != 0) dst[d + i] = Color.blend(dst[d + i], pixel, pixelAlpha);
+            i++;
+        }
+    }
+
+    private Blitter()
+    {
+    }
+}
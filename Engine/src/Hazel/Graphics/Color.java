@@ -122,13 +122,42 @@ public class Color
      */
     public static int tint(int pixelColor, int tintColor)
     {
-        int[] pRGBA = fromPixelInt(pixelColor);
-        int[] tRGBA = fromPixelInt(tintColor);
-        float tintAlpha = (float) tRGBA[3] / 255f;
-        int r = (int) (tRGBA[0] * tintAlpha + pRGBA[0] * (1 - tintAlpha));
-        int g = (int) (tRGBA[1] * tintAlpha + pRGBA[1] * (1 - tintAlpha));
-        int b = (int) (tRGBA[2] * tintAlpha + pRGBA[2] * (1 - tintAlpha));
-        return toPixelInt(r, g, b, 255);
+        return blend(pixelColor, tintColor, tintColor >>> 24);
+    }
+
+    /**
+     * Composites a source color over a destination color with a given opacity, ignoring
+     * the alpha channel of the source. The blend works on the packed integers directly using
+     * 8-bit fixed-point weights, processing the red and blue channels in a single multiply,
+     * so it never allocates and never touches floating point.
+     *
+     * @param dstColor Destination (background) pixel color.
+     * @param srcColor Source (foreground) pixel color.
+     * @param alpha    Opacity of the source between 0 - 255.
+     * @return Blended color pixel of type ARGB, always fully opaque.
+     */
+    public static int blend(int dstColor, int srcColor, int alpha)
+    {
+        if (alpha <= 0) return dstColor | 0xFF000000;
+        if (alpha >= 255) return srcColor | 0xFF000000;
+
+        int a = alpha + (alpha >> 7);
+        int ia = 256 - a;
+        int rb = (((srcColor & 0xFF00FF) * a + (dstColor & 0xFF00FF) * ia) >>> 8) & 0xFF00FF;
+        int g = (((srcColor & 0x00FF00) * a + (dstColor & 0x00FF00) * ia) >>> 8) & 0x00FF00;
+        return 0xFF000000 | rb | g;
+    }
+
+    /**
+     * Replaces the alpha channel of a packed color.
+     *
+     * @param color Color integer with model ARGB.
+     * @param alpha New alpha channel value between 0 - 255.
+     * @return Color integer of type ARGB with the given alpha.
+     */
+    public static int withAlpha(int color, int alpha)
+    {
+        return (color & 0x00FFFFFF) | ((alpha & 0xFF) << 24);
     }
 
     private Color()
@@ -1,10 +1,13 @@
 package Hazel.Graphics;
 
 import Hazel.System.Asset.Type.Fonts.Font;
+import Hazel.System.Util;
 
 import java.awt.image.BufferedImage;
 import java.awt.image.DataBufferInt;
 import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
 
 /**
  * This is the heart of the rendering engine. A master BufferedImage is created using the ARGB color model
@@ -18,6 +21,21 @@ import java.util.Arrays;
  */
 public class Context
 {
+    /**
+     * Draw flag: mirror the bitmap left to right
+     */
+    public static final int FLIP_HORIZONTAL = 0x1;
+
+    /**
+     * Draw flag: mirror the bitmap upside down
+     */
+    public static final int FLIP_VERTICAL = 0x2;
+
+    /**
+     * Draw flag: turn the bitmap 90 degrees clockwise (applied before any mirroring)
+     */
+    public static final int ROTATE_90 = 0x4;
+
     /**
      * Dimensions for the render context
      */
@@ -38,11 +56,76 @@ public class Context
      */
     private Font font;
 
+    /**
+     * Scratch space for drawing numbers
+     */
+    private final char[] digits = new char[20];
+
+    /**
+     * Bands thinner than this are not worth a thread of their own
+     */
+    private static final int MIN_BAND_HEIGHT = 8;
+
     /**
      * Default color to fill the background with
      */
     private int clearColor = Color.toPixelInt(0, 0, 0, 255);
 
+    /**
+     * Scaled variants of bitmaps drawn with a custom scale
+     */
+    private ScaledBitmapCache scaledCache = new ScaledBitmapCache();
+
+    /**
+     * Commands recorded while the context is deferred
+     */
+    private RenderQueue queue = new RenderQueue();
+
+    /**
+     * Whether draw calls are recorded and executed on <code>flush()</code> instead of immediately
+     */
+    private boolean deferred = false;
+
+    /**
+     * Layer and depth assigned to recorded commands
+     */
+    private int layer = 0, depth = 0;
+
+    /**
+     * Whether flushed commands are rasterized by several threads, one horizontal band each
+     */
+    private boolean parallel = false;
+
+    /**
+     * Number of horizontal bands the context is split into when rasterizing in parallel
+     */
+    private int bandCount = Runtime.getRuntime().availableProcessors();
+
+    /**
+     * Pool the bands are rasterized on
+     */
+    private ForkJoinPool renderPool = ForkJoinPool.commonPool();
+
+    /**
+     * Whether only the parts of the context that changed since the last frame are redrawn
+     */
+    private boolean dirtyTracking = false;
+
+    /**
+     * Commands of the previous frame, compared against the current one to find damage
+     */
+    private RenderQueue previous = new RenderQueue();
+
+    /**
+     * Regions redrawn by the last flush, and regions marked dirty since then
+     */
+    private final DamageRegion damage = new DamageRegion(), marked = new DamageRegion();
+
+    /**
+     * Whether the next flush must redraw the whole context
+     */
+    private boolean fullDamage = true;
+
     /**
      * Creates a render context with given dimensions.
      *
@@ -60,10 +143,337 @@ public class Context
 
     /**
      * Clears the context with the default black color.
+     * When deferred, any commands recorded so far are discarded as well.
+     * With dirty tracking, the pixels are left alone; damaged regions are cleared on flush.
      */
     public void clear()
     {
+        if (deferred) queue.clear();
+        if (!dirtyTracking) Arrays.fill(data, clearColor);
+    }
+
+    /**
+     * Switches between immediate and deferred rendering. While deferred, draw calls are
+     * recorded together with the current layer and depth, and only reach the pixel data when
+     * <code>flush()</code> is called, ordered by layer first and depth second. Draw calls
+     * that share a layer and depth keep their submission order. Text is recorded as the
+     * glyph transfers it expands to.
+     * <p>
+     * Switching back to immediate mode flushes any pending commands and turns dirty
+     * tracking off.
+     *
+     * @param deferred Whether draw calls should be recorded.
+     */
+    public void setDeferred(boolean deferred)
+    {
+        if (this.deferred && !deferred)
+        {
+            flush();
+            setDirtyTracking(false);
+        }
+        this.deferred = deferred;
+    }
+
+    /**
+     * @return Whether draw calls are recorded rather than executed immediately.
+     */
+    public boolean isDeferred()
+    {
+        return deferred;
+    }
+
+    /**
+     * Sets the layer of subsequently recorded draw calls. Lower layers are drawn first.
+     * Layers are clamped to the range of a <code>short</code>.
+     *
+     * @param layer Draw layer.
+     */
+    public void setLayer(int layer)
+    {
+        this.layer = clampShort(layer);
+    }
+
+    /**
+     * @return Draw layer of subsequently recorded draw calls.
+     */
+    public int getLayer()
+    {
+        return layer;
+    }
+
+    /**
+     * Sets the depth of subsequently recorded draw calls within their layer. Lower depths
+     * are drawn first, so passing an object's y-coordinate gives top-down Y-sorting.
+     * Depths are clamped to the range of a <code>short</code>.
+     *
+     * @param depth Draw depth within the layer.
+     */
+    public void setDepth(int depth)
+    {
+        this.depth = clampShort(depth);
+    }
+
+    /**
+     * @return Draw depth of subsequently recorded draw calls.
+     */
+    public int getDepth()
+    {
+        return depth;
+    }
+
+    /**
+     * Sorts and executes every recorded draw call, then empties the queue.
+     * Does nothing when the context is not deferred.
+     */
+    public void flush()
+    {
+        if (dirtyTracking)
+        {
+            queue = flushDamage(queue);
+            return;
+        }
+
+        if (queue.size() == 0) return;
+
+        queue.sort();
+        execute(queue, 0, 0, width, height);
+        queue.clear();
+    }
+
+    /**
+     * Clears the context and rasterizes a frame recorded into another queue, e.g. on a
+     * render thread while the next frame is being recorded into the queue of this context.
+     * With dirty tracking only the regions that changed since the previous frame are cleared
+     * and redrawn, as on <code>flush()</code>.
+     * <p>
+     * The context may keep the frame as its previous frame, so the caller must continue with
+     * the returned queue, which is empty, and must not touch the frame afterwards.
+     *
+     * @param frame Recorded commands of the frame.
+     * @return An empty queue for the caller to reuse.
+     */
+    public RenderQueue renderFrame(RenderQueue frame)
+    {
+        if (dirtyTracking) return flushDamage(frame);
+
         Arrays.fill(data, clearColor);
+        frame.sort();
+        execute(frame, 0, 0, width, height);
+        frame.clear();
+        return frame;
+    }
+
+    /**
+     * Replaces the queue that draw calls are recorded into, e.g. to hand a recorded frame
+     * over to a render thread.
+     *
+     * @param next Queue subsequent draw calls are recorded into.
+     * @return The queue draw calls were recorded into so far.
+     */
+    public RenderQueue swapRenderQueue(RenderQueue next)
+    {
+        RenderQueue recorded = queue;
+        queue = next;
+        return recorded;
+    }
+
+    /**
+     * Finds the regions that changed since the last frame, then clears and replays only those.
+     * The executed frame is kept as the previous frame and the former previous frame is
+     * returned, empty, for reuse.
+     */
+    private RenderQueue flushDamage(RenderQueue frame)
+    {
+        damage.clear();
+        synchronized (marked)
+        {
+            if (fullDamage)
+            {
+                damage.add(0, 0, width, height);
+                fullDamage = false;
+            } else
+            {
+                damage.add(marked);
+                frame.diff(previous, damage);
+            }
+            marked.clear();
+        }
+        damage.clip(width, height);
+
+        frame.sort();
+        for (int i = 0; i < damage.size(); i++)
+        {
+            int x0 = damage.getX(i), y0 = damage.getY(i);
+            int x1 = x0 + damage.getWidth(i), y1 = y0 + damage.getHeight(i);
+
+            for (int row = y0 * width, end = y1 * width; row < end; row += width)
+            {
+                Arrays.fill(data, row + x0, row + x1, clearColor);
+            }
+            execute(frame, x0, y0, x1, y1);
+        }
+
+        RenderQueue reuse = previous;
+        previous = frame;
+        reuse.clear();
+        return reuse;
+    }
+
+    /**
+     * Replays a sorted queue within a clip rectangle, splitting it into horizontal bands
+     * when rasterizing in parallel.
+     */
+    private void execute(RenderQueue queue, int x0, int y0, int x1, int y1)
+    {
+        int bands = Math.min(bandCount, (y1 - y0) / MIN_BAND_HEIGHT);
+        if (parallel && bands > 1)
+        {
+            int bandHeight = (y1 - y0 + bands - 1) / bands;
+            renderPool.invoke(new Band(queue, data, width, x0, x1, y0, y1, bandHeight));
+        } else
+        {
+            queue.execute(data, width, x0, y0, x1, y1);
+        }
+    }
+
+    /**
+     * Enables or disables dirty tracking. When enabled, the context is deferred and every
+     * flush compares the recorded commands with those of the previous frame: only the bounds
+     * of commands that were added, removed, moved or changed are cleared and redrawn, and a
+     * frame identical to the previous one touches no pixels at all. The redrawn regions are
+     * available from <code>getDamage()</code>, so the present path can skip untouched pixels too.
+     * <p>
+     * Commands are compared by bitmap identity, so a bitmap whose pixels were edited in place
+     * must be reported with <code>markDirty()</code>.
+     *
+     * @param dirtyTracking Whether only changed regions should be redrawn.
+     */
+    public void setDirtyTracking(boolean dirtyTracking)
+    {
+        if (this.dirtyTracking == dirtyTracking) return;
+
+        this.dirtyTracking = dirtyTracking;
+        previous.clear();
+        synchronized (marked)
+        {
+            fullDamage = true;
+            marked.clear();
+        }
+        if (dirtyTracking) setDeferred(true);
+    }
+
+    /**
+     * @return Whether only changed regions are redrawn.
+     */
+    public boolean isDirtyTracking()
+    {
+        return dirtyTracking;
+    }
+
+    /**
+     * Forces a region to be redrawn on the next flush, e.g. after editing the pixels of a
+     * bitmap that is drawn there.
+     *
+     * @param x      x-coordinate on screen.
+     * @param y      y-coordinate on screen.
+     * @param width  Width of the region.
+     * @param height Height of the region.
+     */
+    public void markDirty(int x, int y, int width, int height)
+    {
+        synchronized (marked)
+        {
+            marked.add(x, y, x + width, y + height);
+        }
+    }
+
+    /**
+     * Forces the whole context to be redrawn on the next flush.
+     */
+    public void markDirty()
+    {
+        synchronized (marked)
+        {
+            fullDamage = true;
+        }
+    }
+
+    /**
+     * Supplies the regions redrawn by the last flush with dirty tracking enabled. An empty
+     * region means the frame is identical to the previous one and need not be presented.
+     *
+     * @return The regions redrawn by the last flush.
+     */
+    public DamageRegion getDamage()
+    {
+        return damage;
+    }
+
+    /**
+     * Enables or disables parallel rasterization. When enabled, the context is deferred and
+     * every flush replays the recorded commands once per horizontal band, each band on its own
+     * thread and clipped to its own rows. Since no two bands touch the same pixel and each pixel
+     * still sees the commands in the same order, the output is identical to the serial path.
+     *
+     * @param parallel Whether flushed commands are rasterized on several threads.
+     */
+    public void setParallel(boolean parallel)
+    {
+        this.parallel = parallel;
+        if (parallel) setDeferred(true);
+    }
+
+    /**
+     * @return Whether flushed commands are rasterized on several threads.
+     */
+    public boolean isParallel()
+    {
+        return parallel;
+    }
+
+    /**
+     * Sets the number of horizontal bands used by parallel rasterization.
+     * Defaults to the number of available processors.
+     *
+     * @param bandCount Number of bands (at least 1).
+     */
+    public void setBandCount(int bandCount)
+    {
+        this.bandCount = Math.max(1, bandCount);
+    }
+
+    /**
+     * @return Number of bands used by parallel rasterization.
+     */
+    public int getBandCount()
+    {
+        return bandCount;
+    }
+
+    /**
+     * Sets the pool used by parallel rasterization. Defaults to the common pool.
+     *
+     * @param renderPool Pool the bands are rasterized on.
+     */
+    public void setRenderPool(ForkJoinPool renderPool)
+    {
+        this.renderPool = renderPool;
+    }
+
+    /**
+     * @return The sort key for the current layer and depth.
+     */
+    private int sortKey()
+    {
+        return (layer << 16) | (depth + 32768);
+    }
+
+    /**
+     * Clamps a value to the range of a <code>short</code>.
+     */
+    private static int clampShort(int value)
+    {
+        return Math.max(Short.MIN_VALUE, Math.min(Short.MAX_VALUE, value));
     }
 
     /**
@@ -150,40 +560,49 @@ public class Context
      */
     public void renderBitmap(Bitmap bitmap, int x, int y, float alpha, float scale, int tintColor)
     {
-        Bitmap scaled = bitmap.getScaled(scale);
-        int xStart = x;
-        int yStart = y;
-        int xEnd = xStart + scaled.getWidth();
-        int yEnd = yStart + scaled.getHeight();
+        renderBitmap(bitmap, x, y, alpha, scale, tintColor, 0);
+    }
 
-        if (xStart >= width || yStart >= height || xEnd < 0 || yEnd < 0) return;
-        if (xStart < 0) xStart = 0;
-        if (yStart < 0) yStart = 0;
-        if (xEnd > width) xEnd = width;
-        if (yEnd > height) yEnd = height;
+    /**
+     * Draws a given bitmap onto the context, mirrored and/or rotated. The bitmap is
+     * read in the transformed order while drawing, so no transformed copy is made.
+     *
+     * @param bitmap Bitmap to be rendered.
+     * @param x      x-coordinate on screen.
+     * @param y      y-coordinate on screen.
+     * @param flags  Combination of <code>FLIP_HORIZONTAL</code>, <code>FLIP_VERTICAL</code> and <code>ROTATE_90</code>.
+     */
+    public void renderTransformed(Bitmap bitmap, int x, int y, int flags)
+    {
+        renderBitmap(bitmap, x, y, 1.0f, 1.0f, 0, flags);
+    }
 
-        for (int xPos = xStart; xPos < xEnd; xPos++)
+    /**
+     * Draws a given bitmap onto the context. In addition, the bitmap has custom
+     * scaling, transparency and color tinting, and may be mirrored and/or rotated.
+     *
+     * @param bitmap    Bitmap to be rendered.
+     * @param x         x-coordinate on screen.
+     * @param y         y-coordinate on screen.
+     * @param alpha     Transparency of the bitmap.
+     * @param scale     Scale factor of Bitmap (1.0f is 1:1 ratio).
+     * @param tintColor Color used to tint the bitmap.
+     * @param flags     Combination of <code>FLIP_HORIZONTAL</code>, <code>FLIP_VERTICAL</code> and <code>ROTATE_90</code>.
+     */
+    public void renderBitmap(Bitmap bitmap, int x, int y, float alpha, float scale, int tintColor, int flags)
+    {
+        Bitmap scaled = scaledCache.get(bitmap, scale);
+        int alphaByte = alpha >= 1f ? 255 : alpha <= 0f ? 0 : (int) (alpha * 255f);
+
+        if (deferred)
         {
-            for (int yPos = yStart; yPos < yEnd; yPos++)
-            {
-                int index = yPos * width + xPos;
-                if (index < 0 || index > data.length - 1) continue;
-
-                int bmpIndex = (yPos - yStart) * scaled.getWidth() + (xPos - xStart);
-                int pixel = scaled.getData()[bmpIndex];
-                int pixelAlpha = ((pixel >> 24) & 0xFF);
-                if (pixelAlpha <= 0) continue;
-                if (pixelAlpha != 255) pixel = Color.tint(data[index], pixel);
-                if (tintColor != 0) pixel = Color.tint(pixel, tintColor);
-                if (alpha < 1f)
-                {
-                    int[] rgba = Color.fromPixelInt(pixel);
-                    pixel = Color.tint(data[index], Color.toPixelInt(rgba[0], rgba[1], rgba[2], (int) (alpha * 255f)));
-                }
-
-                data[index] = pixel;
-            }
+            if (alphaByte > 0) queue.addBitmap(sortKey(), scaled, x, y, alphaByte, tintColor, flags);
+            return;
         }
+
+        Blitter.blit(data, width, 0, 0, width, height,
+                scaled.getBackingData(), scaled.getOffset(), scaled.getStride(), scaled.pixelWidth(), scaled.pixelHeight(), scaled.getSpans(),
+                x, y, alphaByte, tintColor, flags);
     }
 
     /**
@@ -197,32 +616,7 @@ public class Context
      */
     public void renderFilledRectangle(int x, int y, int width, int height, int color)
     {
-        int xStart = x;
-        int yStart = y;
-        int xEnd = xStart + width;
-        int yEnd = yStart + height;
-
-        if (xStart < 0) xStart = 0;
-        if (yStart < 0) yStart = 0;
-        if (xEnd > this.width) xEnd = this.width;
-        if (yEnd > this.height) yEnd = this.height;
-        if (xStart >= this.width || yStart >= this.height || xEnd < 0 || yEnd < 0) return;
-
-        for (int xPos = xStart; xPos < xEnd; xPos++)
-        {
-            for (int yPos = yStart; yPos < yEnd; yPos++)
-            {
-                int index = yPos * this.width + xPos;
-                if (index < 0 || index > data.length - 1) continue;
-                if (((color >> 24) & 0xFF) == 255)
-                {
-                    data[index] = color;
-                } else if (((color >> 24) & 0xFF) > 0)
-                {
-                    data[index] = Color.tint(data[index], color);
-                }
-            }
-        }
+        fill(x, y, x + width, y + height, color);
     }
 
     /**
@@ -236,32 +630,12 @@ public class Context
      */
     public void renderFilledRectangle(float x, float y, float width, float height, int color)
     {
-        float xStart = x;
-        float yStart = y;
-        float xEnd = xStart + width;
-        float yEnd = yStart + height;
-
-        if (xStart < 0) xStart = 0;
-        if (yStart < 0) yStart = 0;
-        if (xEnd > this.width) xEnd = this.width;
-        if (yEnd > this.height) yEnd = this.height;
-        if (xStart >= this.width || yStart >= this.height || xEnd < 0 || yEnd < 0) return;
+        int xStart = (int) Math.floor(x);
+        int yStart = (int) Math.floor(y);
+        int xEnd = (int) Math.ceil(x + width);
+        int yEnd = (int) Math.ceil(y + height);
 
-        for (int xPos = (int) xStart; xPos < xEnd; xPos++)
-        {
-            for (int yPos = (int) yStart; yPos < yEnd; yPos++)
-            {
-                int index = yPos * this.width + xPos;
-                if (index < 0 || index > data.length - 1) continue;
-                if (((color >> 24) & 0xFF) == 255)
-                {
-                    data[index] = color;
-                } else if (((color >> 24) & 0xFF) > 0)
-                {
-                    data[index] = Color.tint(data[index], color);
-                }
-            }
-        }
+        fill(xStart, yStart, xEnd, yEnd, color);
     }
 
     /**
@@ -289,34 +663,31 @@ public class Context
      */
     public void renderRectangle(int x, int y, float width, float height, int color)
     {
-        int xStart = x;
-        int yStart = y;
-        float xEnd = xStart + width;
-        float yEnd = yStart + height;
-        if (xStart >= this.width || yStart >= this.height || xEnd < 0 || yEnd < 0) return;
-        if (xStart < 0) xStart = 0;
-        if (yStart < 0) yStart = 0;
-        if (xEnd > this.width) xEnd = this.width;
-        if (yEnd > this.height) yEnd = this.height;
-
-        for (int xPos = xStart; xPos < xEnd; xPos++)
+        int xEnd = (int) Math.ceil(x + width);
+        int yEnd = (int) Math.ceil(y + height);
+
+        if (deferred)
         {
-            for (int yPos = yStart; yPos < yEnd; yPos++)
-            {
-                int index = yPos * this.width + xPos;
-                if (index < 0 || index > data.length - 1) continue;
-                if (xPos == xStart || xPos == xEnd - 1 || yPos == yStart || yPos == yEnd - 1)
-                {
-                    if (((color >> 24) & 0xFF) == 255)
-                    {
-                        data[index] = color;
-                    } else if (((color >> 24) & 0xFF) > 0)
-                    {
-                        data[index] = Color.tint(data[index], color);
-                    }
-                }
-            }
+            queue.addRectangle(RenderQueue.OUTLINE, sortKey(), x, y, xEnd, yEnd, color);
+            return;
+        }
+
+        Blitter.outline(data, this.width, 0, 0, this.width, this.height, x, y, xEnd, yEnd, color);
+    }
+
+    /**
+     * Fills or records a rectangle given by its edges.
+     */
+    private void fill(int x0, int y0, int x1, int y1, int color)
+    {
+        if (deferred)
+        {
+            if (x0 < x1 && y0 < y1 && (color >>> 24) != 0)
+                queue.addRectangle(RenderQueue.FILL, sortKey(), x0, y0, x1, y1, color);
+            return;
         }
+
+        Blitter.fill(data, width, 0, 0, width, height, x0, y0, x1, y1, color);
     }
 
     /**
@@ -327,7 +698,7 @@ public class Context
      * @param x    x-coordinate on screen.
      * @param y    y-coordinate on screen.
      */
-    public void renderText(String text, int x, int y)
+    public void renderText(CharSequence text, int x, int y)
     {
         renderText(text, x, y, 0x00000000);
     }
@@ -341,7 +712,7 @@ public class Context
      * @param y    y-coordinate on screen.
      * @param scale Custom scaling per glyph (1.0f is 1:1 ratio).
      */
-    public void renderText(String text, int x, int y, float scale)
+    public void renderText(CharSequence text, int x, int y, float scale)
     {
         renderText(text, x, y, 0x00000000, scale);
     }
@@ -355,7 +726,7 @@ public class Context
      * @param y     y-coordinate on screen.
      * @param color Color of the text.
      */
-    public void renderText(String text, int x, int y, int color)
+    public void renderText(CharSequence text, int x, int y, int color)
     {
         renderText(text, x, y, color, 1.0f);
     }
@@ -370,7 +741,7 @@ public class Context
      * @param color Color of the text.
      * @param scale Custom scaling per glyph (1.0f is 1:1 ratio).
      */
-    public void renderText(String text, int x, int y, int color, float scale)
+    public void renderText(CharSequence text, int x, int y, int color, float scale)
     {
         renderText(text, x, y, color, scale, 1.0f);
     }
@@ -386,13 +757,65 @@ public class Context
      * @param scale Custom scaling per glyph (1.0f is 1:1 ratio).
      * @param alpha Alpha transparency of the text (between <pre>0f</pre> and <pre>1.0f</pre>.
      */
-    public void renderText(String text, int x, int y, int color, float scale, float alpha)
+    public void renderText(CharSequence text, int x, int y, int color, float scale, float alpha)
     {
         if (font == null) return;
 
         font.render(this, text, x, y, color, scale, alpha);
     }
 
+    /**
+     * Draws a range of characters to the screen with custom color, scaling and transparency,
+     * e.g. text assembled in a reused buffer.
+     * Additionally, the <pre>'\n'</pre> character can be used to switch to a new line.
+     *
+     * @param text   Buffer holding the characters.
+     * @param offset Index of the first character to be drawn.
+     * @param length Number of characters to be drawn.
+     * @param x      x-coordinate on screen.
+     * @param y      y-coordinate on screen.
+     * @param color  Color of the text.
+     * @param scale  Custom scaling per glyph (1.0f is 1:1 ratio).
+     * @param alpha  Alpha transparency of the text (between <pre>0f</pre> and <pre>1.0f</pre>.
+     */
+    public void renderText(char[] text, int offset, int length, int x, int y, int color, float scale, float alpha)
+    {
+        if (font == null) return;
+
+        font.render(this, text, offset, length, x, y, color, scale, alpha);
+    }
+
+    /**
+     * Draws a number to the screen with custom color, e.g. a score or frame rate counter.
+     * The digits are written into a reused buffer, so no <code>String</code> is created.
+     *
+     * @param value Number to be drawn on screen.
+     * @param x     x-coordinate on screen.
+     * @param y     y-coordinate on screen.
+     * @param color Color of the text.
+     */
+    public void renderNumber(long value, int x, int y, int color)
+    {
+        renderNumber(value, x, y, color, 1.0f, 1.0f);
+    }
+
+    /**
+     * Draws a number to the screen with custom color, scaling and transparency.
+     * The digits are written into a reused buffer, so no <code>String</code> is created.
+     *
+     * @param value Number to be drawn on screen.
+     * @param x     x-coordinate on screen.
+     * @param y     y-coordinate on screen.
+     * @param color Color of the text.
+     * @param scale Custom scaling per glyph (1.0f is 1:1 ratio).
+     * @param alpha Alpha transparency of the text (between <pre>0f</pre> and <pre>1.0f</pre>.
+     */
+    public void renderNumber(long value, int x, int y, int color, float scale, float alpha)
+    {
+        int start = Util.getChars(value, digits);
+        renderText(digits, start, digits.length - start, x, y, color, scale, alpha);
+    }
+
     /**
      * Sets the color of a single pixel on the context.
      *
@@ -402,15 +825,7 @@ public class Context
      */
     public void blitPixel(int x, int y, int color)
     {
-        if (x < 0 || x > width - 1 || y < 0 || y >= height - 1)
-            return;
-        if (((color >> 24) & 0xFF) == 255)
-        {
-            data[y * width + x] = color;
-        } else if (((color >> 24) & 0xFF) > 0)
-        {
-            data[y * width + x] = Color.tint(data[y * width + x], color);
-        }
+        fill(x, y, x + 1, y + 1, color);
     }
 
     /**
@@ -431,6 +846,25 @@ public class Context
         return font;
     }
 
+    /**
+     * Supplies the cache of scaled bitmap variants, e.g. to read its statistics
+     * or to change its capacity.
+     *
+     * @return The scaled bitmap cache used by this context.
+     */
+    public ScaledBitmapCache getScaledCache()
+    {
+        return scaledCache;
+    }
+
+    /**
+     * @return The queue that deferred draw calls are recorded into.
+     */
+    public RenderQueue getRenderQueue()
+    {
+        return queue;
+    }
+
     /**
      * @return Pixel color data of the context.
      */
@@ -471,6 +905,47 @@ public class Context
      */
     public void setClearColor(int color)
     {
+        if (color != clearColor) markDirty();
         this.clearColor = color;
     }
+
+    /**
+     * Replays a sorted render queue onto a range of rows, restricted to a range of columns,
+     * splitting the rows in halves until each piece is at most one band high.
+     */
+    private static final class Band extends RecursiveAction
+    {
+        private static final long serialVersionUID = 1L;
+
+        private final RenderQueue queue;
+        private final int[] data;
+        private final int width, x0, x1, y0, y1, bandHeight;
+
+        private Band(RenderQueue queue, int[] data, int width, int x0, int x1, int y0, int y1, int bandHeight)
+        {
+            this.queue = queue;
+            this.data = data;
+            this.width = width;
+            this.x0 = x0;
+            this.x1 = x1;
+            this.y0 = y0;
+            this.y1 = y1;
+            this.bandHeight = bandHeight;
+        }
+
+        @Override
+        protected void compute()
+        {
+            if (y1 - y0 <= bandHeight)
+            {
+                queue.execute(data, width, x0, y0, x1, y1);
+                return;
+            }
+
+            int bands = (y1 - y0 + bandHeight - 1) / bandHeight;
+            int mid = y0 + (bands / 2) * bandHeight;
+            invokeAll(new Band(queue, data, width, x0, x1, y0, mid, bandHeight),
+                    new Band(queue, data, width, x0, x1, mid, y1, bandHeight));
+        }
+    }
 }
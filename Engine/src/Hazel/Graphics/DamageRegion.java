@@ -0,0 +1,205 @@
+package Hazel.Graphics;
+
+/**
+ * A small set of rectangles describing which parts of the render context changed since
+ * the last frame. The set is bounded: once it holds <code>MAX_RECTANGLES</code> rectangles,
+ * a new rectangle is merged into whichever existing one grows the least, so the damage is
+ * always covered, though possibly by a slightly larger area than necessary.
+ * <p>
+ * Rectangles are stored by their edges (left/top inclusive, right/bottom exclusive).
+ */
+public class DamageRegion
+{
+    /**
+     * Maximum number of separate rectangles kept before merging
+     */
+    public static final int MAX_RECTANGLES = 16;
+
+    /**
+     * Rectangle edges
+     */
+    private final int[] x0 = new int[MAX_RECTANGLES], y0 = new int[MAX_RECTANGLES],
+            x1 = new int[MAX_RECTANGLES], y1 = new int[MAX_RECTANGLES];
+
+    /**
+     * Number of rectangles in the region
+     */
+    private int count;
+
+    /**
+     * Adds a rectangle given by its edges to the region. Empty rectangles are ignored and
+     * rectangles that touch or overlap an existing one are merged into it.
+     *
+     * @param left   Left edge (inclusive).
+     * @param top    Top edge (inclusive).
+     * @param right  Right edge (exclusive).
+     * @param bottom Bottom edge (exclusive).
+     */
+    public void add(int left, int top, int right, int bottom)
+    {
+        if (left >= right || top >= bottom) return;
+
+        for (int i = 0; i < count; i++)
+        {
+            if (left <= x1[i] && right >= x0[i] && top <= y1[i] && bottom >= y0[i])
+            {
+                merge(i, left, top, right, bottom);
+                return;
+            }
+        }
+
+        if (count < MAX_RECTANGLES)
+        {
+            x0[count] = left;
+            y0[count] = top;
+            x1[count] = right;
+            y1[count] = bottom;
+            count++;
+            return;
+        }
+
+        int best = 0;
+        long bestGrowth = Long.MAX_VALUE;
+        for (int i = 0; i < count; i++)
+        {
+            long merged = (long) (Math.max(right, x1[i]) - Math.min(left, x0[i]))
+                    * (Math.max(bottom, y1[i]) - Math.min(top, y0[i]));
+            long growth = merged - (long) (x1[i] - x0[i]) * (y1[i] - y0[i]);
+            if (growth < bestGrowth)
+            {
+                bestGrowth = growth;
+                best = i;
+            }
+        }
+        merge(best, left, top, right, bottom);
+    }
+
+    /**
+     * Adds every rectangle of another region to this one.
+     *
+     * @param other Region to be added.
+     */
+    public void add(DamageRegion other)
+    {
+        for (int i = 0; i < other.count; i++)
+        {
+            add(other.x0[i], other.y0[i], other.x1[i], other.y1[i]);
+        }
+    }
+
+    /**
+     * Grows one rectangle to cover another, then folds in any rectangles it now touches.
+     */
+    private void merge(int i, int left, int top, int right, int bottom)
+    {
+        x0[i] = Math.min(x0[i], left);
+        y0[i] = Math.min(y0[i], top);
+        x1[i] = Math.max(x1[i], right);
+        y1[i] = Math.max(y1[i], bottom);
+
+        for (int j = count - 1; j >= 0; j--)
+        {
+            if (j == i) continue;
+            if (x0[j] <= x1[i] && x1[j] >= x0[i] && y0[j] <= y1[i] && y1[j] >= y0[i])
+            {
+                x0[i] = Math.min(x0[i], x0[j]);
+                y0[i] = Math.min(y0[i], y0[j]);
+                x1[i] = Math.max(x1[i], x1[j]);
+                y1[i] = Math.max(y1[i], y1[j]);
+                remove(j);
+                if (j < i) i--;
+                j = count;
+            }
+        }
+    }
+
+    /**
+     * Removes a rectangle by moving the last one into its slot.
+     */
+    private void remove(int i)
+    {
+        count--;
+        x0[i] = x0[count];
+        y0[i] = y0[count];
+        x1[i] = x1[count];
+        y1[i] = y1[count];
+    }
+
+    /**
+     * Restricts every rectangle to the given bounds, dropping those that fall outside.
+     *
+     * @param width  Width of the bounds.
+     * @param height Height of the bounds.
+     */
+    public void clip(int width, int height)
+    {
+        for (int i = count - 1; i >= 0; i--)
+        {
+            x0[i] = Math.max(x0[i], 0);
+            y0[i] = Math.max(y0[i], 0);
+            x1[i] = Math.min(x1[i], width);
+            y1[i] = Math.min(y1[i], height);
+            if (x0[i] >= x1[i] || y0[i] >= y1[i]) remove(i);
+        }
+    }
+
+    /**
+     * Removes every rectangle from the region.
+     */
+    public void clear()
+    {
+        count = 0;
+    }
+
+    /**
+     * @return Whether the region holds no rectangles.
+     */
+    public boolean isEmpty()
+    {
+        return count == 0;
+    }
+
+    /**
+     * @return Number of rectangles in the region.
+     */
+    public int size()
+    {
+        return count;
+    }
+
+    /**
+     * @param i Index of the rectangle.
+     * @return Left edge of the rectangle.
+     */
+    public int getX(int i)
+    {
+        return x0[i];
+    }
+
+    /**
+     * @param i Index of the rectangle.
+     * @return Top edge of the rectangle.
+     */
+    public int getY(int i)
+    {
+        return y0[i];
+    }
+
+    /**
+     * @param i Index of the rectangle.
+     * @return Width of the rectangle.
+     */
+    public int getWidth(int i)
+    {
+        return x1[i] - x0[i];
+    }
+
+    /**
+     * @param i Index of the rectangle.
+     * @return Height of the rectangle.
+     */
+    public int getHeight(int i)
+    {
+        return y1[i] - y0[i];
+    }
+}
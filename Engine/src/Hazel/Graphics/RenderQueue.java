@@ -0,0 +1,393 @@
+package Hazel.Graphics;
+
+import java.util.Arrays;
+
+/**
+ * A reusable buffer of draw commands recorded by a deferred render context.
+ * <p>
+ * Every command carries an integer sort key made of a layer and a depth. On flush the
+ * commands are ordered by key with a stable LSD radix sort (so commands sharing a key keep
+ * their submission order) and then executed. Commands are stored as parallel primitive
+ * arrays that only ever grow, so a queue that has reached its steady-state size records,
+ * sorts and executes a frame without allocating.
+ */
+public class RenderQueue
+{
+    /**
+     * Command kind: bitmap transfer
+     */
+    static final int BITMAP = 0x0;
+
+    /**
+     * Command kind: filled rectangle
+     */
+    static final int FILL = 0x1;
+
+    /**
+     * Command kind: rectangle outline
+     */
+    static final int OUTLINE = 0x2;
+
+    /**
+     * Initial number of command slots
+     */
+    private static final int INITIAL_CAPACITY = 256;
+
+    /**
+     * Number of commands looked ahead when comparing two frames, to line them up again after
+     * commands were added or removed
+     */
+    private static final int DIFF_LOOKAHEAD = 8;
+
+    /**
+     * Number of recorded commands
+     */
+    private int count;
+
+    /**
+     * Command attributes, indexed by submission order
+     */
+    int[] kinds, keys, x0, y0, x1, y1, colors, alphas, flags;
+
+    /**
+     * Source bitmap of each bitmap command
+     */
+    Bitmap[] bitmaps;
+
+    /**
+     * Command indices in execution order, and scratch space for the sort
+     */
+    int[] order, scratch;
+
+    /**
+     * Radix digit histogram
+     */
+    private final int[] histogram = new int[256];
+
+    /**
+     * Whether <code>order</code> reflects the recorded commands
+     */
+    private boolean sorted = true;
+
+    /**
+     * Creates an empty render queue.
+     */
+    public RenderQueue()
+    {
+        allocate(INITIAL_CAPACITY);
+    }
+
+    /**
+     * Records a bitmap transfer.
+     *
+     * @param key       Sort key of the command.
+     * @param bitmap    Bitmap to be transferred (already scaled).
+     * @param x         x-coordinate on screen.
+     * @param y         y-coordinate on screen.
+     * @param alpha     Global opacity between 0 - 255.
+     * @param tintColor Tint color of type ARGB (0 for none).
+     * @param flags     Mirroring and rotation flags (see <code>Context.FLIP_HORIZONTAL</code> etc.).
+     */
+    void addBitmap(int key, Bitmap bitmap, int x, int y, int alpha, int tintColor, int flags)
+    {
+        boolean rotated = (flags & Context.ROTATE_90) != 0;
+        int width = rotated ? bitmap.pixelHeight() : bitmap.pixelWidth();
+        int height = rotated ? bitmap.pixelWidth() : bitmap.pixelHeight();
+
+        int i = next(BITMAP, key, x, y, x + width, y + height, tintColor);
+        alphas[i] = alpha;
+        bitmaps[i] = bitmap;
+        this.flags[i] = flags;
+    }
+
+    /**
+     * Records a filled or outlined rectangle.
+     *
+     * @param kind  Either <code>FILL</code> or <code>OUTLINE</code>.
+     * @param key   Sort key of the command.
+     * @param x0    Left edge of the rectangle (inclusive).
+     * @param y0    Top edge of the rectangle (inclusive).
+     * @param x1    Right edge of the rectangle (exclusive).
+     * @param y1    Bottom edge of the rectangle (exclusive).
+     * @param color Color of type ARGB.
+     */
+    void addRectangle(int kind, int key, int x0, int y0, int x1, int y1, int color)
+    {
+        int i = next(kind, key, x0, y0, x1, y1, color);
+        alphas[i] = 255;
+        bitmaps[i] = null;
+        flags[i] = 0;
+    }
+
+    /**
+     * Claims the next command slot, growing the storage if needed.
+     */
+    private int next(int kind, int key, int x0, int y0, int x1, int y1, int color)
+    {
+        if (count == kinds.length) grow();
+
+        int i = count++;
+        kinds[i] = kind;
+        keys[i] = key;
+        this.x0[i] = x0;
+        this.y0[i] = y0;
+        this.x1[i] = x1;
+        this.y1[i] = y1;
+        colors[i] = color;
+        sorted = false;
+        return i;
+    }
+
+    /**
+     * Orders the recorded commands by sort key. Commands that share a key keep the
+     * order in which they were recorded.
+     */
+    public void sort()
+    {
+        if (sorted) return;
+
+        int n = count;
+        int[] src = order, dst = scratch;
+        for (int i = 0; i < n; i++) src[i] = i;
+
+        for (int shift = 0; shift < 32; shift += 8)
+        {
+            Arrays.fill(histogram, 0);
+            for (int i = 0; i < n; i++) histogram[digit(keys[i], shift)]++;
+
+            //Every key shares this digit, so the pass would not move anything
+            if (histogram[digit(keys[0], shift)] == n) continue;
+
+            for (int d = 0, total = 0; d < 256; d++)
+            {
+                int c = histogram[d];
+                histogram[d] = total;
+                total += c;
+            }
+
+            for (int i = 0; i < n; i++)
+            {
+                int index = src[i];
+                dst[histogram[digit(keys[index], shift)]++] = index;
+            }
+
+            int[] swap = src;
+            src = dst;
+            dst = swap;
+        }
+
+        order = src;
+        scratch = dst;
+        sorted = true;
+    }
+
+    /**
+     * Extracts one radix digit of a sort key, treating the key as signed.
+     */
+    private static int digit(int key, int shift)
+    {
+        return ((key ^ 0x80000000) >>> shift) & 0xFF;
+    }
+
+    /**
+     * Executes the sorted commands onto a pixel buffer, restricted to a clip rectangle.
+     *
+     * @param dst      Destination pixel data.
+     * @param dstWidth Width of the destination, in pixels.
+     * @param clipX0   Left edge of the clip (inclusive).
+     * @param clipY0   Top edge of the clip (inclusive).
+     * @param clipX1   Right edge of the clip (exclusive).
+     * @param clipY1   Bottom edge of the clip (exclusive).
+     */
+    void execute(int[] dst, int dstWidth, int clipX0, int clipY0, int clipX1, int clipY1)
+    {
+        sort();
+
+        for (int n = 0; n < count; n++)
+        {
+            int i = order[n];
+            switch (kinds[i])
+            {
+                case BITMAP:
+                    Bitmap bitmap = bitmaps[i];
+                    Blitter.blit(dst, dstWidth, clipX0, clipY0, clipX1, clipY1,
+                            bitmap.getBackingData(), bitmap.getOffset(), bitmap.getStride(), bitmap.pixelWidth(), bitmap.pixelHeight(), bitmap.getSpans(),
+                            x0[i], y0[i], alphas[i], colors[i], flags[i]);
+                    break;
+                case FILL:
+                    Blitter.fill(dst, dstWidth, clipX0, clipY0, clipX1, clipY1, x0[i], y0[i], x1[i], y1[i], colors[i]);
+                    break;
+                case OUTLINE:
+                    Blitter.outline(dst, dstWidth, clipX0, clipY0, clipX1, clipY1, x0[i], y0[i], x1[i], y1[i], colors[i]);
+                    break;
+            }
+        }
+    }
+
+    /**
+     * Compares the sorted commands of this queue with those of a previous frame, and adds
+     * the bounds of every command that differs (in either frame) to a damage region.
+     * <p>
+     * Both frames are walked in execution order, matching identical commands. When they
+     * differ, the next <code>DIFF_LOOKAHEAD</code> commands of each frame are searched for a
+     * match, so a few commands added or removed early in a layer only damage their own bounds
+     * instead of shifting every later command out of line. Longer runs of added or removed
+     * commands are damaged pairwise, which still covers every changed pixel (the damage region
+     * merges them into a bounded set of rectangles). Matched commands keep their relative order,
+     * so every pixel outside the damage sees the same commands in the same order in both frames.
+     *
+     * @param previous Queue holding the previous frame, already sorted.
+     * @param damage   Region receiving the bounds of changed commands.
+     */
+    void diff(RenderQueue previous, DamageRegion damage)
+    {
+        sort();
+        previous.sort();
+
+        int k = 0, l = 0;
+        while (k < count || l < previous.count)
+        {
+            if (k == count)
+            {
+                previous.damage(previous.order[l++], damage);
+                continue;
+            }
+            if (l == previous.count)
+            {
+                damage(order[k++], damage);
+                continue;
+            }
+            if (sameCommand(order[k], previous, previous.order[l]))
+            {
+                k++;
+                l++;
+                continue;
+            }
+
+            int added = lookahead(k, previous, l, true);
+            int removed = lookahead(k, previous, l, false);
+            if (added > 0 && (removed == 0 || added <= removed))
+            {
+                for (int end = k + added; k < end; k++) damage(order[k], damage);
+            } else if (removed > 0)
+            {
+                for (int end = l + removed; l < end; l++) previous.damage(previous.order[l], damage);
+            } else
+            {
+                damage(order[k++], damage);
+                previous.damage(previous.order[l++], damage);
+            }
+        }
+    }
+
+    /**
+     * Searches ahead for the command the other frame continues with.
+     *
+     * @return How many commands were skipped in this queue (<code>added</code>) or in the previous
+     * one to find a match, or 0 if there is none within <code>DIFF_LOOKAHEAD</code> commands.
+     */
+    private int lookahead(int k, RenderQueue previous, int l, boolean added)
+    {
+        for (int d = 1; d <= DIFF_LOOKAHEAD; d++)
+        {
+            if (added)
+            {
+                if (k + d >= count) return 0;
+                if (sameCommand(order[k + d], previous, previous.order[l])) return d;
+            } else
+            {
+                if (l + d >= previous.count) return 0;
+                if (sameCommand(order[k], previous, previous.order[l + d])) return d;
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * Adds the bounds of a command to a damage region.
+     */
+    private void damage(int i, DamageRegion damage)
+    {
+        damage.add(x0[i], y0[i], x1[i], y1[i]);
+    }
+
+    /**
+     * @return Whether command <code>i</code> of this queue draws exactly what command
+     * <code>j</code> of another queue draws.
+     */
+    private boolean sameCommand(int i, RenderQueue other, int j)
+    {
+        return kinds[i] == other.kinds[j]
+                && bitmaps[i] == other.bitmaps[j]
+                && x0[i] == other.x0[j] && y0[i] == other.y0[j]
+                && x1[i] == other.x1[j] && y1[i] == other.y1[j]
+                && colors[i] == other.colors[j]
+                && alphas[i] == other.alphas[j]
+                && flags[i] == other.flags[j];
+    }
+
+    /**
+     * Discards all recorded commands. Storage is kept for the next frame.
+     */
+    public void clear()
+    {
+        Arrays.fill(bitmaps, 0, count, null);
+        count = 0;
+        sorted = true;
+    }
+
+    /**
+     * @return Number of recorded commands.
+     */
+    public int size()
+    {
+        return count;
+    }
+
+    /**
+     * @return Number of commands that can be recorded before the storage grows.
+     */
+    public int getCapacity()
+    {
+        return kinds.length;
+    }
+
+    /**
+     * Doubles the command storage, keeping recorded commands.
+     */
+    private void grow()
+    {
+        int capacity = kinds.length * 2;
+        kinds = Arrays.copyOf(kinds, capacity);
+        keys = Arrays.copyOf(keys, capacity);
+        x0 = Arrays.copyOf(x0, capacity);
+        y0 = Arrays.copyOf(y0, capacity);
+        x1 = Arrays.copyOf(x1, capacity);
+        y1 = Arrays.copyOf(y1, capacity);
+        colors = Arrays.copyOf(colors, capacity);
+        alphas = Arrays.copyOf(alphas, capacity);
+        flags = Arrays.copyOf(flags, capacity);
+        bitmaps = Arrays.copyOf(bitmaps, capacity);
+        order = new int[capacity];
+        scratch = new int[capacity];
+    }
+
+    /**
+     * Allocates empty command storage.
+     */
+    private void allocate(int capacity)
+    {
+        kinds = new int[capacity];
+        keys = new int[capacity];
+        x0 = new int[capacity];
+        y0 = new int[capacity];
+        x1 = new int[capacity];
+        y1 = new int[capacity];
+        colors = new int[capacity];
+        alphas = new int[capacity];
+        flags = new int[capacity];
+        bitmaps = new Bitmap[capacity];
+        order = new int[capacity];
+        scratch = new int[capacity];
+    }
+}
@@ -0,0 +1,231 @@
+package Hazel.Graphics;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * A bounded, least-recently-used cache of scaled bitmap variants. Entries are keyed by the
+ * identity of the source bitmap together with the scaling ratio, so drawing the same sprite
+ * at the same scale every frame only pays for <code>Bitmap.getScaled()</code> once.
+ * <p>
+ * Hit, miss and eviction counters are kept so the capacity can be sized for a given game.
+ * The cache is not thread-safe and is meant to be owned by a single render context.
+ */
+public class ScaledBitmapCache
+{
+    /**
+     * Default number of scaled variants kept in memory
+     */
+    public static final int DEFAULT_CAPACITY = 256;
+
+    /**
+     * Access-ordered map used for LRU eviction
+     */
+    private final LinkedHashMap<Key, Bitmap> entries;
+
+    /**
+     * Reusable key used for lookups, so a cache hit does not allocate
+     */
+    private final Key probe = new Key();
+
+    /**
+     * Maximum number of scaled variants kept in memory
+     */
+    private int capacity;
+
+    /**
+     * Cache statistics
+     */
+    private long hits, misses, evictions;
+
+    /**
+     * Creates a scaled bitmap cache with the default capacity.
+     */
+    public ScaledBitmapCache()
+    {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Creates a scaled bitmap cache holding up to a given number of variants.
+     *
+     * @param capacity Maximum number of scaled variants kept in memory.
+     */
+    public ScaledBitmapCache(int capacity)
+    {
+        if (capacity < 1)
+            throw new IllegalArgumentException("Cache capacity must be at least 1! capacity: " + capacity);
+
+        this.capacity = capacity;
+        this.entries = new LinkedHashMap<Key, Bitmap>(16, 0.75f, true)
+        {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, Bitmap> eldest)
+            {
+                if (size() <= ScaledBitmapCache.this.capacity) return false;
+
+                evictions++;
+                return true;
+            }
+        };
+    }
+
+    /**
+     * Supplies the scaled variant of a bitmap, generating and caching it if needed.
+     * A scale of 1.0f returns the bitmap itself without touching the cache.
+     *
+     * @param bitmap Source bitmap.
+     * @param scale  Scaling ratio (1.0f is 1:1 ratio).
+     * @return The scaled variant of the bitmap.
+     */
+    public Bitmap get(Bitmap bitmap, float scale)
+    {
+        if (scale == 1.0f) return bitmap;
+
+        probe.set(bitmap, scale);
+        Bitmap scaled = entries.get(probe);
+        probe.bitmap = null;
+        if (scaled != null)
+        {
+            hits++;
+            return scaled;
+        }
+
+        misses++;
+        scaled = bitmap.getScaled(scale);
+        entries.put(new Key(bitmap, scale), scaled);
+        return scaled;
+    }
+
+    /**
+     * Removes every cached variant of a given bitmap, e.g. after its pixels have changed.
+     *
+     * @param bitmap Source bitmap.
+     */
+    public void invalidate(Bitmap bitmap)
+    {
+        entries.keySet().removeIf(key -> key.bitmap == bitmap);
+    }
+
+    /**
+     * Removes all cached variants. Statistics are kept.
+     */
+    public void clear()
+    {
+        entries.clear();
+    }
+
+    /**
+     * Resets the hit, miss and eviction counters.
+     */
+    public void resetStatistics()
+    {
+        hits = 0;
+        misses = 0;
+        evictions = 0;
+    }
+
+    /**
+     * Changes the maximum number of cached variants. Surplus entries are evicted
+     * on the next insertion.
+     *
+     * @param capacity Maximum number of scaled variants kept in memory.
+     */
+    public void setCapacity(int capacity)
+    {
+        if (capacity < 1)
+            throw new IllegalArgumentException("Cache capacity must be at least 1! capacity: " + capacity);
+
+        this.capacity = capacity;
+    }
+
+    /**
+     * @return Maximum number of scaled variants kept in memory.
+     */
+    public int getCapacity()
+    {
+        return capacity;
+    }
+
+    /**
+     * @return Number of scaled variants currently cached.
+     */
+    public int size()
+    {
+        return entries.size();
+    }
+
+    /**
+     * @return Number of lookups served from the cache.
+     */
+    public long getHits()
+    {
+        return hits;
+    }
+
+    /**
+     * @return Number of lookups that had to generate a scaled variant.
+     */
+    public long getMisses()
+    {
+        return misses;
+    }
+
+    /**
+     * @return Number of variants dropped to stay within capacity.
+     */
+    public long getEvictions()
+    {
+        return evictions;
+    }
+
+    @Override
+    public String toString()
+    {
+        return "ScaledBitmapCache{" +
+                "size=" + entries.size() +
+                ", capacity=" + capacity +
+                ", hits=" + hits +
+                ", misses=" + misses +
+                ", evictions=" + evictions +
+                '}';
+    }
+
+    /**
+     * Cache key made of the source bitmap identity and the raw bits of the scaling ratio.
+     */
+    private static final class Key
+    {
+        private Bitmap bitmap;
+        private int scaleBits;
+
+        private Key()
+        {
+        }
+
+        private Key(Bitmap bitmap, float scale)
+        {
+            set(bitmap, scale);
+        }
+
+        private void set(Bitmap bitmap, float scale)
+        {
+            this.bitmap = bitmap;
+            this.scaleBits = Float.floatToIntBits(scale);
+        }
+
+        @Override
+        public boolean equals(Object o)
+        {
+            if (!(o instanceof Key)) return false;
+            Key other = (Key) o;
+            return bitmap == other.bitmap && scaleBits == other.scaleBits;
+        }
+
+        @Override
+        public int hashCode()
+        {
+            return 31 * System.identityHashCode(bitmap) + scaleBits;
+        }
+    }
+}
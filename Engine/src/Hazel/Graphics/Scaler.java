@@ -0,0 +1,233 @@
+package Hazel.Graphics;
+
+import java.util.stream.IntStream;
+
+/**
+ * Software image scaling kernels that work directly on ARGB pixel arrays. No display
+ * device or Java2D pipeline is involved, so assets can be scaled in headless builds.
+ * <p>
+ * Two filters are offered. <code>NEAREST</code> picks the closest source pixel using 16.16
+ * fixed-point stepping and keeps pixel art crisp. <code>BILINEAR</code> weighs the four
+ * surrounding source pixels with 7-bit fixed-point weights; color channels are weighted
+ * by alpha, so transparent pixels do not bleed dark fringes into the result.
+ * <p>
+ * Destination rows are independent of one another, so images of at least
+ * <code>getParallelThreshold()</code> pixels are scaled on several threads.
+ */
+public final class Scaler
+{
+    /**
+     * Nearest-neighbour filter
+     */
+    public static final int NEAREST = 0x0;
+
+    /**
+     * Bilinear filter
+     */
+    public static final int BILINEAR = 0x1;
+
+    /**
+     * Number of fractional bits of the bilinear weights
+     */
+    private static final int WEIGHT_BITS = 7;
+
+    /**
+     * Destination size, in pixels, from which rows are scaled in parallel
+     */
+    private static int parallelThreshold = 512 * 512;
+
+    /**
+     * Scales a block of pixels into a destination array.
+     *
+     * @param src       Source pixel data.
+     * @param srcOffset Index of the top-left source pixel.
+     * @param srcStride Distance between two source rows, in pixels.
+     * @param srcWidth  Width of the source block, in pixels.
+     * @param srcHeight Height of the source block, in pixels.
+     * @param dst       Destination pixel data, at least <code>dstWidth * dstHeight</code> long.
+     * @param dstWidth  Width of the destination, in pixels.
+     * @param dstHeight Height of the destination, in pixels.
+     * @param filter    Either <code>NEAREST</code> or <code>BILINEAR</code>.
+     */
+    public static void scale(int[] src, int srcOffset, int srcStride, int srcWidth, int srcHeight,
+                             int[] dst, int dstWidth, int dstHeight, int filter)
+    {
+        if (srcWidth <= 0 || srcHeight <= 0 || dstWidth <= 0 || dstHeight <= 0)
+            throw new IllegalArgumentException(String.format("Cannot scale %dx%d to %dx%d!", srcWidth, srcHeight, dstWidth, dstHeight));
+        if (filter != NEAREST && filter != BILINEAR)
+            throw new IllegalArgumentException("Unknown scaling filter! filter: " + filter);
+
+        Rows rows = filter == NEAREST
+                ? nearest(src, srcOffset, srcStride, srcWidth, srcHeight, dst, dstWidth, dstHeight)
+                : bilinear(src, srcOffset, srcStride, srcWidth, srcHeight, dst, dstWidth, dstHeight);
+
+        if ((long) dstWidth * dstHeight >= parallelThreshold)
+            IntStream.range(0, dstHeight).parallel().forEach(rows::scaleRow);
+        else
+            for (int y = 0; y < dstHeight; y++) rows.scaleRow(y);
+    }
+
+    /**
+     * Scales a whole image stored row after row.
+     *
+     * @param src       Source pixel data.
+     * @param srcWidth  Width of the source, in pixels.
+     * @param srcHeight Height of the source, in pixels.
+     * @param dstWidth  Width of the result, in pixels.
+     * @param dstHeight Height of the result, in pixels.
+     * @param filter    Either <code>NEAREST</code> or <code>BILINEAR</code>.
+     * @return The scaled pixel data.
+     */
+    public static int[] scale(int[] src, int srcWidth, int srcHeight, int dstWidth, int dstHeight, int filter)
+    {
+        int[] dst = new int[dstWidth * dstHeight];
+        scale(src, 0, srcWidth, srcWidth, srcHeight, dst, dstWidth, dstHeight, filter);
+        return dst;
+    }
+
+    /**
+     * Prepares nearest-neighbour scaling. The source column of every destination column is
+     * computed once and shared by all rows.
+     */
+    private static Rows nearest(int[] src, int srcOffset, int srcStride, int srcWidth, int srcHeight,
+                                int[] dst, int dstWidth, int dstHeight)
+    {
+        int[] columns = new int[dstWidth];
+        long stepX = ((long) srcWidth << 16) / dstWidth;
+        for (int x = 0; x < dstWidth; x++) columns[x] = (int) ((x * stepX + (stepX >> 1)) >> 16);
+
+        long stepY = ((long) srcHeight << 16) / dstHeight;
+        return y ->
+        {
+            int srcRow = srcOffset + (int) ((y * stepY + (stepY >> 1)) >> 16) * srcStride;
+            int dstRow = y * dstWidth;
+            for (int x = 0; x < dstWidth; x++) dst[dstRow + x] = src[srcRow + columns[x]];
+        };
+    }
+
+    /**
+     * Prepares bilinear scaling. The two source columns and the horizontal weight of every
+     * destination column are computed once and shared by all rows.
+     */
+    private static Rows bilinear(int[] src, int srcOffset, int srcStride, int srcWidth, int srcHeight,
+                                 int[] dst, int dstWidth, int dstHeight)
+    {
+        int[] left = new int[dstWidth], right = new int[dstWidth], weightX = new int[dstWidth];
+        sample(srcWidth, dstWidth, left, right, weightX);
+
+        int[] top = new int[dstHeight], bottom = new int[dstHeight], weightY = new int[dstHeight];
+        sample(srcHeight, dstHeight, top, bottom, weightY);
+
+        return y ->
+        {
+            int row0 = srcOffset + top[y] * srcStride;
+            int row1 = srcOffset + bottom[y] * srcStride;
+            int fy = weightY[y];
+            int dstRow = y * dstWidth;
+
+            for (int x = 0; x < dstWidth; x++)
+            {
+                int fx = weightX[x];
+                dst[dstRow + x] = interpolate(
+                        src[row0 + left[x]], src[row0 + right[x]],
+                        src[row1 + left[x]], src[row1 + right[x]], fx, fy);
+            }
+        };
+    }
+
+    /**
+     * Maps destination pixel centres onto the source axis, giving for each destination
+     * pixel the two neighbouring source pixels and the weight of the second one.
+     */
+    private static void sample(int srcSize, int dstSize, int[] first, int[] second, int[] weight)
+    {
+        int one = 1 << WEIGHT_BITS;
+        for (int i = 0; i < dstSize; i++)
+        {
+            //Centre of the destination pixel, in source pixels, with WEIGHT_BITS fractional bits
+            long position = (((2L * i + 1) * srcSize << WEIGHT_BITS) / (2L * dstSize)) - (one >> 1);
+            if (position < 0) position = 0;
+
+            int index = (int) (position >> WEIGHT_BITS);
+            if (index >= srcSize - 1)
+            {
+                first[i] = srcSize - 1;
+                second[i] = srcSize - 1;
+                weight[i] = 0;
+            } else
+            {
+                first[i] = index;
+                second[i] = index + 1;
+                weight[i] = (int) (position & (one - 1));
+            }
+        }
+    }
+
+    /**
+     * Interpolates four ARGB pixels with alpha-weighted color channels.
+     *
+     * @param c00 Top-left pixel.
+     * @param c10 Top-right pixel.
+     * @param c01 Bottom-left pixel.
+     * @param c11 Bottom-right pixel.
+     * @param fx  Horizontal weight of the right pixels (0 - 128).
+     * @param fy  Vertical weight of the bottom pixels (0 - 128).
+     * @return The interpolated pixel.
+     */
+    private static int interpolate(int c00, int c10, int c01, int c11, int fx, int fy)
+    {
+        if (c00 == c10 && c00 == c01 && c00 == c11) return c00;
+
+        int one = 1 << WEIGHT_BITS;
+        int w00 = (one - fx) * (one - fy);
+        int w10 = fx * (one - fy);
+        int w01 = (one - fx) * fy;
+        int w11 = fx * fy;
+
+        //Weights sum to 2^14, so alpha-weighted channels stay below 2^30
+        int a00 = (c00 >>> 24) * w00, a10 = (c10 >>> 24) * w10;
+        int a01 = (c01 >>> 24) * w01, a11 = (c11 >>> 24) * w11;
+        int alpha = a00 + a10 + a01 + a11;
+        if (alpha == 0) return 0;
+
+        int r = (((c00 >> 16) & 0xFF) * a00 + ((c10 >> 16) & 0xFF) * a10
+                + ((c01 >> 16) & 0xFF) * a01 + ((c11 >> 16) & 0xFF) * a11) / alpha;
+        int g = (((c00 >> 8) & 0xFF) * a00 + ((c10 >> 8) & 0xFF) * a10
+                + ((c01 >> 8) & 0xFF) * a01 + ((c11 >> 8) & 0xFF) * a11) / alpha;
+        int b = ((c00 & 0xFF) * a00 + (c10 & 0xFF) * a10
+                + (c01 & 0xFF) * a01 + (c11 & 0xFF) * a11) / alpha;
+        int a = (alpha + (1 << (2 * WEIGHT_BITS - 1))) >> (2 * WEIGHT_BITS);
+
+        return (a << 24) | (r << 16) | (g << 8) | b;
+    }
+
+    /**
+     * Sets the destination size from which rows are scaled on several threads.
+     *
+     * @param pixels Number of destination pixels (use <code>Integer.MAX_VALUE</code> to always scale serially).
+     */
+    public static void setParallelThreshold(int pixels)
+    {
+        parallelThreshold = Math.max(1, pixels);
+    }
+
+    /**
+     * @return Destination size, in pixels, from which rows are scaled on several threads.
+     */
+    public static int getParallelThreshold()
+    {
+        return parallelThreshold;
+    }
+
+    /**
+     * Scales a single destination row.
+     */
+    private interface Rows
+    {
+        void scaleRow(int y);
+    }
+
+    private Scaler()
+    {
+    }
+}
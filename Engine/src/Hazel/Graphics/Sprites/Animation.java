@@ -1,72 +1,34 @@
 package Hazel.Graphics.Sprites;
 
-import java.util.*;
-
 import Hazel.Graphics.Bitmap;
-import Hazel.Graphics.Color;
-import Hazel.Graphics.Context;
-import Hazel.System.Asset.Type.Images.Image;
 
 /**
  * An animation is a series of Bitmaps played in a timed sequence.
+ * <br>
+ * An animation is an {@code AnimationPlayer} of its own {@code AnimationClip}. The clip holds
+ * the frames, their durations and the play mode and can be shared, e.g. by every goblin on a
+ * level through <code>new Animation(clip)</code>, while each animation keeps only its own
+ * playback state. Changing the frames or the mode of an animation swaps in a new clip and
+ * leaves other animations of the old clip untouched.
  */
-public class Animation
+public class Animation extends AnimationPlayer
 {
     /**
-     * Number of frames in the action
-     */
-    public LinkedList<Frame> frames = new LinkedList<>();
-
-    /**
-     * Current frame being drawn
-     */
-    private int frame = -1;
-
-    /**
-     * Is the action playing?
-     */
-    private boolean isStarted = false;
-
-    /**
-     * Relative speed to play the action in (original time * speed factor)
-     */
-    private float speed = 1f;
-
-    /**
-     * Frame update timer
-     */
-    private long lastUpdate;
-
-    /**
-     * Control for looping the action (i.e. tile from beginning again when completed)
-     */
-    private boolean looping = false;
-
-    /**
-     * Control for reversing the action (i.e. tile from last frame of bitmap list)
-     */
-    private boolean isReverseMode = false;
-
-    /**
-     * Control for ping-pong mode (i.e. tile from beginning but play reverse when last frame is reached, loop)
-     */
-    private boolean isPingPongMode = false;
-
-    /**
-     * Internal logic switch to initialize timers and variables on first update
-     */
-    private boolean firstUpdate = true;
-
-    /**
-     * The name of the animation
+     * Creates an empty animation.
      */
-    private String name;
+    public Animation()
+    {
+        this(new AnimationClip(null, new Sprite[0], 0, AnimationClip.ONCE));
+    }
 
     /**
-     * Creates an empty animation.
+     * Creates an animation playing a (possibly shared) clip.
+     *
+     * @param clip The clip to be played.
      */
-    public Animation()
+    public Animation(AnimationClip clip)
     {
+        super(clip);
     }
 
     /**
@@ -78,14 +40,7 @@ public class Animation
      */
     public Animation(String name, Sprite[] animation, int[] duration)
     {
-        this.name = name;
-
-        if (animation.length != duration.length)
-            throw new IllegalArgumentException("Animation frames and delay time length mismatch!");
-        for (int i = 0; i < animation.length; i++)
-        {
-            frames.add(new Frame(animation[i], duration[i] * 1000));
-        }
+        this(new AnimationClip(name, animation, duration, AnimationClip.ONCE));
     }
 
     /**
@@ -96,12 +51,7 @@ public class Animation
      */
     public Animation(String name, Sprite[] animation, int duration)
     {
-        this.name = name;
-
-        for (int i = 0; i < animation.length; i++)
-        {
-            frames.add(new Frame(animation[i], duration * 1000));
-        }
+        this(new AnimationClip(name, animation, duration, AnimationClip.ONCE));
     }
 
     /**
@@ -113,144 +63,42 @@ public class Animation
      */
     public Animation addFrame(Sprite sprite, int duration)
     {
-        frames.add(new Frame(sprite, duration * 1000));
+        setClip(getClip().withFrame(sprite, duration));
         return this;
     }
 
     /**
-     * Renders the action on a given context.
-     *
-     * @param ctx Render context to be drawn on.
-     * @param x   x-coordinate on screen.
-     * @param y   y-coordinate on screen.
-     */
-    public void render(Context ctx, int x, int y)
-    {
-        render(ctx, x, y, 1.0f);
-    }
-
-    /**
-     * Renders the action on a given context with specified transparency.
-     *
-     * @param ctx   Render context to be drawn on.
-     * @param x     x-coordinate on screen.
-     * @param y     y-coordinate on screen.
-     * @param alpha Alpha transparency of the action.
+     * @return Length of one pass over all frames, in milliseconds.
      */
-    public void render(Context ctx, int x, int y, float alpha)
+    public long getLength()
     {
-        render(ctx, x, y, alpha, Color.toPixelInt(0, 0, 0, 0));
+        return getClip().getLength();
     }
 
     /**
-     * Renders the action on a given context with specified transparency and tint color.
-     *
-     * @param ctx   Render context to be drawn on.
-     * @param x     x-coordinate on screen.
-     * @param y     y-coordinate on screen.
-     * @param alpha Alpha transparency of the action.
-     * @param tint  Tint color of the action.
+     * @return Number of frames in the action.
      */
-    public void render(Context ctx, int x, int y, float alpha, int tint)
+    public int getFrameCount()
     {
-        Frame f = frames.get(frame);
-        ctx.renderBitmap(f.sprite.bitmap, x, y, alpha, tint);
+        return getClip().getFrameCount();
     }
 
     /**
-     * Updates action timers and frame information.
+     * @param index The index of the frame.
+     * @return A copy of the frame at the index (duration in milliseconds).
      */
-    public void update()
+    public Frame getFrame(int index)
     {
-        if (firstUpdate && !isStarted)
-        {
-            start();
-            firstUpdate = false;
-        }
-
-        if (isStarted)
-        {
-            Frame f = frames.get(frame);
-            int delay = (int) ((float) f.duration * speed);
-            if (System.currentTimeMillis() - lastUpdate > delay)
-            {
-                if (isReverseMode)
-                {
-                    frame--;
-                    if (frame < 0)
-                    {
-                        if (isPingPongMode)
-                        {
-                            setReverseMode(false);
-                            frame++;
-                        } else if (looping)
-                        {
-                            frame = frames.size() - 1;
-                        } else
-                        {
-                            frame = 0;
-                            isStarted = false;
-                        }
-                    }
-                } else
-                {
-                    frame++;
-                    if (frame > frames.size() - 1)
-                    {
-                        if (isPingPongMode)
-                        {
-                            setReverseMode(true);
-                            frame--;
-                        } else if (looping)
-                        {
-                            frame = 0;
-                        } else
-                        {
-                            frame = frames.size() - 1;
-                            isStarted = false;
-                        }
-                    }
-                }
-                lastUpdate = System.currentTimeMillis();
-            }
-        }
-    }
-
-    /**
-     * @return The bitmap of the current frame.
-     */
-    public Bitmap getBitmap()
-    {
-        return frames.get(frame).sprite.bitmap;
-    }
-
-    /**
-     * @return The sprite of the current frame.
-     */
-    public Sprite getSprite()
-    {
-        return frames.get(frame).sprite;
-    }
-
-    /**
-     * Flips all frames within the animation on one or more axis.
-     *
-     * @param horizontal Flip all frames according to a horizontal axis.
-     * @param vertical   Flip all frames according to a vertical axis.
-     */
-    public void flipFrames(boolean horizontal, boolean vertical)
-    {
-        for (int i = 0; i < frames.size(); i++)
-        {
-            frames.get(i).sprite.bitmap = frames.get(i).sprite.bitmap.getFlipped(horizontal, vertical);
-        }
+        return new Frame(getClip().getSprite(index), getClip().getDuration(index));
     }
 
     /**
      * Grabs the mirrored/flipped version of the current frame on one or more axis.
+     * This creates a copy of the frame; drawing the animation with <code>flipFrames()</code>
+     * or <code>setFlags()</code> does not.
      *
-     * @param horizontal Flip all frames according to a horizontal axis.
-     * @param vertical   Flip all frames according to a vertical axis.
+     * @param horizontal Mirror the frame left to right.
+     * @param vertical   Mirror the frame upside down.
      * @return The mirrored version of the current frame.
      */
     public Bitmap getMirror(boolean horizontal, boolean vertical)
@@ -259,12 +107,13 @@ public class Animation
     }
 
     /**
-     * Flips each frame of a given animation, as well as reverses each frames' order
-     * in the animation sequence (e.g. frames[0] -(becomes)-> frames[frames.length - 1])
-     * if specified.
+     * Supplies a mirrored version of this animation, with its frames' order reversed
+     * (e.g. frames[0] -(becomes)-> frames[frames.length - 1]) if specified.
+     * The mirrored animation shares the sprites of this one and is only drawn flipped,
+     * so facing a character the other way costs no pixel memory.
      *
-     * @param horizontal Flip all frames according to a horizontal axis.
-     * @param vertical   Flip all frames according to a vertical axis.
+     * @param horizontal Mirror all frames left to right.
+     * @param vertical   Mirror all frames upside down.
      * @param isReversed Weather or not the animation sequence should be reversed.
      * @return The animation with each frame of a given animation mirrored,
      * as well as reverses each frames' order in the animation sequence.
@@ -273,81 +122,20 @@ public class Animation
     {
         if (!horizontal && !vertical && !isReversed) return this;
 
-        Sprite[] animation = new Sprite[frames.size()];
-        int duration = frames.getFirst().duration;
-
-        for (int i = 0; i < frames.size(); i++)
-        {
-            Bitmap original = frames.get(i).sprite.bitmap;
-
-            if (original == null)
-            {
-                original = Image.getAsBitmap(frames.get(i).sprite.getImage());
-            }
-
-            original = Image.getAsBitmap(Image.getFlipped(original.getImage(), horizontal, vertical));
-            Sprite mirror = new Sprite(original);
-            animation[i] = mirror;
-        }
-
-        if (isReversed)
-        {
-            animation = getReverseOrderOf(animation);
-        }
-
-        return new Animation(name, animation, duration);
+        Animation mirror = new Animation(getClip().getMirror(name, horizontal, vertical, isReversed));
+        mirror.setFlags(getFlags());
+        return mirror;
     }
 
     /**
-     * Reverses the order of the indices in the array of Bitmap frames.
-     * e.g. frames[0] -(becomes)-> frames[frames.length - 1]
-     *
-     * @param animation The array of bitmap animation frames.
-     * @return Reversed order of animation frames.
-     */
-    private Sprite[] getReverseOrderOf(Sprite[] animation)
-    {
-        Sprite[] result = new Sprite[animation.length];
-        List<Sprite> list = Arrays.asList(animation);
-        Collections.reverse(list);
-
-        for (int i = 0; i < list.size(); i++)
-        {
-            result[i] = list.get(i);
-        }
-
-        return result;
-    }
-
-    /**
-     * Grabs the mirrored/flipped version of the current frame on the vertical axis.
+     * Grabs the mirrored/flipped version of the current frame on the vertical axis
+     * (i.e. mirrored left to right). This creates a copy of the frame.
      *
      * @return The mirrored version of the current frame.
      */
     public Sprite getMirror()
     {
-        return new Sprite(getBitmap().getFlipped(false, true));
-    }
-
-    /**
-     * Supplies the play speed of the animation.
-     * 1f means normal speed, while 0.5f denotes half speed and 2.0f denotes 2x speed.
-     *
-     * @return Play speed of the animation.
-     */
-    public float getSpeed()
-    {
-        return speed;
-    }
-
-    /**
-     * Changes the animation play speed. 1.0f is 1x speed.
-     *
-     * @param speed Play speed of the animation.
-     */
-    public void setSpeed(float speed)
-    {
-        this.speed = speed;
+        return new Sprite(getBitmap().getFlipped(true, false));
     }
 
     /**
@@ -357,7 +145,7 @@ public class Animation
      */
     public boolean isLooping()
     {
-        return looping;
+        return (getClip().getMode() & AnimationClip.LOOP) != 0;
     }
 
     /**
@@ -367,7 +155,7 @@ public class Animation
      */
     public void setLooping(boolean looping)
     {
-        this.looping = looping;
+        setMode(AnimationClip.LOOP, looping);
     }
 
     /**
@@ -377,7 +165,7 @@ public class Animation
      */
     public boolean isReverseMode()
     {
-        return isReverseMode;
+        return (getClip().getMode() & AnimationClip.REVERSE) != 0;
     }
 
     /**
@@ -387,7 +175,7 @@ public class Animation
      */
     public void setReverseMode(boolean reverseMode)
     {
-        this.isReverseMode = reverseMode;
+        setMode(AnimationClip.REVERSE, reverseMode);
     }
 
     /**
@@ -399,7 +187,7 @@ public class Animation
      */
     public boolean isPingpongMode()
     {
-        return isPingPongMode;
+        return (getClip().getMode() & AnimationClip.PING_PONG) != 0;
     }
 
     /**
@@ -409,60 +197,27 @@ public class Animation
      */
     public void setPingpongMode(boolean pingpongMode)
     {
-        this.isPingPongMode = pingpongMode;
+        setMode(AnimationClip.PING_PONG, pingpongMode);
     }
 
     /**
-     * Begin playing action.
-     */
-    public void start()
-    {
-        if (!isStarted)
-        {
-            restart();
-        }
-    }
-
-    /**
-     * Resets action timer to current time and frame to 0.
-     * Plays the action again if stopped.
-     */
-    public void restart()
-    {
-        frame = 0;
-        lastUpdate = System.currentTimeMillis();
-        isStarted = true;
-    }
-
-    /**
-     * Stops playing action.
-     */
-    public void stop()
-    {
-        if (isStarted)
-        {
-            lastUpdate = System.currentTimeMillis();
-        }
-    }
-
-    /**
-     * Supplies the play state of the animation.
-     *
-     * @return Play state of the animation.
+     * Switches to a clip with a play mode turned on or off.
      */
-    public boolean hasStopped()
+    private void setMode(int mode, boolean enabled)
     {
-        return !isStarted;
+        int current = getClip().getMode();
+        setClip(getClip().withMode(enabled ? current | mode : current & ~mode));
     }
 
     /**
      * Method used to scale each frame of the animation.
+     * The scaled frames are copies; other animations sharing the clip are untouched.
      *
      * @param scale Scaling ratio.
      */
     public void setScale(float scale)
     {
-        for (Frame f : frames) f.sprite.bitmap = f.sprite.bitmap.getScaled(scale);
+        setClip(getClip().getScaled(scale));
     }
 
     /**
@@ -470,7 +225,7 @@ public class Animation
      */
     public String getName()
     {
-        return name;
+        return getClip().getName();
     }
 
-}
\ No newline at end of file
+}
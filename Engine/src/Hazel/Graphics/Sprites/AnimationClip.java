@@ -0,0 +1,373 @@
+package Hazel.Graphics.Sprites;
+
+import java.util.Arrays;
+
+/**
+ * An animation clip is the immutable, shareable part of an animation: its sprites, the
+ * duration of each frame and the play mode.
+ * <br>
+ * Any number of objects can play the same clip at once, each keeping only its own position
+ * in time, in an {@code AnimationPlayer}, an {@code Animation} or a slot of an
+ * {@code AnimationPool}. The clip precomputes the time at which each frame ends and a table
+ * mapping every slice of the timeline to its frame, so that finding the frame at any point
+ * in time is a single array read.
+ */
+public final class AnimationClip
+{
+    public static final int ONCE = 0x0; //Plays once from the first to the last frame, then stops
+    public static final int LOOP = 0x1; //Starts over from the beginning once completed
+    public static final int REVERSE = 0x2; //Plays from the last frame to the first
+    public static final int PING_PONG = 0x4; //Plays forward, then backward, over and over
+
+    /**
+     * Largest number of slices in the timeline table (longer timelines use a binary search)
+     */
+    private static final int MAX_SLOTS = 4096;
+
+    /**
+     * The name of the clip
+     */
+    private final String name;
+
+    /**
+     * Sprite of each frame, in order
+     */
+    private final Sprite[] sprites;
+
+    /**
+     * Duration of each frame (in milliseconds)
+     */
+    private final int[] durations;
+
+    /**
+     * Time at which each frame ends, from the start of the clip (in milliseconds)
+     */
+    private final long[] ends;
+
+    /**
+     * Frame shown during each slice of the timeline (null if the timeline is too long for a table)
+     */
+    private final int[] slots;
+
+    /**
+     * Length of a slice of the timeline, the greatest common divisor of the frame durations (in milliseconds)
+     */
+    private final long slotLength;
+
+    /**
+     * Combination of <code>LOOP</code>, <code>REVERSE</code> and <code>PING_PONG</code>
+     */
+    private final int mode;
+
+    /**
+     * Mirroring and rotation applied to every frame when drawn (see <code>Context.FLIP_HORIZONTAL</code> etc.)
+     */
+    private final int flags;
+
+    /**
+     * Creates a clip, assigning each frame with a delay time.
+     *
+     * @param name     The name of the clip.
+     * @param sprites  Series of frames to be played in order.
+     * @param duration Duration in seconds for each frame; must be the same size as the number of frames.
+     * @param mode     Combination of <code>LOOP</code>, <code>REVERSE</code> and <code>PING_PONG</code> (or <code>ONCE</code>).
+     */
+    public AnimationClip(String name, Sprite[] sprites, int[] duration, int mode)
+    {
+        this(name, sprites.clone(), toMilliseconds(sprites.length, duration), mode, 0);
+    }
+
+    /**
+     * Creates a clip, assigning all frames with a single delay time.
+     *
+     * @param name     The name of the clip.
+     * @param sprites  Series of frames to be played in order.
+     * @param duration Duration in seconds for each frame.
+     * @param mode     Combination of <code>LOOP</code>, <code>REVERSE</code> and <code>PING_PONG</code> (or <code>ONCE</code>).
+     */
+    public AnimationClip(String name, Sprite[] sprites, int duration, int mode)
+    {
+        this(name, sprites.clone(), filled(sprites.length, duration * 1000), mode, 0);
+    }
+
+    /**
+     * Creates a clip from arrays it takes ownership of, and builds its timeline.
+     */
+    private AnimationClip(String name, Sprite[] sprites, int[] durations, int mode, int flags)
+    {
+        if ((mode & ~(LOOP | REVERSE | PING_PONG)) != 0)
+            throw new IllegalArgumentException("Unknown animation mode! mode: " + mode);
+
+        this.name = name;
+        this.sprites = sprites;
+        this.durations = durations;
+        this.mode = mode;
+        this.flags = flags;
+
+        ends = new long[durations.length];
+        long end = 0, gcd = 0;
+        for (int i = 0; i < durations.length; i++)
+        {
+            if (durations[i] < 0)
+                throw new IllegalArgumentException("Frame duration cannot be negative! duration: " + durations[i]);
+
+            end += durations[i];
+            ends[i] = end;
+            gcd = gcd(gcd, durations[i]);
+        }
+
+        slotLength = gcd;
+        if (gcd > 0 && end / gcd <= MAX_SLOTS)
+        {
+            slots = new int[(int) (end / gcd)];
+            for (int i = 0, slot = 0; i < durations.length; i++)
+            {
+                for (; slot < ends[i] / gcd; slot++) slots[slot] = i;
+            }
+        } else slots = null;
+    }
+
+    private static int[] toMilliseconds(int frames, int[] duration)
+    {
+        if (frames != duration.length)
+            throw new IllegalArgumentException("Animation frames and delay time length mismatch!");
+
+        int[] durations = new int[frames];
+        for (int i = 0; i < frames; i++) durations[i] = duration[i] * 1000;
+        return durations;
+    }
+
+    private static int[] filled(int frames, int duration)
+    {
+        int[] durations = new int[frames];
+        Arrays.fill(durations, duration);
+        return durations;
+    }
+
+    private static long gcd(long a, long b)
+    {
+        while (b != 0)
+        {
+            long t = a % b;
+            a = b;
+            b = t;
+        }
+        return a;
+    }
+
+    /**
+     * Determines the frame shown at a point of the clip's timeline, taking the play mode into account.
+     *
+     * @param time Time elapsed since the clip started, in milliseconds.
+     * @return The index of the frame (-1 if the clip has no frames).
+     */
+    public int frameAt(double time)
+    {
+        int last = sprites.length - 1;
+        long length = getLength();
+        if (length <= 0) return last;
+
+        boolean reverse = (mode & REVERSE) != 0;
+        if ((mode & PING_PONG) != 0)
+        {
+            //One forward and one backward pass make up a cycle
+            double t = time % (2 * length);
+            boolean backwards = t >= length;
+            if (reverse) backwards = !backwards;
+            if (t >= length) t -= length;
+            return backwards ? last - indexAt(t, true) : indexAt(t, false);
+        }
+
+        double t;
+        if ((mode & LOOP) != 0) t = time % length;
+        else if (time >= length) return reverse ? 0 : last;
+        else t = time;
+
+        return reverse ? last - indexAt(t, true) : indexAt(t, false);
+    }
+
+    /**
+     * Finds the frame covering a time within one pass of the clip.
+     *
+     * @param t        Time from the start of the pass, between 0 and the length of the clip.
+     * @param reversed Whether the pass plays the frames from last to first.
+     * @return The index of the frame, counted in play order of the pass.
+     */
+    private int indexAt(double t, boolean reversed)
+    {
+        //A backward pass over the frames is a forward pass over the mirrored timeline
+        if (reversed) t = getLength() - t;
+
+        int index;
+        if (slots != null)
+        {
+            int slot = (int) (t / slotLength);
+            if (reversed && slot * slotLength == t) slot--;
+            index = slots[Math.max(0, Math.min(slots.length - 1, slot))];
+        } else
+        {
+            //First frame ending after the time (or at it, when coming from the end)
+            int low = 0, high = ends.length - 1;
+            while (low < high)
+            {
+                int middle = (low + high) >>> 1;
+                if (ends[middle] > t || (reversed && ends[middle] == t)) high = middle;
+                else low = middle + 1;
+            }
+            index = low;
+        }
+
+        return reversed ? sprites.length - 1 - index : index;
+    }
+
+    /**
+     * @param time Time elapsed since the clip started, in milliseconds.
+     * @return Whether a clip that does not repeat has played to its end.
+     */
+    public boolean isFinished(double time)
+    {
+        return (mode & (LOOP | PING_PONG)) == 0 && time >= getLength();
+    }
+
+    /**
+     * @param frame The index of the frame.
+     * @return Time at which the frame starts to be shown, in milliseconds (taking the play direction into account).
+     */
+    public long startOf(int frame)
+    {
+        if (frame < 0 || frame >= sprites.length)
+            throw new IndexOutOfBoundsException("Frame index out of range! frame: " + frame);
+
+        return (mode & REVERSE) != 0 ? getLength() - ends[frame] : (frame > 0 ? ends[frame - 1] : 0);
+    }
+
+    /**
+     * Supplies a clip sharing the frames of this one, played in another mode.
+     *
+     * @param mode Combination of <code>LOOP</code>, <code>REVERSE</code> and <code>PING_PONG</code> (or <code>ONCE</code>).
+     * @return The clip in the given mode.
+     */
+    public AnimationClip withMode(int mode)
+    {
+        return mode == this.mode ? this : new AnimationClip(name, sprites, durations, mode, flags);
+    }
+
+    /**
+     * Supplies a clip with a frame added to the end of this one.
+     *
+     * @param sprite   Sprite to be drawn.
+     * @param duration Duration in seconds of the frame.
+     * @return The longer clip.
+     */
+    public AnimationClip withFrame(Sprite sprite, int duration)
+    {
+        Sprite[] sprites = Arrays.copyOf(this.sprites, this.sprites.length + 1);
+        int[] durations = Arrays.copyOf(this.durations, this.durations.length + 1);
+        sprites[sprites.length - 1] = sprite;
+        durations[durations.length - 1] = duration * 1000;
+        return new AnimationClip(name, sprites, durations, mode, flags);
+    }
+
+    /**
+     * Supplies a mirrored version of this clip, with its frames' order reversed if specified.
+     * The mirrored clip shares the sprites of this one and is only drawn flipped.
+     *
+     * @param name       The name of the mirrored clip.
+     * @param horizontal Mirror all frames left to right.
+     * @param vertical   Mirror all frames upside down.
+     * @param isReversed Weather or not the frame order should be reversed.
+     * @return The mirrored clip.
+     */
+    public AnimationClip getMirror(String name, boolean horizontal, boolean vertical, boolean isReversed)
+    {
+        int flags = this.flags;
+        if (horizontal) flags ^= Hazel.Graphics.Context.FLIP_HORIZONTAL;
+        if (vertical) flags ^= Hazel.Graphics.Context.FLIP_VERTICAL;
+
+        Sprite[] sprites = this.sprites;
+        int[] durations = this.durations;
+        if (isReversed)
+        {
+            sprites = new Sprite[this.sprites.length];
+            durations = new int[this.durations.length];
+            for (int i = 0; i < sprites.length; i++)
+            {
+                sprites[i] = this.sprites[sprites.length - 1 - i];
+                durations[i] = this.durations[sprites.length - 1 - i];
+            }
+        }
+
+        return new AnimationClip(name, sprites, durations, mode, flags);
+    }
+
+    /**
+     * Supplies a copy of this clip with every frame scaled. The sprites of this clip are untouched.
+     *
+     * @param scale Scaling ratio.
+     * @return The scaled clip.
+     */
+    public AnimationClip getScaled(float scale)
+    {
+        Sprite[] sprites = new Sprite[this.sprites.length];
+        for (int i = 0; i < sprites.length; i++) sprites[i] = new Sprite(this.sprites[i].bitmap.getScaled(scale));
+        return new AnimationClip(name, sprites, durations, mode, flags);
+    }
+
+    /**
+     * @return The name of the clip.
+     */
+    public String getName()
+    {
+        return name;
+    }
+
+    /**
+     * @return Number of frames in the clip.
+     */
+    public int getFrameCount()
+    {
+        return sprites.length;
+    }
+
+    /**
+     * @param frame The index of the frame.
+     * @return The sprite of the frame.
+     */
+    public Sprite getSprite(int frame)
+    {
+        return sprites[frame];
+    }
+
+    /**
+     * @param frame The index of the frame.
+     * @return The duration of the frame, in milliseconds.
+     */
+    public int getDuration(int frame)
+    {
+        return durations[frame];
+    }
+
+    /**
+     * @return Length of one pass over all frames, in milliseconds.
+     */
+    public long getLength()
+    {
+        return ends.length > 0 ? ends[ends.length - 1] : 0;
+    }
+
+    /**
+     * @return Combination of <code>LOOP</code>, <code>REVERSE</code> and <code>PING_PONG</code> (or <code>ONCE</code>).
+     */
+    public int getMode()
+    {
+        return mode;
+    }
+
+    /**
+     * @return The mirroring and rotation applied to every frame when drawn.
+     */
+    public int getFlags()
+    {
+        return flags;
+    }
+}
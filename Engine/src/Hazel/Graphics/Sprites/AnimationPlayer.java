@@ -0,0 +1,294 @@
+package Hazel.Graphics.Sprites;
+
+import Hazel.GameEngine.Hazel;
+import Hazel.Graphics.Bitmap;
+import Hazel.Graphics.Color;
+import Hazel.Graphics.Context;
+
+/**
+ * An animation player is the per-object playback state of an {@code AnimationClip}: where it
+ * is in the clip's timeline, how fast it plays and how it is drawn.
+ * <br>
+ * The frames, durations and play mode belong to the clip and are shared by every player of
+ * it, so a player holds only a handful of fields. Playback follows a timeline advanced by the
+ * engine's time step rather than the wall clock. For large numbers of objects playing clips,
+ * {@code AnimationPool} advances all of them in a single pass instead.
+ */
+public class AnimationPlayer
+{
+    /**
+     * The clip being played
+     */
+    private AnimationClip clip;
+
+    /**
+     * Time elapsed since the clip started, scaled by the speed (in milliseconds)
+     */
+    private double time;
+
+    /**
+     * Relative speed to play the clip in (original time * speed factor)
+     */
+    private float speed = 1f;
+
+    /**
+     * Current frame being drawn
+     */
+    private int frame;
+
+    /**
+     * Mirroring and rotation applied on top of the clip's own (see <code>Context.FLIP_HORIZONTAL</code> etc.)
+     */
+    private int flags = 0;
+
+    /**
+     * Is the clip playing?
+     */
+    private boolean isStarted = false;
+
+    /**
+     * Internal logic switch to start playing on first update
+     */
+    private boolean firstUpdate = true;
+
+    /**
+     * Creates a player of a clip, which starts playing on its first update.
+     *
+     * @param clip The clip to be played.
+     */
+    public AnimationPlayer(AnimationClip clip)
+    {
+        this.clip = clip;
+        frame = clip.frameAt(0);
+    }
+
+    /**
+     * Advances the clip by one time step of the engine.
+     */
+    public void update()
+    {
+        update(Hazel.getTimestep());
+    }
+
+    /**
+     * Advances the clip by a given time.
+     *
+     * @param delta Time elapsed since the previous update, in seconds (usually the engine's time step).
+     */
+    public void update(double delta)
+    {
+        if (firstUpdate) start();
+
+        if (!isStarted) return;
+
+        time += delta * 1000 * speed;
+        frame = clip.frameAt(time);
+
+        if (clip.isFinished(time)) isStarted = false;
+    }
+
+    /**
+     * Renders the current frame on a given context.
+     *
+     * @param ctx Render context to be drawn on.
+     * @param x   x-coordinate on screen.
+     * @param y   y-coordinate on screen.
+     */
+    public void render(Context ctx, int x, int y)
+    {
+        render(ctx, x, y, 1.0f);
+    }
+
+    /**
+     * Renders the current frame on a given context with specified transparency.
+     *
+     * @param ctx   Render context to be drawn on.
+     * @param x     x-coordinate on screen.
+     * @param y     y-coordinate on screen.
+     * @param alpha Alpha transparency of the frame.
+     */
+    public void render(Context ctx, int x, int y, float alpha)
+    {
+        render(ctx, x, y, alpha, Color.toPixelInt(0, 0, 0, 0));
+    }
+
+    /**
+     * Renders the current frame on a given context with specified transparency and tint color.
+     *
+     * @param ctx   Render context to be drawn on.
+     * @param x     x-coordinate on screen.
+     * @param y     y-coordinate on screen.
+     * @param alpha Alpha transparency of the frame.
+     * @param tint  Tint color of the frame.
+     */
+    public void render(Context ctx, int x, int y, float alpha, int tint)
+    {
+        ctx.renderBitmap(clip.getSprite(frame).bitmap, x, y, alpha, 1.0f, tint, clip.getFlags() ^ flags);
+    }
+
+    /**
+     * Moves the player to the start of a frame.
+     *
+     * @param frame The index of the frame.
+     */
+    public void seek(int frame)
+    {
+        setTime(clip.startOf(frame) / 1000d);
+    }
+
+    /**
+     * Moves the player to a point in time.
+     *
+     * @param seconds Time elapsed since the clip started, in seconds (at normal speed).
+     */
+    public void setTime(double seconds)
+    {
+        time = Math.max(0, seconds * 1000);
+        frame = clip.frameAt(time);
+    }
+
+    /**
+     * @return Time elapsed since the clip started, in seconds (at normal speed).
+     */
+    public double getTime()
+    {
+        return time / 1000;
+    }
+
+    /**
+     * Switches to another clip, keeping the position in time (e.g. to turn a walking character around mid-step).
+     *
+     * @param clip The clip to be played.
+     */
+    public void setClip(AnimationClip clip)
+    {
+        this.clip = clip;
+        frame = clip.frameAt(time);
+    }
+
+    /**
+     * @return The clip being played.
+     */
+    public AnimationClip getClip()
+    {
+        return clip;
+    }
+
+    /**
+     * @return The index of the current frame (-1 if the clip has no frames).
+     */
+    public int getFrameIndex()
+    {
+        return frame;
+    }
+
+    /**
+     * @return The sprite of the current frame.
+     */
+    public Sprite getSprite()
+    {
+        return clip.getSprite(frame);
+    }
+
+    /**
+     * @return The bitmap of the current frame.
+     */
+    public Bitmap getBitmap()
+    {
+        return clip.getSprite(frame).bitmap;
+    }
+
+    /**
+     * Flips all frames on one or more axis when drawn. The frames themselves are untouched,
+     * so flipping allocates nothing and flipping twice restores the original.
+     *
+     * @param horizontal Mirror all frames left to right.
+     * @param vertical   Mirror all frames upside down.
+     */
+    public void flipFrames(boolean horizontal, boolean vertical)
+    {
+        if (horizontal) flags ^= Context.FLIP_HORIZONTAL;
+        if (vertical) flags ^= Context.FLIP_VERTICAL;
+    }
+
+    /**
+     * Sets the mirroring and rotation applied to every frame when drawn, on top of the clip's own.
+     *
+     * @param flags Combination of <code>Context.FLIP_HORIZONTAL</code>, <code>Context.FLIP_VERTICAL</code>
+     *              and <code>Context.ROTATE_90</code>.
+     */
+    public void setFlags(int flags)
+    {
+        this.flags = flags;
+    }
+
+    /**
+     * @return The mirroring and rotation applied to every frame when drawn, on top of the clip's own.
+     */
+    public int getFlags()
+    {
+        return flags;
+    }
+
+    /**
+     * Supplies the play speed of the player.
+     * 1f means normal speed, while 0.5f denotes half speed and 2.0f denotes 2x speed.
+     *
+     * @return Play speed of the player.
+     */
+    public float getSpeed()
+    {
+        return speed;
+    }
+
+    /**
+     * Changes the play speed. 1.0f is 1x speed.
+     *
+     * @param speed Play speed of the player.
+     */
+    public void setSpeed(float speed)
+    {
+        this.speed = speed;
+    }
+
+    /**
+     * Begin playing the clip.
+     */
+    public void start()
+    {
+        if (!isStarted)
+        {
+            restart();
+        }
+    }
+
+    /**
+     * Rewinds the clip to its start.
+     * Plays the clip again if stopped.
+     */
+    public void restart()
+    {
+        time = 0;
+        frame = clip.frameAt(0);
+        isStarted = true;
+        firstUpdate = false;
+    }
+
+    /**
+     * Stops playing the clip, keeping the current frame.
+     */
+    public void stop()
+    {
+        isStarted = false;
+    }
+
+    /**
+     * Supplies the play state of the player.
+     *
+     * @return Play state of the player.
+     */
+    public boolean hasStopped()
+    {
+        return !isStarted;
+    }
+}
@@ -0,0 +1,352 @@
+package Hazel.Graphics.Sprites;
+
+import java.util.Arrays;
+
+import Hazel.GameEngine.Hazel;
+import Hazel.Graphics.Color;
+import Hazel.Graphics.Context;
+
+/**
+ * An animation pool plays many clips at once, keeping the playback state of every player in
+ * primitive arrays instead of one object per player.
+ * <br>
+ * Each player is identified by a handle returned by {@code add()}, which stays valid until
+ * the player is removed; handles of removed players are reused. A single call to
+ * {@code update()} advances every player in one pass over the arrays, so a level full of
+ * animated objects costs neither an object nor a virtual call per animation each tick:
+ * <pre>
+ *     int handle = pool.add(walk);
+ *     ...
+ *     pool.update(delta);
+ *     pool.render(handle, ctx, x, y);
+ * </pre>
+ */
+public class AnimationPool
+{
+    private AnimationClip[] clips; //The clip of each player (null if the handle is free)
+    private double[] times; //Time elapsed since each clip started, scaled by the speed (in milliseconds)
+    private float[] speeds; //Relative play speed of each player
+    private int[] frames; //Current frame of each player
+    private int[] flags; //Mirroring and rotation applied on top of each clip's own
+    private boolean[] playing; //Whether each player is advanced by update()
+
+    private int size; //Number of handles ever used (players and free handles)
+    private int[] free = new int[0]; //Handles of removed players, to be reused
+    private int freeCount; //Number of free handles
+    private int count; //Number of players
+
+    /**
+     * Creates an empty pool.
+     */
+    public AnimationPool()
+    {
+        this(16);
+    }
+
+    /**
+     * Creates an empty pool with room for a number of players before growing.
+     *
+     * @param capacity The initial number of players.
+     */
+    public AnimationPool(int capacity)
+    {
+        if (capacity < 1) throw new IllegalArgumentException("Capacity must be positive! capacity: " + capacity);
+
+        clips = new AnimationClip[capacity];
+        times = new double[capacity];
+        speeds = new float[capacity];
+        frames = new int[capacity];
+        flags = new int[capacity];
+        playing = new boolean[capacity];
+    }
+
+    /**
+     * Adds a player of a clip, playing from its start.
+     *
+     * @param clip The clip to be played.
+     * @return The handle of the player.
+     */
+    public int add(AnimationClip clip)
+    {
+        if (clip == null) throw new IllegalArgumentException("Clip cannot be null!");
+
+        int handle;
+        if (freeCount > 0) handle = free[--freeCount];
+        else
+        {
+            if (size == clips.length) grow(size * 2);
+            handle = size++;
+        }
+
+        clips[handle] = clip;
+        times[handle] = 0;
+        speeds[handle] = 1f;
+        frames[handle] = clip.frameAt(0);
+        flags[handle] = 0;
+        playing[handle] = true;
+        count++;
+        return handle;
+    }
+
+    /**
+     * Removes a player, freeing its handle for reuse.
+     *
+     * @param handle The handle of the player.
+     */
+    public void remove(int handle)
+    {
+        check(handle);
+
+        clips[handle] = null;
+        playing[handle] = false;
+        if (freeCount == free.length) free = Arrays.copyOf(free, Math.max(16, freeCount * 2));
+        free[freeCount++] = handle;
+        count--;
+    }
+
+    /**
+     * Removes every player.
+     */
+    public void clear()
+    {
+        Arrays.fill(clips, 0, size, null);
+        Arrays.fill(playing, 0, size, false);
+        size = 0;
+        freeCount = 0;
+        count = 0;
+    }
+
+    private void grow(int capacity)
+    {
+        clips = Arrays.copyOf(clips, capacity);
+        times = Arrays.copyOf(times, capacity);
+        speeds = Arrays.copyOf(speeds, capacity);
+        frames = Arrays.copyOf(frames, capacity);
+        flags = Arrays.copyOf(flags, capacity);
+        playing = Arrays.copyOf(playing, capacity);
+    }
+
+    private void check(int handle)
+    {
+        if (handle < 0 || handle >= size || clips[handle] == null)
+            throw new IllegalArgumentException("No animation player with handle " + handle + "!");
+    }
+
+    /**
+     * Advances every playing player by one time step of the engine.
+     */
+    public void update()
+    {
+        update(Hazel.getTimestep());
+    }
+
+    /**
+     * Advances every playing player by a given time.
+     *
+     * @param delta Time elapsed since the previous update, in seconds (usually the engine's time step).
+     */
+    public void update(double delta)
+    {
+        double step = delta * 1000;
+        for (int i = 0; i < size; i++)
+        {
+            if (!playing[i]) continue;
+
+            AnimationClip clip = clips[i];
+            double time = times[i] + step * speeds[i];
+            times[i] = time;
+            frames[i] = clip.frameAt(time);
+            if (clip.isFinished(time)) playing[i] = false;
+        }
+    }
+
+    /**
+     * Renders the current frame of a player on a given context.
+     *
+     * @param handle The handle of the player.
+     * @param ctx    Render context to be drawn on.
+     * @param x      x-coordinate on screen.
+     * @param y      y-coordinate on screen.
+     */
+    public void render(int handle, Context ctx, int x, int y)
+    {
+        render(handle, ctx, x, y, 1.0f, Color.toPixelInt(0, 0, 0, 0));
+    }
+
+    /**
+     * Renders the current frame of a player on a given context with specified transparency and tint color.
+     *
+     * @param handle The handle of the player.
+     * @param ctx    Render context to be drawn on.
+     * @param x      x-coordinate on screen.
+     * @param y      y-coordinate on screen.
+     * @param alpha  Alpha transparency of the frame.
+     * @param tint   Tint color of the frame.
+     */
+    public void render(int handle, Context ctx, int x, int y, float alpha, int tint)
+    {
+        AnimationClip clip = clips[handle];
+        ctx.renderBitmap(clip.getSprite(frames[handle]).bitmap, x, y, alpha, 1.0f, tint, clip.getFlags() ^ flags[handle]);
+    }
+
+    /**
+     * Moves a player to the start of a frame, playing it again if it had stopped.
+     *
+     * @param handle The handle of the player.
+     * @param frame  The index of the frame.
+     */
+    public void seek(int handle, int frame)
+    {
+        check(handle);
+        setTime(handle, clips[handle].startOf(frame) / 1000d);
+    }
+
+    /**
+     * Moves a player to a point in time, playing it again if it had stopped.
+     *
+     * @param handle  The handle of the player.
+     * @param seconds Time elapsed since the clip started, in seconds (at normal speed).
+     */
+    public void setTime(int handle, double seconds)
+    {
+        check(handle);
+        times[handle] = Math.max(0, seconds * 1000);
+        frames[handle] = clips[handle].frameAt(times[handle]);
+        playing[handle] = !clips[handle].isFinished(times[handle]);
+    }
+
+    /**
+     * @param handle The handle of the player.
+     * @return Time elapsed since the clip started, in seconds (at normal speed).
+     */
+    public double getTime(int handle)
+    {
+        return times[handle] / 1000;
+    }
+
+    /**
+     * Switches a player to another clip, keeping its position in time.
+     *
+     * @param handle The handle of the player.
+     * @param clip   The clip to be played.
+     */
+    public void setClip(int handle, AnimationClip clip)
+    {
+        check(handle);
+        if (clip == null) throw new IllegalArgumentException("Clip cannot be null!");
+
+        clips[handle] = clip;
+        frames[handle] = clip.frameAt(times[handle]);
+    }
+
+    /**
+     * @param handle The handle of the player.
+     * @return The clip being played (null if the handle is free).
+     */
+    public AnimationClip getClip(int handle)
+    {
+        return clips[handle];
+    }
+
+    /**
+     * @param handle The handle of the player.
+     * @return The index of the current frame of the player.
+     */
+    public int getFrameIndex(int handle)
+    {
+        return frames[handle];
+    }
+
+    /**
+     * @param handle The handle of the player.
+     * @return The sprite of the current frame of the player.
+     */
+    public Sprite getSprite(int handle)
+    {
+        return clips[handle].getSprite(frames[handle]);
+    }
+
+    /**
+     * Changes the play speed of a player. 1.0f is 1x speed.
+     *
+     * @param handle The handle of the player.
+     * @param speed  Play speed of the player.
+     */
+    public void setSpeed(int handle, float speed)
+    {
+        check(handle);
+        speeds[handle] = speed;
+    }
+
+    /**
+     * @param handle The handle of the player.
+     * @return Play speed of the player.
+     */
+    public float getSpeed(int handle)
+    {
+        return speeds[handle];
+    }
+
+    /**
+     * Sets the mirroring and rotation applied to the frames of a player when drawn, on top of the clip's own.
+     *
+     * @param handle The handle of the player.
+     * @param flags  Combination of <code>Context.FLIP_HORIZONTAL</code>, <code>Context.FLIP_VERTICAL</code>
+     *               and <code>Context.ROTATE_90</code>.
+     */
+    public void setFlags(int handle, int flags)
+    {
+        check(handle);
+        this.flags[handle] = flags;
+    }
+
+    /**
+     * @param handle The handle of the player.
+     * @return The mirroring and rotation applied to the frames of the player when drawn.
+     */
+    public int getFlags(int handle)
+    {
+        return flags[handle];
+    }
+
+    /**
+     * Rewinds a player to the start of its clip and plays it.
+     *
+     * @param handle The handle of the player.
+     */
+    public void restart(int handle)
+    {
+        check(handle);
+        times[handle] = 0;
+        frames[handle] = clips[handle].frameAt(0);
+        playing[handle] = true;
+    }
+
+    /**
+     * Stops a player, keeping its current frame.
+     *
+     * @param handle The handle of the player.
+     */
+    public void stop(int handle)
+    {
+        check(handle);
+        playing[handle] = false;
+    }
+
+    /**
+     * @param handle The handle of the player.
+     * @return Whether the player is advanced by <code>update()</code>.
+     */
+    public boolean isPlaying(int handle)
+    {
+        return playing[handle];
+    }
+
+    /**
+     * @return Number of players in the pool.
+     */
+    public int size()
+    {
+        return count;
+    }
+}
@@ -15,7 +15,7 @@ public class Sprite extends Bitmap
 {
     public Bitmap bitmap; //The bitmap of a sprite
 
-    private BufferedImage image; //The sprite's image
+    private BufferedImage image; //The sprite's image (created on demand for sprites made from a bitmap)
     private int size; //The size of the sprite
     private float scale; //Scaling ratio
     private int width; //The width of the sprite
@@ -54,21 +54,21 @@ public class Sprite extends Bitmap
 
     /**
      * The constructor used to define a sprite given a Bitmap.
+     * The sprite shares the pixels of the bitmap; its BufferedImage is only created when asked for.
      *
      * @param bitmap The bitmap of a sprite.
      * @param initializeBounds Weather or not to create a pixel-perfect bounding box within the sprite.
      */
     public Sprite(Bitmap bitmap, boolean initializeBounds)
     {
-        super(bitmap);
+        super(bitmap, 0, 0, bitmap.pixelWidth(), bitmap.pixelHeight());
 
         this.bitmap = bitmap;
-        this.image = bitmap.getImage();
 
-        width = this.image.getWidth();
-        height = this.image.getHeight();
+        width = bitmap.pixelWidth();
+        height = bitmap.pixelHeight();
         if (width == height) size = width;
-        if (initializeBounds) setBounds(image);
+        if (initializeBounds) setBounds(getImage());
         setScale(1.0f);
     }
 
@@ -113,6 +113,7 @@ public class Sprite extends Bitmap
 
     /**
      * The constructor used to define a sprite given a Bitmap.
+     * The sprite shares the pixels of the bitmap.
      *
      * @param bitmap The bitmap of a sprite.
      * @param scale  Scaling ratio (1f is 1:1 ratio).
@@ -120,17 +121,16 @@ public class Sprite extends Bitmap
      */
     public Sprite(Bitmap bitmap, float scale, boolean initializeBounds)
     {
-        super(bitmap);
+        super(bitmap, 0, 0, bitmap.pixelWidth(), bitmap.pixelHeight());
 
         this.bitmap = bitmap;
-        this.image = bitmap.getImage();
 
-        width = this.image.getWidth();
-        height = this.image.getHeight();
+        width = bitmap.pixelWidth();
+        height = bitmap.pixelHeight();
         if (width == height) size = width;
         this.scale = scale;
 
-        if (initializeBounds) setBounds(image);
+        if (initializeBounds) setBounds(getImage());
     }
 
     /**
@@ -268,6 +268,8 @@ public class Sprite extends Bitmap
      */
     public BufferedImage getImage()
     {
+        if (image == null && bitmap != null) image = bitmap.getImage();
+
         return image;
     }
 
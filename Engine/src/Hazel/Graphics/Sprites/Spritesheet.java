@@ -78,23 +78,21 @@ public class Spritesheet extends Bitmap
         this.startOffset = startOffset;
         this.initializeBounds = initializeBounds;
 
-        Bitmap bmp = Image.getAsBitmap(image);
         int xOffset = startOffset.x;
         int yOffset = startOffset.y;
         int width = cellSize.x;
         int height = cellSize.y;
-        int scaledWidth = image.getWidth() / width;
-        int scaledHeight = image.getHeight() / height;
-        sprites = new Sprite[scaledWidth][scaledHeight];
-        for (int x = 0; x < scaledWidth; x++)
+        int columns = (image.getWidth() - xOffset + vertGap) / (width + vertGap);
+        int rows = (image.getHeight() - yOffset + horizGap) / (height + horizGap);
+        sprites = new Sprite[columns][rows];
+        for (int x = 0; x < columns; x++)
         {
-            for (int y = 0; y < scaledHeight; y++)
+            for (int y = 0; y < rows; y++)
             {
-                //Map cells into a grid for future reference
-                int[] data = bmp.getData(xOffset + x * (width + vertGap),
-                        yOffset + y * (height + horizGap), (x + 1) * width, (y + 1) * height);
+                //Map cells into a grid for future reference, as views into the sheet's pixels
+                Bitmap cell = new Bitmap(this, xOffset + x * (width + vertGap), yOffset + y * (height + horizGap), width, height);
 
-                sprites[x][y] = new Sprite(new Bitmap(data, width, height), initializeBounds);
+                sprites[x][y] = new Sprite(cell, initializeBounds);
             }
         }
     }
@@ -0,0 +1,508 @@
+package Hazel.Graphics.Sprites;
+
+import java.awt.image.BufferedImage;
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import javax.imageio.ImageIO;
+
+import Hazel.Graphics.Bitmap;
+import Hazel.System.Asset.Asset;
+import Hazel.System.Asset.AssetManager;
+import Hazel.System.Asset.Type.Images.Image;
+import Hazel.System.Util;
+
+/**
+ * {@code TextureAtlas} packs many small images into a few large pages.
+ * <br>
+ * Images are packed with a skyline bottom-left heuristic, tallest first, and every packed
+ * image is handed back as a {@code Sprite} that is a view into its page. Sprites drawn
+ * together therefore read from the same few arrays instead of one array per image.
+ * <p>
+ * When a cache directory is given, the packed pages are written there as PNG files along
+ * with an index, keyed by a hash of the names and pixels of all inputs. Later builds with
+ * the same inputs load the pages instead of packing again. Once built, the source image
+ * assets are no longer needed and may be flushed.
+ */
+public class TextureAtlas
+{
+    /**
+     * The name of the class
+     */
+    private static final String CLASS_NAME = "textureAtlas";
+
+    /**
+     * Default width and height of a page
+     */
+    public static final int DEFAULT_PAGE_SIZE = 2048;
+
+    /**
+     * Width and height of a page
+     */
+    private final int pageSize;
+
+    /**
+     * Transparent pixels left between packed images
+     */
+    private final int padding;
+
+    /**
+     * Images waiting to be packed, by name
+     */
+    private final Map<String, BufferedImage> inputs = new LinkedHashMap<>();
+
+    /**
+     * Packed pages
+     */
+    private final List<Bitmap> pages = new ArrayList<>();
+
+    /**
+     * Packed sprites, by name
+     */
+    private final Map<String, Sprite> sprites = new HashMap<>();
+
+    /**
+     * Whether the last build was loaded from the disk cache
+     */
+    private boolean fromCache;
+
+    /**
+     * Creates an empty atlas with the default page size and a one pixel padding.
+     */
+    public TextureAtlas()
+    {
+        this(DEFAULT_PAGE_SIZE, 1);
+    }
+
+    /**
+     * Creates an empty atlas.
+     *
+     * @param pageSize Width and height of a page. Larger images get a page of their own.
+     * @param padding  Transparent pixels left between packed images.
+     */
+    public TextureAtlas(int pageSize, int padding)
+    {
+        if (pageSize < 1 || padding < 0)
+            throw new IllegalArgumentException(String.format("Invalid atlas layout! pageSize: %d, padding: %d", pageSize, padding));
+
+        this.pageSize = pageSize;
+        this.padding = padding;
+    }
+
+    /**
+     * Creates an atlas of every loaded image asset in the registrar, keyed by asset name.
+     *
+     * @param cacheDirectory Directory of the disk cache, or null to always pack.
+     * @return The built atlas.
+     */
+    public static TextureAtlas ofRegisteredImages(Path cacheDirectory)
+    {
+        TextureAtlas atlas = new TextureAtlas();
+        for (Asset asset : AssetManager.getAssets(Image.TYPE))
+        {
+            if (asset.isLoaded()) atlas.add(asset.getName(), ((Image) asset).getData());
+        }
+        atlas.build(cacheDirectory);
+        return atlas;
+    }
+
+    /**
+     * Adds a loaded image asset to be packed, keyed by the asset name.
+     *
+     * @param image Loaded image asset.
+     */
+    public void add(Image image)
+    {
+        add(image.getName(), image.getData());
+    }
+
+    /**
+     * Adds an image to be packed.
+     *
+     * @param name  Name the packed sprite is looked up by.
+     * @param image Image to be packed.
+     */
+    public void add(String name, BufferedImage image)
+    {
+        if (inputs.put(name, image) != null)
+            throw new IllegalArgumentException("Image already added to the atlas! name: " + name);
+    }
+
+    /**
+     * Packs every added image into pages, without a disk cache.
+     */
+    public void build()
+    {
+        build(null);
+    }
+
+    /**
+     * Packs every added image into pages. If the cache directory holds a build of the same
+     * inputs, it is loaded instead; otherwise the new build is written to it.
+     *
+     * @param cacheDirectory Directory of the disk cache, or null to always pack.
+     */
+    public void build(Path cacheDirectory)
+    {
+        pages.clear();
+        sprites.clear();
+        fromCache = false;
+
+        String key = cacheDirectory == null ? null : hashInputs();
+        int[][] placements = null;
+
+        if (key != null) placements = readCache(cacheDirectory, key);
+        if (placements != null)
+        {
+            fromCache = true;
+        } else
+        {
+            placements = pack();
+            if (key != null) writeCache(cacheDirectory, key, placements);
+        }
+
+        int i = 0;
+        for (String name : inputs.keySet())
+        {
+            int[] p = placements[i++];
+            sprites.put(name, new Sprite(new Bitmap(pages.get(p[0]), p[1], p[2], p[3], p[4])));
+        }
+        inputs.clear();
+    }
+
+    /**
+     * Places every input on a page and copies its pixels there.
+     *
+     * @return Page, x, y, width and height of each input, in insertion order.
+     */
+    private int[][] pack()
+    {
+        List<BufferedImage> images = new ArrayList<>(inputs.values());
+        int n = images.size();
+        int[][] placements = new int[n][];
+
+        //Tallest first, then widest, packs a skyline with the least waste
+        Integer[] order = new Integer[n];
+        for (int i = 0; i < n; i++) order[i] = i;
+        Arrays.sort(order, (a, b) ->
+        {
+            BufferedImage ia = images.get(a), ib = images.get(b);
+            if (ia.getHeight() != ib.getHeight()) return ib.getHeight() - ia.getHeight();
+            return ib.getWidth() - ia.getWidth();
+        });
+
+        List<Skyline> skylines = new ArrayList<>();
+        List<int[]> pageSizes = new ArrayList<>();
+
+        for (int index : order)
+        {
+            BufferedImage image = images.get(index);
+            int w = image.getWidth(), h = image.getHeight();
+
+            if (w > pageSize || h > pageSize)
+            {
+                //Oversized images get a page of their own
+                placements[index] = new int[]{pageSizes.size(), 0, 0, w, h};
+                skylines.add(null);
+                pageSizes.add(new int[]{w, h});
+                continue;
+            }
+
+            int[] spot = null;
+            int page = -1;
+            while (spot == null && ++page < skylines.size())
+            {
+                if (skylines.get(page) != null) spot = skylines.get(page).insert(w + padding, h + padding);
+            }
+
+            if (spot == null)
+            {
+                //The padding is only kept right of and below each image, so the page is widened by it
+                Skyline skyline = new Skyline(pageSize + padding, pageSize + padding);
+                skylines.add(skyline);
+                pageSizes.add(new int[]{0, 0});
+                spot = skyline.insert(w + padding, h + padding);
+            }
+
+            placements[index] = new int[]{page, spot[0], spot[1], w, h};
+            int[] size = pageSizes.get(page);
+            size[0] = Math.max(size[0], spot[0] + w);
+            size[1] = Math.max(size[1], spot[1] + h);
+        }
+
+        for (int[] size : pageSizes) pages.add(new Bitmap(size[0], size[1]));
+
+        for (int i = 0; i < n; i++)
+        {
+            int[] p = placements[i];
+            Bitmap page = pages.get(p[0]);
+            images.get(i).getRGB(0, 0, p[3], p[4], page.getBackingData(), p[2] * page.getStride() + p[1], page.getStride());
+        }
+
+        return placements;
+    }
+
+    /**
+     * @return A hex digest of the names, sizes and pixels of every input, and of the layout.
+     */
+    private String hashInputs()
+    {
+        long hash = 0xcbf29ce484222325L;
+        hash = mix(hash, pageSize);
+        hash = mix(hash, padding);
+
+        for (Map.Entry<String, BufferedImage> entry : inputs.entrySet())
+        {
+            BufferedImage image = entry.getValue();
+            hash = mix(hash, entry.getKey().hashCode());
+            hash = mix(hash, image.getWidth());
+            hash = mix(hash, image.getHeight());
+
+            int[] row = new int[image.getWidth()];
+            for (int y = 0; y < image.getHeight(); y++)
+            {
+                image.getRGB(0, y, row.length, 1, row, 0, row.length);
+                for (int pixel : row) hash = mix(hash, pixel);
+            }
+        }
+
+        return Long.toHexString(hash);
+    }
+
+    /**
+     * Folds a value into a 64-bit FNV-1a hash.
+     */
+    private static long mix(long hash, int value)
+    {
+        return (hash ^ value) * 0x100000001b3L;
+    }
+
+    /**
+     * Loads the pages and placements of a cached build.
+     *
+     * @return Placements of each input, or null if there is no usable cache entry.
+     */
+    private int[][] readCache(Path directory, String key)
+    {
+        Path index = directory.resolve("atlas-" + key + ".idx");
+        if (!Files.isRegularFile(index)) return null;
+
+        try (BufferedReader reader = Files.newBufferedReader(index, StandardCharsets.UTF_8))
+        {
+            int pageCount = Integer.parseInt(reader.readLine().trim());
+            for (int i = 0; i < pageCount; i++)
+            {
+                BufferedImage png = ImageIO.read(directory.resolve("atlas-" + key + "-" + i + ".png").toFile());
+                if (png == null) throw new IOException("Unreadable atlas page " + i);
+
+                Bitmap page = new Bitmap(png.getWidth(), png.getHeight());
+                png.getRGB(0, 0, png.getWidth(), png.getHeight(), page.getBackingData(), 0, png.getWidth());
+                pages.add(page);
+            }
+
+            int[][] placements = new int[inputs.size()][];
+            int i = 0;
+            for (BufferedImage image : inputs.values())
+            {
+                String[] fields = reader.readLine().trim().split(" ");
+                int[] p = new int[5];
+                for (int f = 0; f < 5; f++) p[f] = Integer.parseInt(fields[f]);
+
+                //A stale or corrupt index must fail here, where it falls back to packing, not in build()
+                if (p[0] < 0 || p[0] >= pageCount || p[3] != image.getWidth() || p[4] != image.getHeight()
+                        || p[1] < 0 || p[1] > pages.get(p[0]).pixelWidth() - p[3]
+                        || p[2] < 0 || p[2] > pages.get(p[0]).pixelHeight() - p[4])
+                    throw new IOException("Placement " + i + " does not fit the cached pages");
+                placements[i++] = p;
+            }
+            Util.logCached(CLASS_NAME, index.toString());
+            return placements;
+        } catch (IOException | RuntimeException e)
+        {
+            Util.log("[" + CLASS_NAME + "]: [" + index + "] could not be read, repacking.");
+            pages.clear();
+            return null;
+        }
+    }
+
+    /**
+     * Writes the pages and placements of a build to the cache. Failures are logged and ignored.
+     */
+    private void writeCache(Path directory, String key, int[][] placements)
+    {
+        Path index = directory.resolve("atlas-" + key + ".idx");
+        try
+        {
+            Files.createDirectories(directory);
+            for (int i = 0; i < pages.size(); i++)
+            {
+                ImageIO.write(pages.get(i).getImage(), "png", directory.resolve("atlas-" + key + "-" + i + ".png").toFile());
+            }
+
+            //The index is written last, so an interrupted write never leaves a usable entry
+            try (BufferedWriter writer = Files.newBufferedWriter(index, StandardCharsets.UTF_8))
+            {
+                writer.write(Integer.toString(pages.size()));
+                writer.newLine();
+                for (int[] p : placements)
+                {
+                    writer.write(p[0] + " " + p[1] + " " + p[2] + " " + p[3] + " " + p[4]);
+                    writer.newLine();
+                }
+            }
+        } catch (IOException e)
+        {
+            Util.log("[" + CLASS_NAME + "]: [" + index + "] could not be written.");
+        }
+    }
+
+    /**
+     * Supplies a packed sprite.
+     *
+     * @param name Name the image was added with.
+     * @return The packed sprite, or null if there is none with that name.
+     */
+    public Sprite getSprite(String name)
+    {
+        return sprites.get(name);
+    }
+
+    /**
+     * @return Every packed sprite, by name.
+     */
+    public Map<String, Sprite> getSprites()
+    {
+        return sprites;
+    }
+
+    /**
+     * @param index Index of the page.
+     * @return A packed page.
+     */
+    public Bitmap getPage(int index)
+    {
+        return pages.get(index);
+    }
+
+    /**
+     * @return Number of packed pages.
+     */
+    public int getPageCount()
+    {
+        return pages.size();
+    }
+
+    /**
+     * @return Whether the last build was loaded from the disk cache.
+     */
+    public boolean isFromCache()
+    {
+        return fromCache;
+    }
+
+    /**
+     * The top edge of the packed area of a page, kept as a list of horizontal segments.
+     * Each rectangle is placed where its bottom would be lowest, leftmost on ties.
+     */
+    private static final class Skyline
+    {
+        private final int width, height;
+        private int[] x = new int[16], y = new int[16], w = new int[16];
+        private int count;
+
+        private Skyline(int width, int height)
+        {
+            this.width = width;
+            this.height = height;
+            this.w[0] = width;
+            this.count = 1;
+        }
+
+        /**
+         * Finds a place for a rectangle and raises the skyline over it.
+         *
+         * @return The x and y-coordinate of the rectangle, or null if it does not fit.
+         */
+        private int[] insert(int rectWidth, int rectHeight)
+        {
+            int best = -1, bestX = 0, bestY = Integer.MAX_VALUE;
+            for (int i = 0; i < count; i++)
+            {
+                if (x[i] + rectWidth > width) break;
+
+                //The rectangle rests on the highest segment it spans
+                int top = 0;
+                for (int j = i, remaining = rectWidth; remaining > 0; j++)
+                {
+                    top = Math.max(top, y[j]);
+                    remaining -= w[j];
+                }
+
+                if (top + rectHeight <= height && top < bestY)
+                {
+                    best = i;
+                    bestX = x[i];
+                    bestY = top;
+                }
+            }
+            if (best < 0) return null;
+
+            raise(best, bestX, bestY + rectHeight, rectWidth);
+            return new int[]{bestX, bestY};
+        }
+
+        /**
+         * Replaces the segments under a placed rectangle with a single raised segment.
+         */
+        private void raise(int i, int left, int top, int span)
+        {
+            int right = left + span;
+            int j = i;
+            while (j < count && x[j] + w[j] <= right) j++;
+
+            //Segment j (if any) is only partly covered; trim its left part
+            if (j < count && x[j] < right)
+            {
+                w[j] -= right - x[j];
+                x[j] = right;
+            }
+
+            int removed = j - i;
+            if (removed == 0)
+            {
+                if (count == x.length) grow();
+                System.arraycopy(x, i, x, i + 1, count - i);
+                System.arraycopy(y, i, y, i + 1, count - i);
+                System.arraycopy(w, i, w, i + 1, count - i);
+                count++;
+            } else if (removed > 1)
+            {
+                System.arraycopy(x, j, x, i + 1, count - j);
+                System.arraycopy(y, j, y, i + 1, count - j);
+                System.arraycopy(w, j, w, i + 1, count - j);
+                count -= removed - 1;
+            }
+
+            x[i] = left;
+            y[i] = top;
+            w[i] = span;
+        }
+
+        private void grow()
+        {
+            x = Arrays.copyOf(x, x.length * 2);
+            y = Arrays.copyOf(y, y.length * 2);
+            w = Arrays.copyOf(w, w.length * 2);
+        }
+    }
+}
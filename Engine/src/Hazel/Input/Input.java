@@ -1,62 +1,78 @@
 package Hazel.Input;
 
 import java.awt.event.*;
-import java.util.HashMap;
+import java.util.BitSet;
 
 import Hazel.GameEngine.Hazel;
-import Hazel.Units.Tuple2i;
 
 /**
  * {@code Input} is a input handler class.
  * <br>
  * This class should be used to handle both mouse and keyboard input.
+ * <br>
+ * Events arrive asynchronously on the AWT event thread, but the game only sees the state
+ * latched by {@code update()} at the start of each tick, so every check made during a tick
+ * gives the same answer. The latched state of each tick can be recorded with an
+ * {@code InputRecorder}, and replaced by the ticks of an {@code InputReplay}.
  */
 public class Input implements KeyListener, MouseListener, MouseMotionListener
 {
-    private static HashMap<Integer, Property> keyMap = new HashMap<>(); //The hash table of keys
-    private static HashMap<Integer, Property> mouseMap = new HashMap<>(); //The hash table of mouse buttons
+    private static final Object lock = new Object(); //Guards the raw state written by the event thread
 
-    private Tuple2i mousePosition = new Tuple2i(0, 0); //The x and y positions of the mouse
+    private static final BitSet rawKeys = new BitSet(), rawButtons = new BitSet(); //Keys and mouse buttons currently down, as reported by events
+    private static int rawMouseX, rawMouseY; //The x and y positions of the mouse, as reported by events
 
-    /**
-     * {@code Property} is a property attached to a kind of input.
-     * <br>
-     * This class is used to indicated weather or not a certain button or key is pressed or not.
-     */
-    private class Property
-    {
-        boolean isPressed = false; //boolean checks if button/key is pressed
-        boolean isReleased = false; //boolean checks if button/key was just released
-    }
+    private static final BitSet keys = new BitSet(), lastKeys = new BitSet(); //Keys down during the current and the previous tick
+    private static final BitSet buttons = new BitSet(), lastButtons = new BitSet(); //Mouse buttons down during the current and the previous tick
+    private int mouseX, mouseY; //The x and y positions of the mouse during the current tick
+
+    private InputRecorder recorder; //Records the state of each tick (null when not recording)
+    private InputReplay replay; //Supplies the state of each tick instead of events (null when not replaying)
 
     /**
      * The constructor that sets up input.
+     * Without a game window (headless mode) no events are received.
      *
      * @param gameEngine The game engine object.
      */
     public Input(Hazel gameEngine)
     {
+        if (gameEngine.getGameWindow() == null) return;
+
         gameEngine.getGameWindow().getCanvas().addKeyListener(this);
         gameEngine.getGameWindow().getCanvas().addMouseListener(this);
         gameEngine.getGameWindow().getCanvas().addMouseMotionListener(this);
     }
 
     /**
-     * Method used to correlate between keys pressed and keys released.
+     * Method used to latch the input state of the next tick, keeping the state of the
+     * previous tick to tell presses and releases apart. The state is taken from the
+     * replay when one is set, otherwise from the events received so far.
      */
     public void update()
     {
-        for (Integer keyCode : keyMap.keySet())
-        {
-            Property property = keyMap.get(keyCode);
-            property.isReleased = property.isPressed;
-        }
+        lastKeys.clear();
+        lastKeys.or(keys);
+        lastButtons.clear();
+        lastButtons.or(buttons);
 
-        for (Integer keyCode : mouseMap.keySet())
+        if (replay != null)
+        {
+            replay.next(this);
+        } else
         {
-            Property property = mouseMap.get(keyCode);
-            property.isReleased = property.isPressed;
+            synchronized (lock)
+            {
+                keys.clear();
+                keys.or(rawKeys);
+                buttons.clear();
+                buttons.or(rawButtons);
+                mouseX = rawMouseX;
+                mouseY = rawMouseY;
+            }
         }
+
+        if (recorder != null) recorder.record(this);
     }
 
     /**
@@ -69,9 +85,7 @@ public class Input implements KeyListener, MouseListener, MouseMotionListener
     {
         for (int key : keyCode)
         {
-            Property property = keyMap.get(key);
-            boolean isPressed = property != null && !property.isReleased && property.isPressed;
-            if (isPressed) return true;
+            if (keys.get(key) && !lastKeys.get(key)) return true;
         }
         return false;
     }
@@ -86,9 +100,7 @@ public class Input implements KeyListener, MouseListener, MouseMotionListener
     {
         for (int key : keyCode)
         {
-            Property property = keyMap.get(key);
-            boolean isHeld = property != null && property.isPressed && property.isReleased;
-            if (isHeld) return true;
+            if (keys.get(key) && lastKeys.get(key)) return true;
         }
         return false;
     }
@@ -103,9 +115,7 @@ public class Input implements KeyListener, MouseListener, MouseMotionListener
     {
         for (int key : keyCode)
         {
-            Property property = keyMap.get(key);
-            boolean isReleased = property != null && property.isReleased && !property.isPressed;
-            if (isReleased) return true;
+            if (!keys.get(key) && lastKeys.get(key)) return true;
         }
         return false;
     }
@@ -118,23 +128,19 @@ public class Input implements KeyListener, MouseListener, MouseMotionListener
     @Override
     public void keyPressed(KeyEvent e)
     {
-        int key = e.getKeyCode();
-
-        if (keyMap.get(key) == null) keyMap.put(e.getKeyCode(), new Property());
-
-        Property property = keyMap.get(key);
-        property.isPressed = true;
+        synchronized (lock)
+        {
+            rawKeys.set(e.getKeyCode());
+        }
     }
 
     @Override
     public void keyReleased(KeyEvent e)
     {
-        int key = e.getKeyCode();
-
-        if (keyMap.get(key) == null) keyMap.put(e.getKeyCode(), new Property());
-
-        Property property = keyMap.get(key);
-        property.isPressed = false;
+        synchronized (lock)
+        {
+            rawKeys.clear(e.getKeyCode());
+        }
     }
 
     /**
@@ -145,11 +151,9 @@ public class Input implements KeyListener, MouseListener, MouseMotionListener
      */
     public static boolean isButtonPressed(int... buttonCode)
     {
-        for (int key : buttonCode)
+        for (int button : buttonCode)
         {
-            Property property = mouseMap.get(key);
-            boolean isPressed = property != null && !property.isReleased && property.isPressed;
-            if (isPressed) return true;
+            if (buttons.get(button) && !lastButtons.get(button)) return true;
         }
         return false;
     }
@@ -162,11 +166,9 @@ public class Input implements KeyListener, MouseListener, MouseMotionListener
      */
     public boolean isButtonHeld(int... buttonCode)
     {
-        for (int key : buttonCode)
+        for (int button : buttonCode)
         {
-            Property property = mouseMap.get(key);
-            boolean isHeld = property != null && property.isPressed && property.isReleased;
-            if (isHeld) return true;
+            if (buttons.get(button) && lastButtons.get(button)) return true;
         }
         return false;
     }
@@ -179,11 +181,9 @@ public class Input implements KeyListener, MouseListener, MouseMotionListener
      */
     public static boolean isButtonReleased(int... buttonCode)
     {
-        for (int key : buttonCode)
+        for (int button : buttonCode)
         {
-            Property property = mouseMap.get(key);
-            boolean isReleased = property != null && property.isReleased && !property.isPressed;
-            if (isReleased) return true;
+            if (!buttons.get(button) && lastButtons.get(button)) return true;
         }
         return false;
     }
@@ -191,35 +191,35 @@ public class Input implements KeyListener, MouseListener, MouseMotionListener
     @Override
     public void mouseDragged(MouseEvent e)
     {
-        mousePosition.setPositions(e.getX() / Hazel.getScale(), e.getY() / Hazel.getScale());
+        mouseMoved(e);
     }
 
     @Override
     public void mouseMoved(MouseEvent e)
     {
-        mousePosition.setPositions(e.getX() / Hazel.getScale(), e.getY() / Hazel.getScale());
+        synchronized (lock)
+        {
+            rawMouseX = e.getX() / Hazel.getScale();
+            rawMouseY = e.getY() / Hazel.getScale();
+        }
     }
 
     @Override
     public void mousePressed(MouseEvent e)
     {
-        int button = e.getButton();
-
-        if (mouseMap.get(button) == null) mouseMap.put(e.getButton(), new Property());
-
-        Property property = mouseMap.get(button);
-        property.isPressed = true;
+        synchronized (lock)
+        {
+            rawButtons.set(e.getButton());
+        }
     }
 
     @Override
     public void mouseReleased(MouseEvent e)
     {
-        int button = e.getButton();
-
-        if (mouseMap.get(button) == null) mouseMap.put(e.getButton(), new Property());
-
-        Property property = mouseMap.get(button);
-        property.isReleased = true;
+        synchronized (lock)
+        {
+            rawButtons.clear(e.getButton());
+        }
     }
 
     @Override
@@ -237,12 +237,64 @@ public class Input implements KeyListener, MouseListener, MouseMotionListener
     {
     }
 
+    /**
+     * Sets the recorder the state of each tick is written to.
+     *
+     * @param recorder The input recorder (null to stop recording).
+     */
+    public void setRecorder(InputRecorder recorder)
+    {
+        this.recorder = recorder;
+    }
+
+    /**
+     * @return The recorder the state of each tick is written to (null when not recording).
+     */
+    public InputRecorder getRecorder()
+    {
+        return recorder;
+    }
+
+    /**
+     * Sets the replay the state of each tick is read from, instead of events.
+     *
+     * @param replay The input replay (null to receive events again).
+     */
+    public void setReplay(InputReplay replay)
+    {
+        this.replay = replay;
+    }
+
+    /**
+     * @return The replay the state of each tick is read from (null when events are used).
+     */
+    public InputReplay getReplay()
+    {
+        return replay;
+    }
+
+    /**
+     * @return The keys down during the current tick.
+     */
+    BitSet getKeys()
+    {
+        return keys;
+    }
+
+    /**
+     * @return The mouse buttons down during the current tick.
+     */
+    BitSet getButtons()
+    {
+        return buttons;
+    }
+
     /**
      * @return The x-position of the mouse.
      */
     public int getMouseX()
     {
-        return mousePosition.x;
+        return mouseX;
     }
 
     /**
@@ -252,7 +304,7 @@ public class Input implements KeyListener, MouseListener, MouseMotionListener
      */
     public void setMouseX(int xMouse)
     {
-        this.mousePosition.x = xMouse;
+        this.mouseX = xMouse;
     }
 
     /**
@@ -260,7 +312,7 @@ public class Input implements KeyListener, MouseListener, MouseMotionListener
      */
     public int getMouseY()
     {
-        return mousePosition.y;
+        return mouseY;
     }
 
     /**
@@ -270,6 +322,6 @@ public class Input implements KeyListener, MouseListener, MouseMotionListener
      */
     public void setMouseY(int yMouse)
     {
-        this.mousePosition.y = yMouse;
+        this.mouseY = yMouse;
     }
-}
\ No newline at end of file
+}
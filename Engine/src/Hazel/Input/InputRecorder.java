@@ -0,0 +1,146 @@
+package Hazel.Input;
+
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.BitSet;
+
+/**
+ * {@code InputRecorder} writes the input state of every tick to a compact binary file.
+ * <br>
+ * The file starts with a header holding the random seed of the session, the number of the
+ * first recorded tick and the length of a tick. Each tick then only stores what changed
+ * since the tick before: the codes of the keys and mouse buttons that went down or up, and
+ * the movement of the mouse, all as variable-length integers. A tick without any input
+ * takes four bytes. Recordings are played back with an {@code InputReplay}.
+ */
+public class InputRecorder implements Closeable
+{
+    static final byte[] MAGIC = {'H', 'I', 'R'}; //Identifies an input recording
+    static final byte VERSION = 0x1; //The version of the file format
+
+    private final DataOutputStream out; //The recording being written
+    private final BitSet keys = new BitSet(), buttons = new BitSet(); //Keys and mouse buttons down in the latest recorded tick
+    private final BitSet changes = new BitSet(); //Scratch set of the codes that changed in a tick
+    private int mouseX, mouseY; //The mouse position in the latest recorded tick
+    private long ticks; //Number of ticks recorded
+    private boolean failed; //Whether writing failed, which stops the recording
+
+    /**
+     * Creates a recording in a file.
+     *
+     * @param path      The path to the recording file.
+     * @param seed      The random seed of the session.
+     * @param firstTick The number of the first tick to be recorded.
+     * @param timestep  The length of a tick, in nanoseconds.
+     * @throws IOException If the file cannot be created.
+     */
+    public InputRecorder(String path, long seed, long firstTick, long timestep) throws IOException
+    {
+        this(new FileOutputStream(path), seed, firstTick, timestep);
+    }
+
+    /**
+     * Creates a recording in a stream.
+     *
+     * @param stream    The stream the recording is written to.
+     * @param seed      The random seed of the session.
+     * @param firstTick The number of the first tick to be recorded.
+     * @param timestep  The length of a tick, in nanoseconds.
+     * @throws IOException If the header cannot be written.
+     */
+    public InputRecorder(OutputStream stream, long seed, long firstTick, long timestep) throws IOException
+    {
+        out = new DataOutputStream(new BufferedOutputStream(stream));
+        out.write(MAGIC);
+        out.writeByte(VERSION);
+        out.writeLong(seed);
+        out.writeLong(firstTick);
+        out.writeLong(timestep);
+    }
+
+    /**
+     * Method used to record the state latched by an input handler for the current tick.
+     *
+     * @param input The input handler.
+     */
+    void record(Input input)
+    {
+        if (failed) return;
+
+        try
+        {
+            writeChanges(input.getKeys(), keys);
+            writeChanges(input.getButtons(), buttons);
+            writeVarInt(zigzag(input.getMouseX() - mouseX));
+            writeVarInt(zigzag(input.getMouseY() - mouseY));
+            mouseX = input.getMouseX();
+            mouseY = input.getMouseY();
+            ticks++;
+        } catch (IOException e)
+        {
+            e.printStackTrace();
+            failed = true;
+        }
+    }
+
+    /**
+     * Writes the codes whose state differs from the last recorded tick, then remembers the new state.
+     */
+    private void writeChanges(BitSet current, BitSet recorded) throws IOException
+    {
+        changes.clear();
+        changes.or(current);
+        changes.xor(recorded);
+
+        writeVarInt(changes.cardinality());
+        for (int code = changes.nextSetBit(0); code >= 0; code = changes.nextSetBit(code + 1))
+        {
+            writeVarInt(code);
+        }
+
+        recorded.clear();
+        recorded.or(current);
+    }
+
+    /**
+     * Writes a non-negative integer in groups of seven bits, lowest first.
+     */
+    private void writeVarInt(int value) throws IOException
+    {
+        while ((value & ~0x7F) != 0)
+        {
+            out.writeByte((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        out.writeByte(value);
+    }
+
+    /**
+     * Maps signed integers to non-negative ones, so that small movements stay small.
+     */
+    private static int zigzag(int value)
+    {
+        return (value << 1) ^ (value >> 31);
+    }
+
+    /**
+     * @return Number of ticks recorded.
+     */
+    public long getTickCount()
+    {
+        return ticks;
+    }
+
+    /**
+     * Method used to finish the recording, writing out everything still buffered.
+     */
+    @Override
+    public void close() throws IOException
+    {
+        out.close();
+    }
+}
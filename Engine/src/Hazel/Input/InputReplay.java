@@ -0,0 +1,214 @@
+package Hazel.Input;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.BitSet;
+
+/**
+ * {@code InputReplay} plays back a recording written by an {@code InputRecorder}.
+ * <br>
+ * The whole recording is read into memory and checked up front, so playing it back does
+ * no I/O. Each call of {@code Input.update()} then receives the state of the next recorded
+ * tick instead of the events of the game window. Once every tick has been played, the
+ * state of the last one is kept.
+ */
+public class InputReplay
+{
+    private static final int HEADER_SIZE = InputRecorder.MAGIC.length + 1 + 8 + 8 + 8; //Size of the file header, in bytes
+
+    private final byte[] data; //The recording
+    private final long seed; //The random seed of the session
+    private final long firstTick; //The number of the first recorded tick
+    private final long timestep; //The length of a tick, in nanoseconds
+    private final int tickCount; //Number of recorded ticks
+
+    private final BitSet keys = new BitSet(), buttons = new BitSet(); //Keys and mouse buttons down in the latest played tick
+    private int mouseX, mouseY; //The mouse position in the latest played tick
+    private int position; //Offset of the next tick in the recording
+    private int tick; //Number of ticks played
+
+    /**
+     * Loads a recording from a file.
+     *
+     * @param path The path to the recording file.
+     * @throws IOException If the file cannot be read or is not a valid recording.
+     */
+    public InputReplay(String path) throws IOException
+    {
+        this(Files.readAllBytes(Paths.get(path)));
+    }
+
+    /**
+     * Loads a recording from its bytes.
+     *
+     * @param data The recording.
+     * @throws IOException If the data is not a valid recording.
+     */
+    public InputReplay(byte[] data) throws IOException
+    {
+        this.data = data;
+
+        if (data.length < HEADER_SIZE) throw new IOException("Not an input recording!");
+        for (int i = 0; i < InputRecorder.MAGIC.length; i++)
+        {
+            if (data[i] != InputRecorder.MAGIC[i]) throw new IOException("Not an input recording!");
+        }
+        if (data[InputRecorder.MAGIC.length] != InputRecorder.VERSION)
+            throw new IOException("Unsupported input recording version! version: " + data[InputRecorder.MAGIC.length]);
+
+        seed = readLong(InputRecorder.MAGIC.length + 1);
+        firstTick = readLong(InputRecorder.MAGIC.length + 9);
+        timestep = readLong(InputRecorder.MAGIC.length + 17);
+
+        //Walk the ticks once to count them and catch truncated files before playing
+        position = HEADER_SIZE;
+        int count = 0;
+        try
+        {
+            while (position < data.length)
+            {
+                for (int set = 0; set < 2; set++)
+                {
+                    int changes = readVarInt();
+                    for (int i = 0; i < changes; i++) readVarInt();
+                }
+                readVarInt();
+                readVarInt();
+                count++;
+            }
+        } catch (ArrayIndexOutOfBoundsException e)
+        {
+            throw new IOException("Truncated input recording! ticks: " + count);
+        }
+        tickCount = count;
+
+        rewind();
+    }
+
+    /**
+     * Method used to play the recording again from its first tick.
+     */
+    public void rewind()
+    {
+        keys.clear();
+        buttons.clear();
+        mouseX = 0;
+        mouseY = 0;
+        position = HEADER_SIZE;
+        tick = 0;
+    }
+
+    /**
+     * Method used to pass the state of the next recorded tick to an input handler.
+     *
+     * @param input The input handler.
+     */
+    void next(Input input)
+    {
+        if (tick < tickCount)
+        {
+            readChanges(keys);
+            readChanges(buttons);
+            mouseX += unzigzag(readVarInt());
+            mouseY += unzigzag(readVarInt());
+            tick++;
+        }
+
+        input.getKeys().clear();
+        input.getKeys().or(keys);
+        input.getButtons().clear();
+        input.getButtons().or(buttons);
+        input.setMouseX(mouseX);
+        input.setMouseY(mouseY);
+    }
+
+    /**
+     * Flips the state of every code listed for a tick.
+     */
+    private void readChanges(BitSet state)
+    {
+        int changes = readVarInt();
+        for (int i = 0; i < changes; i++) state.flip(readVarInt());
+    }
+
+    /**
+     * Reads a non-negative integer written in groups of seven bits, lowest first.
+     */
+    private int readVarInt()
+    {
+        int value = 0;
+        for (int shift = 0; ; shift += 7)
+        {
+            byte b = data[position++];
+            value |= (b & 0x7F) << shift;
+            if (b >= 0) return value;
+        }
+    }
+
+    /**
+     * Reverses the mapping of signed integers to non-negative ones.
+     */
+    private static int unzigzag(int value)
+    {
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    /**
+     * Reads a big-endian long at an offset of the recording.
+     */
+    private long readLong(int offset)
+    {
+        long value = 0;
+        for (int i = 0; i < 8; i++) value = (value << 8) | (data[offset + i] & 0xFF);
+        return value;
+    }
+
+    /**
+     * @return The random seed of the recorded session.
+     */
+    public long getSeed()
+    {
+        return seed;
+    }
+
+    /**
+     * @return The number of the first recorded tick.
+     */
+    public long getFirstTick()
+    {
+        return firstTick;
+    }
+
+    /**
+     * @return The length of a recorded tick, in nanoseconds.
+     */
+    public long getTimestep()
+    {
+        return timestep;
+    }
+
+    /**
+     * @return Number of recorded ticks.
+     */
+    public int getTickCount()
+    {
+        return tickCount;
+    }
+
+    /**
+     * @return Number of ticks played so far.
+     */
+    public int getTick()
+    {
+        return tick;
+    }
+
+    /**
+     * @return Whether every recorded tick has been played.
+     */
+    public boolean isFinished()
+    {
+        return tick >= tickCount;
+    }
+}
@@ -120,30 +120,52 @@ public abstract class Level implements Updatable, Renderable
      * @param radius The distance from the given mob to the edge of the circle.
      * @return The list of mobs in a given radius.
      */
-    public synchronized List<Mob> getMobs(Mob m, int radius)
-    {
-        List<Mob> result = new ArrayList<>();
-        int mx = m.getX();
-        int my = m.getY();
-
-        for (int i = 0; i < objManager.objectList.size(); i++)
-        {
-            Object object = objManager.objectList.get(i);
-
-            if (object.equals(m)) continue;
-
-            if (object instanceof Mob)
-            {
-                Mob mob = (Mob) object;
-                int x = mob.getX();
-                int y = mob.getY();
-                int dx = Math.abs(x - mx);
-                int dy = Math.abs(y - my);
-                double distance = Math.sqrt((dx * dx) + (dy * dy));
-                if (distance <= radius) result.add(mob);
-            }
-        }
+    public List<Mob> getMobs(Mob m, int radius)
+    {
+        return getMobs(m, radius, new ArrayList<>());
+    }
 
+    /**
+     * Method adds the mobs in a given radius to a list, which can be reused between calls.
+     *
+     * @param m      The central mob.
+     * @param radius The distance from the given mob to the edge of the circle.
+     * @param result The list the mobs are added to.
+     * @return The given list.
+     */
+    public List<Mob> getMobs(Mob m, int radius, List<Mob> result)
+    {
+        objManager.getMobs().getInRadius(m.getX(), m.getY(), radius, m, result);
+        return result;
+    }
+
+    /**
+     * Method adds the mobs located within a rectangle to a list.
+     *
+     * @param x0     Left edge of the rectangle (inclusive).
+     * @param y0     Top edge of the rectangle (inclusive).
+     * @param x1     Right edge of the rectangle (inclusive).
+     * @param y1     Bottom edge of the rectangle (inclusive).
+     * @param result The list the mobs are added to.
+     * @return The given list.
+     */
+    public List<Mob> getMobs(int x0, int y0, int x1, int y1, List<Mob> result)
+    {
+        objManager.getMobs().getInBox(x0, y0, x1, y1, null, result);
+        return result;
+    }
+
+    /**
+     * Method adds the mobs nearest to a given mob to a list, closest first.
+     *
+     * @param m      The central mob.
+     * @param count  The number of mobs wanted.
+     * @param result The list the mobs are added to.
+     * @return The given list.
+     */
+    public List<Mob> getNearestMobs(Mob m, int count, List<Mob> result)
+    {
+        objManager.getMobs().getNearest(m.getX(), m.getY(), count, m, result);
         return result;
     }
 
@@ -154,29 +176,65 @@ public abstract class Level implements Updatable, Renderable
      * @param radius The distance from the given object to the edge of the circle.
      * @return The list of objects in a given radius.
      */
-    public synchronized List<Object> getObjects(Object obj, int radius)
+    public List<Object> getObjects(Object obj, int radius)
     {
-        List<Object> result = new ArrayList<>();
-        int ox = obj.getX();
-        int oy = obj.getY();
-
-        for (int i = 0; i < objManager.objectList.size(); i++)
-        {
-            Object object = objManager.objectList.get(i);
+        return getObjects(obj, radius, new ArrayList<>());
+    }
 
-            if (object.equals(obj) || object instanceof Mob) continue;
+    /**
+     * Method adds the objects (other than mobs) in a given radius to a list, which can be reused between calls.
+     *
+     * @param obj    The central object.
+     * @param radius The distance from the given object to the edge of the circle.
+     * @param result The list the objects are added to.
+     * @return The given list.
+     */
+    public List<Object> getObjects(Object obj, int radius, List<Object> result)
+    {
+        objManager.getObjects().getInRadius(obj.getX(), obj.getY(), radius, obj, result);
+        return result;
+    }
 
-            int x = object.getX();
-            int y = object.getY();
-            int dx = Math.abs(x - ox);
-            int dy = Math.abs(y - oy);
-            double distance = Math.sqrt((dx * dx) + (dy * dy));
-            if (distance <= radius) result.add(object);
-        }
+    /**
+     * Method adds the objects (other than mobs) located within a rectangle to a list.
+     *
+     * @param x0     Left edge of the rectangle (inclusive).
+     * @param y0     Top edge of the rectangle (inclusive).
+     * @param x1     Right edge of the rectangle (inclusive).
+     * @param y1     Bottom edge of the rectangle (inclusive).
+     * @param result The list the objects are added to.
+     * @return The given list.
+     */
+    public List<Object> getObjects(int x0, int y0, int x1, int y1, List<Object> result)
+    {
+        objManager.getObjects().getInBox(x0, y0, x1, y1, null, result);
+        return result;
+    }
 
+    /**
+     * Method adds the objects (other than mobs) nearest to a given object to a list, closest first.
+     *
+     * @param obj    The central object.
+     * @param count  The number of objects wanted.
+     * @param result The list the objects are added to.
+     * @return The given list.
+     */
+    public List<Object> getNearestObjects(Object obj, int count, List<Object> result)
+    {
+        objManager.getObjects().getNearest(obj.getX(), obj.getY(), count, obj, result);
         return result;
     }
 
+    /**
+     * Sets the width and height of the cells used to look up objects by location.
+     *
+     * @param cellSize Width and height of a cell, in pixels.
+     */
+    public void setCellSize(int cellSize)
+    {
+        objManager.setCellSize(cellSize);
+    }
+
     /**
      * Method used to set the x and y offsets.
      *
@@ -3,15 +3,17 @@ package Hazel.Level;
 import java.util.HashMap;
 import java.util.Map;
 
-import Hazel.GameEngine.Hazel;
 import Hazel.GameEngine.Manager;
 import Hazel.Graphics.Bitmap;
 import Hazel.Graphics.Context;
 import Hazel.System.Asset.Asset;
 import Hazel.System.Asset.Type.Images.Image;
+import Hazel.System.Profiler.Profiler;
 
 public class TiledLevel extends Level
 {
+    private static final int RENDER_SCOPE = Profiler.register("TiledLevel.render");
+
     private int tileSize;
     private int[] tileArray;
     private Map<Integer, Tile> tileMap = new HashMap<>();
@@ -19,6 +21,7 @@ public class TiledLevel extends Level
     public TiledLevel(int width, int height)
     {
         super(width, height);
+        tileArray = new int[width * height];
     }
 
     public TiledLevel(String filePath)
@@ -68,10 +71,11 @@ public class TiledLevel extends Level
     public void render(Manager manager, Context ctx)
     {
         int xStart = Math.max(0, xOffset / tileSize);
-        int xEnd = Math.min(width, xOffset + Hazel.getWidth() / Hazel.getScale() / tileSize + 2);
+        int xEnd = Math.min(width, xOffset + ctx.getWidth() / tileSize + 2);
         int yStart = Math.max(0, yOffset / tileSize);
-        int yEnd = Math.min(height, yOffset + Hazel.getHeight() / Hazel.getScale() / tileSize + 2);
+        int yEnd = Math.min(height, yOffset + ctx.getHeight() / tileSize + 2);
 
+        long start = Profiler.begin();
         for (int x = xStart; x < xEnd; x++)
         {
             for (int y = yStart; y < yEnd; y++)
@@ -83,6 +87,7 @@ public class TiledLevel extends Level
                 tile.render(manager, ctx, x * tile.getWidth() - xOffset, y * tile.getHeight() - yOffset);
             }
         }
+        Profiler.end(RENDER_SCOPE, start);
 
         super.render(manager, ctx);
     }
@@ -115,6 +120,7 @@ public class TiledLevel extends Level
     public void setTileSize(int tileSize)
     {
         this.tileSize = tileSize;
+        if (tileSize > 0) objManager.setCellSize(tileSize);
     }
 
     public int getTileSize()
@@ -33,6 +33,9 @@ public abstract class Object implements Updatable, Renderable
 
     private boolean isRemoved = false; //Weather or not the object was removed from a level
 
+    SpatialHash<?> spatialHash; //The spatial hash the object is kept in (null if none)
+    int spatialEntry = -1; //The entry of the object in its spatial hash
+
     public Object(Manager manager, String name, int type, Sprite sprite, Tuple2i location, float scale)
     {
         this.manager = manager;
@@ -182,6 +185,19 @@ public abstract class Object implements Updatable, Renderable
         return location.y;
     }
 
+    /**
+     * Method used to move the object, keeping the spatial hash of its level up to date.
+     *
+     * @param x The new width-location of the object.
+     * @param y The new height-location of the object.
+     */
+    public void setLocation(int x, int y)
+    {
+        location.x = x;
+        location.y = y;
+        if (spatialHash != null) spatialHash.move(this);
+    }
+
     /**
      * Sets the scale of the object
      *
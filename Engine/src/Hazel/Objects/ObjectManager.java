@@ -4,6 +4,8 @@ import Hazel.GameEngine.Interfaces.Renderable;
 import Hazel.GameEngine.Interfaces.Updatable;
 import Hazel.GameEngine.Manager;
 import Hazel.Graphics.Context;
+import Hazel.Objects.Type.Mob;
+import Hazel.System.Profiler.Profiler;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -11,12 +13,23 @@ import java.util.List;
 /**
  * {@code ObjectManager} is a object handler class.
  * <br>
- * This class is used to handle all of the object's.
+ * This class is used to handle all of the object's. Objects are also kept in two spatial
+ * hashes, one for mobs and one for every other object, so that neighbours can be found
+ * without looking at every object. Objects that move through {@code Object.setLocation()}
+ * update their hash right away; any other move is picked up after the object's update.
  */
 public class ObjectManager implements Updatable, Renderable
 {
+    private static final int UPDATE_SCOPE = Profiler.register("ObjectManager.update"); //Profiler scope of updates
+    private static final int RENDER_SCOPE = Profiler.register("ObjectManager.render"); //Profiler scope of rendering
+
+    public static final int DEFAULT_CELL_SIZE = 32; //Cell size of the spatial hashes until the level sets one
+
     public List<Object> objectList = new ArrayList<>(); //The list of objects
 
+    private final SpatialHash<Mob> mobs = new SpatialHash<>(DEFAULT_CELL_SIZE); //The mobs, by location
+    private final SpatialHash<Object> objects = new SpatialHash<>(DEFAULT_CELL_SIZE); //The objects that are not mobs, by location
+
     /**
      * Method used to add a object to the list
      *
@@ -25,6 +38,8 @@ public class ObjectManager implements Updatable, Renderable
     public void add(Object obj)
     {
         objectList.add(obj);
+        if (obj instanceof Mob) mobs.add((Mob) obj);
+        else objects.add(obj);
     }
 
     /**
@@ -35,23 +50,56 @@ public class ObjectManager implements Updatable, Renderable
     public void remove(Object obj)
     {
         objectList.remove(obj);
+        if (obj.spatialHash != null) obj.spatialHash.remove(obj);
     }
 
     @Override
     public void update(Manager manager, double delta)
     {
+        long start = Profiler.begin();
         for (Object obj : objectList)
         {
             obj.update(manager, delta);
+            if (obj.spatialHash != null) obj.spatialHash.move(obj);
         }
+        Profiler.end(UPDATE_SCOPE, start);
+    }
+
+    /**
+     * Sets the width and height of the cells of the spatial hashes.
+     *
+     * @param cellSize Width and height of a cell, in pixels (usually the tile size of the level).
+     */
+    public void setCellSize(int cellSize)
+    {
+        mobs.setCellSize(cellSize);
+        objects.setCellSize(cellSize);
+    }
+
+    /**
+     * @return The spatial hash of the mobs.
+     */
+    public SpatialHash<Mob> getMobs()
+    {
+        return mobs;
+    }
+
+    /**
+     * @return The spatial hash of the objects that are not mobs.
+     */
+    public SpatialHash<Object> getObjects()
+    {
+        return objects;
     }
 
     @Override
     public void render(Manager manager, Context ctx)
     {
+        long start = Profiler.begin();
         for (Object obj : objectList)
         {
             obj.render(manager, ctx);
         }
+        Profiler.end(RENDER_SCOPE, start);
     }
 }
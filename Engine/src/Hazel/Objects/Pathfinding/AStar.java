@@ -2,6 +2,7 @@ package Hazel.Objects.Pathfinding;
 
 import Hazel.Level.Tile;
 import Hazel.Level.TiledLevel;
+import Hazel.System.Profiler.PathfindingEvent;
 import Hazel.Units.Vector2i;
 
 import java.util.ArrayList;
@@ -44,8 +45,12 @@ public class AStar
      */
     public List<Node> findPath(Vector2i start, Vector2i goal)
     {
+        PathfindingEvent event = new PathfindingEvent();
+        event.begin();
+
         List<Node> path = new ArrayList<>();
         Node current = new Node(level, start, null);
+        int expanded = 0;
 
         open.add(current);
 
@@ -63,16 +68,31 @@ public class AStar
                     current = current.parent;
                 }
 
-                open.clear();
-                closed.clear();
+                break;
             }
 
             open.remove(current);
             closed.add(current);
+            expanded++;
 
             sort(current, goal);
         }
 
+        open.clear();
+        closed.clear();
+
+        event.end();
+        if (event.shouldCommit())
+        {
+            event.startX = start.x;
+            event.startY = start.y;
+            event.goalX = goal.x;
+            event.goalY = goal.y;
+            event.nodesExpanded = expanded;
+            event.pathLength = path.size();
+            event.commit();
+        }
+
         return path;
     }
 
@@ -0,0 +1,474 @@
+package Hazel.Objects;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * {@code SpatialHash} is a uniform grid of objects, hashed into a fixed number of buckets.
+ * <br>
+ * Space is divided into square cells, and every object is kept in the bucket of the cell
+ * holding its location. Buckets and their entries are plain {@code int} arrays: each entry
+ * knows its object's location and cell and links to the next and previous entries of its
+ * bucket, so adding, moving and removing an object never allocates. Since only the cells
+ * a query touches are visited, finding the neighbours of an object costs time proportional
+ * to the number of objects nearby rather than to the number of objects in the level.
+ * <br>
+ * Queries compare squared distances and add their results to lists supplied by the caller,
+ * which can be reused from one tick to the next. The hash is not thread-safe; it is meant
+ * to be used from the update thread.
+ *
+ * @param <T> The type of the objects in the hash.
+ */
+public class SpatialHash<T extends Object>
+{
+    private static final int NONE = -1; //End of a bucket, or no entry
+
+    private int cellSize; //Width and height of a cell, in pixels
+    private int cellShift; //Base 2 logarithm of the cell size (-1 if the cell size is not a power of two)
+
+    private int[] heads; //First entry of each bucket
+    private int mask; //Number of buckets minus one (the number of buckets is a power of two)
+
+    private static final int X = 0; //Offset of the location of an entry's object, as of its last move
+    private static final int Y = 1;
+    private static final int CELL_X = 2; //Offset of the cell of an entry
+    private static final int CELL_Y = 3;
+    private static final int NEXT = 4; //Offset of the next entry of the bucket (also chains free entries)
+    private static final int PREV = 5; //Offset of the previous entry of the bucket
+    private static final int STRIDE = 6; //Number of ints per entry
+
+    private Object[] items; //The object of each entry (null if the entry is free)
+    private int[] entries; //The fields of every entry, STRIDE ints each, so that a query reads one cache line per entry
+    private int free = NONE; //First free entry
+    private int used; //Number of entries ever used (objects and free entries)
+    private int size; //Number of objects
+
+    private long[] nearestDistances = new long[0]; //Scratch space of nearest-neighbour queries
+    private int[] nearestEntries = new int[0]; //Scratch space of nearest-neighbour queries
+
+    /**
+     * Creates an empty spatial hash.
+     *
+     * @param cellSize Width and height of a cell, in pixels (usually the tile size of the level).
+     */
+    public SpatialHash(int cellSize)
+    {
+        if (cellSize <= 0) throw new IllegalArgumentException("Cell size must be positive! cellSize: " + cellSize);
+
+        this.cellSize = cellSize;
+        cellShift = Integer.bitCount(cellSize) == 1 ? Integer.numberOfTrailingZeros(cellSize) : -1;
+        heads = new int[128];
+        Arrays.fill(heads, NONE);
+        mask = heads.length - 1;
+
+        items = new Object[64];
+        entries = new int[64 * STRIDE];
+    }
+
+    /**
+     * Method used to add an object at its current location.
+     * An object can be in a single spatial hash at a time.
+     *
+     * @param obj The object to be added.
+     */
+    public void add(T obj)
+    {
+        if (obj.spatialHash != null)
+            throw new IllegalArgumentException("Object is already in a spatial hash! name: " + obj.name);
+
+        int entry;
+        if (free != NONE)
+        {
+            entry = free;
+            free = entries[entry * STRIDE + NEXT];
+        } else
+        {
+            if (used == items.length) grow(used * 2);
+            entry = used++;
+        }
+
+        items[entry] = obj;
+        obj.spatialHash = this;
+        obj.spatialEntry = entry;
+        size++;
+
+        link(entry, obj.getX(), obj.getY());
+        if (2 * size > heads.length) rehash(heads.length * 2);
+    }
+
+    /**
+     * Method used to remove an object.
+     *
+     * @param obj The object to be removed; nothing happens if it is not in this hash.
+     */
+    public void remove(Object obj)
+    {
+        if (obj.spatialHash != this) return;
+
+        int entry = obj.spatialEntry;
+        unlink(entry);
+        items[entry] = null;
+        entries[entry * STRIDE + NEXT] = free;
+        free = entry;
+        obj.spatialHash = null;
+        obj.spatialEntry = NONE;
+        size--;
+    }
+
+    /**
+     * Method used to bring the hash up to date with the location of an object after it moved.
+     * Objects that did not leave their cell only have their stored location updated.
+     *
+     * @param obj The object that moved.
+     */
+    public void move(Object obj)
+    {
+        if (obj.spatialHash != this) return;
+
+        int entry = obj.spatialEntry, base = entry * STRIDE;
+        int x = obj.getX(), y = obj.getY();
+        if (x == entries[base + X] && y == entries[base + Y]) return;
+
+        if (cell(x) == entries[base + CELL_X] && cell(y) == entries[base + CELL_Y])
+        {
+            entries[base + X] = x;
+            entries[base + Y] = y;
+        } else
+        {
+            unlink(entry);
+            link(entry, x, y);
+        }
+    }
+
+    /**
+     * Method used to remove every object.
+     */
+    public void clear()
+    {
+        for (int i = 0; i < used; i++)
+        {
+            Object obj = items[i];
+            if (obj == null) continue;
+
+            obj.spatialHash = null;
+            obj.spatialEntry = NONE;
+        }
+
+        Arrays.fill(items, 0, used, null);
+        Arrays.fill(heads, NONE);
+        free = NONE;
+        used = 0;
+        size = 0;
+    }
+
+    /**
+     * Inserts an entry at the front of the bucket of a location.
+     */
+    private void link(int entry, int x, int y)
+    {
+        int cx = cell(x), cy = cell(y);
+        int base = entry * STRIDE;
+        entries[base + X] = x;
+        entries[base + Y] = y;
+        entries[base + CELL_X] = cx;
+        entries[base + CELL_Y] = cy;
+
+        int bucket = bucket(cx, cy);
+        int head = heads[bucket];
+        entries[base + NEXT] = head;
+        entries[base + PREV] = NONE;
+        if (head != NONE) entries[head * STRIDE + PREV] = entry;
+        heads[bucket] = entry;
+    }
+
+    /**
+     * Takes an entry out of its bucket.
+     */
+    private void unlink(int entry)
+    {
+        int base = entry * STRIDE;
+        int before = entries[base + PREV], after = entries[base + NEXT];
+        if (before != NONE) entries[before * STRIDE + NEXT] = after;
+        else heads[bucket(entries[base + CELL_X], entries[base + CELL_Y])] = after;
+        if (after != NONE) entries[after * STRIDE + PREV] = before;
+    }
+
+    /**
+     * @return The cell coordinate of a location coordinate (a shift instead of a division for power of two cell sizes).
+     */
+    private int cell(int coordinate)
+    {
+        return cellShift >= 0 ? coordinate >> cellShift : Math.floorDiv(coordinate, cellSize);
+    }
+
+    /**
+     * Neighbouring cells of a row fall into neighbouring buckets, so that a query reads
+     * runs of the bucket table rather than scattered slots.
+     */
+    private int bucket(int cx, int cy)
+    {
+        return (cx + cy * 0x61C88647) & mask;
+    }
+
+    private void grow(int capacity)
+    {
+        items = Arrays.copyOf(items, capacity);
+        entries = Arrays.copyOf(entries, capacity * STRIDE);
+    }
+
+    /**
+     * Rebuilds the buckets, e.g. after the number of buckets or the cell size changed.
+     */
+    private void rehash(int buckets)
+    {
+        heads = new int[buckets];
+        Arrays.fill(heads, NONE);
+        mask = buckets - 1;
+
+        for (int i = 0; i < used; i++)
+        {
+            if (items[i] != null) link(i, entries[i * STRIDE + X], entries[i * STRIDE + Y]);
+        }
+    }
+
+    /**
+     * Method used to supply the objects within a radius of a point.
+     *
+     * @param x       x-coordinate of the centre.
+     * @param y       y-coordinate of the centre.
+     * @param radius  The distance from the centre to the edge of the circle (inclusive).
+     * @param exclude An object to leave out (e.g. the one at the centre), or null.
+     * @param result  The list the objects are added to.
+     * @return The number of objects added.
+     */
+    @SuppressWarnings("unchecked")
+    public int getInRadius(int x, int y, int radius, Object exclude, List<? super T> result)
+    {
+        if (radius < 0 || size == 0) return 0;
+
+        long limit = (long) radius * radius;
+        int added = 0;
+
+        int cx0 = cell(x - radius), cx1 = cell(x + radius);
+        int cy0 = cell(y - radius), cy1 = cell(y + radius);
+
+        //Visiting more cells than there are objects costs more than looking at every object
+        if ((long) (cx1 - cx0 + 1) * (cy1 - cy0 + 1) > used)
+        {
+            for (int e = 0; e < used; e++)
+            {
+                if (items[e] == null || items[e] == exclude) continue;
+
+                int b = e * STRIDE;
+                long dx = entries[b + X] - x, dy = entries[b + Y] - y;
+                if (dx * dx + dy * dy <= limit)
+                {
+                    result.add((T) items[e]);
+                    added++;
+                }
+            }
+            return added;
+        }
+
+        for (int cy = cy0; cy <= cy1; cy++)
+        {
+            for (int cx = cx0; cx <= cx1; cx++)
+            {
+                for (int e = heads[bucket(cx, cy)]; e != NONE; e = entries[e * STRIDE + NEXT])
+                {
+                    int b = e * STRIDE;
+                    if (entries[b + CELL_X] != cx || entries[b + CELL_Y] != cy) continue;
+
+                    long dx = entries[b + X] - x, dy = entries[b + Y] - y;
+                    if (dx * dx + dy * dy <= limit && items[e] != exclude)
+                    {
+                        result.add((T) items[e]);
+                        added++;
+                    }
+                }
+            }
+        }
+
+        return added;
+    }
+
+    /**
+     * Method used to supply the objects located within an axis-aligned box.
+     *
+     * @param x0      Left edge of the box (inclusive).
+     * @param y0      Top edge of the box (inclusive).
+     * @param x1      Right edge of the box (inclusive).
+     * @param y1      Bottom edge of the box (inclusive).
+     * @param exclude An object to leave out, or null.
+     * @param result  The list the objects are added to.
+     * @return The number of objects added.
+     */
+    @SuppressWarnings("unchecked")
+    public int getInBox(int x0, int y0, int x1, int y1, Object exclude, List<? super T> result)
+    {
+        if (x0 > x1 || y0 > y1 || size == 0) return 0;
+
+        int added = 0;
+
+        int cx0 = cell(x0), cx1 = cell(x1);
+        int cy0 = cell(y0), cy1 = cell(y1);
+
+        if ((long) (cx1 - cx0 + 1) * (cy1 - cy0 + 1) > used)
+        {
+            for (int e = 0; e < used; e++)
+            {
+                if (items[e] == null || items[e] == exclude) continue;
+
+                int b = e * STRIDE;
+                if (entries[b + X] >= x0 && entries[b + X] <= x1 && entries[b + Y] >= y0 && entries[b + Y] <= y1)
+                {
+                    result.add((T) items[e]);
+                    added++;
+                }
+            }
+            return added;
+        }
+
+        for (int cy = cy0; cy <= cy1; cy++)
+        {
+            for (int cx = cx0; cx <= cx1; cx++)
+            {
+                for (int e = heads[bucket(cx, cy)]; e != NONE; e = entries[e * STRIDE + NEXT])
+                {
+                    int b = e * STRIDE;
+                    if (entries[b + CELL_X] != cx || entries[b + CELL_Y] != cy) continue;
+
+                    if (entries[b + X] >= x0 && entries[b + X] <= x1 && entries[b + Y] >= y0 && entries[b + Y] <= y1
+                            && items[e] != exclude)
+                    {
+                        result.add((T) items[e]);
+                        added++;
+                    }
+                }
+            }
+        }
+
+        return added;
+    }
+
+    /**
+     * Method used to supply the objects nearest to a point, closest first.
+     * <br>
+     * Cells are visited in growing rings around the point, until the nearest objects found
+     * so far are closer than anything outside the rings can be.
+     *
+     * @param x       x-coordinate of the point.
+     * @param y       y-coordinate of the point.
+     * @param k       The number of objects wanted.
+     * @param exclude An object to leave out (e.g. the one at the point), or null.
+     * @param result  The list the objects are added to.
+     * @return The number of objects added (less than k if the hash holds fewer objects).
+     */
+    @SuppressWarnings("unchecked")
+    public int getNearest(int x, int y, int k, Object exclude, List<? super T> result)
+    {
+        if (k <= 0 || size == 0) return 0;
+
+        if (nearestDistances.length < k)
+        {
+            nearestDistances = new long[k];
+            nearestEntries = new int[k];
+        }
+
+        int found = 0;
+        int ccx = cell(x), ccy = cell(y);
+
+        for (int ring = 0; ; ring++)
+        {
+            //Rings larger than the number of objects: look at every object instead
+            if ((long) (2 * ring + 1) * (2 * ring + 1) > 4L * used + 16)
+            {
+                found = 0;
+                for (int e = 0; e < used; e++)
+                {
+                    if (items[e] == null || items[e] == exclude) continue;
+                    found = offer(e, x, y, k, found);
+                }
+                break;
+            }
+
+            for (int cy = ccy - ring; cy <= ccy + ring; cy++)
+            {
+                //Only the border of the ring is new
+                int step = cy == ccy - ring || cy == ccy + ring ? 1 : 2 * ring;
+                for (int cx = ccx - ring; cx <= ccx + ring; cx += Math.max(1, step))
+                {
+                    for (int e = heads[bucket(cx, cy)]; e != NONE; e = entries[e * STRIDE + NEXT])
+                    {
+                        int b = e * STRIDE;
+                        if (entries[b + CELL_X] != cx || entries[b + CELL_Y] != cy || items[e] == exclude) continue;
+                        found = offer(e, x, y, k, found);
+                    }
+                }
+            }
+
+            //Distance from the point to the nearest cell outside the rings visited so far
+            long reach = Math.min(
+                    Math.min(x - (long) (ccx - ring) * cellSize, (long) (ccx + ring + 1) * cellSize - x),
+                    Math.min(y - (long) (ccy - ring) * cellSize, (long) (ccy + ring + 1) * cellSize - y));
+            if (found == k && nearestDistances[k - 1] <= reach * reach) break;
+        }
+
+        for (int i = 0; i < found; i++) result.add((T) items[nearestEntries[i]]);
+        return found;
+    }
+
+    /**
+     * Inserts an entry into the sorted nearest entries found so far if it is near enough.
+     *
+     * @return The new number of nearest entries.
+     */
+    private int offer(int entry, int x, int y, int k, int found)
+    {
+        long dx = entries[entry * STRIDE + X] - x, dy = entries[entry * STRIDE + Y] - y;
+        long distance = dx * dx + dy * dy;
+        if (found == k && distance >= nearestDistances[k - 1]) return found;
+
+        int i = found < k ? found++ : k - 1;
+        while (i > 0 && nearestDistances[i - 1] > distance)
+        {
+            nearestDistances[i] = nearestDistances[i - 1];
+            nearestEntries[i] = nearestEntries[i - 1];
+            i--;
+        }
+        nearestDistances[i] = distance;
+        nearestEntries[i] = entry;
+        return found;
+    }
+
+    /**
+     * Sets the width and height of a cell, moving every object into its new cell.
+     *
+     * @param cellSize Width and height of a cell, in pixels.
+     */
+    public void setCellSize(int cellSize)
+    {
+        if (cellSize <= 0) throw new IllegalArgumentException("Cell size must be positive! cellSize: " + cellSize);
+        if (cellSize == this.cellSize) return;
+
+        this.cellSize = cellSize;
+        cellShift = Integer.bitCount(cellSize) == 1 ? Integer.numberOfTrailingZeros(cellSize) : -1;
+        rehash(heads.length);
+    }
+
+    /**
+     * @return The width and height of a cell, in pixels.
+     */
+    public int getCellSize()
+    {
+        return cellSize;
+    }
+
+    /**
+     * @return The number of objects in the hash.
+     */
+    public int size()
+    {
+        return size;
+    }
+}
@@ -28,8 +28,7 @@ public abstract class Mob extends Object
 
         if (!isCollidingWithTile(xMove, yMove))
         {
-            location.x += xMove;
-            location.y += yMove;
+            setLocation(location.x + xMove, location.y + yMove);
         }
     }
 
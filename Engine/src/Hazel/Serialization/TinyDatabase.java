@@ -10,6 +10,8 @@ import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
 
+import Hazel.System.Profiler.DatabaseEvent;
+
 class TinyDatabase extends TinyBase
 {
 
@@ -43,7 +45,7 @@ class TinyDatabase extends TinyBase
         return size;
     }
 
-    private int getBytes(byte[] dest, int pointer)
+    int getBytes(byte[] dest, int pointer)
     {
         pointer = TinyUtils.writeBytes(dest, pointer, HEADER);
         pointer = TinyUtils.writeBytes(dest, pointer, VERSION);
@@ -59,7 +61,7 @@ class TinyDatabase extends TinyBase
         return pointer;
     }
 
-    private static TinyDatabase Deserialize(byte[] data)
+    static TinyDatabase Deserialize(byte[] data)
     {
         int pointer = 0;
         assert (TinyUtils.readString(data, pointer, HEADER.length).equals(HEADER));
@@ -109,6 +111,9 @@ class TinyDatabase extends TinyBase
 
     public static TinyDatabase DeserializeFromFile(String path)
     {
+        DatabaseEvent event = new DatabaseEvent();
+        event.begin();
+
         byte[] buffer = null;
         try
         {
@@ -121,11 +126,26 @@ class TinyDatabase extends TinyBase
             e.printStackTrace();
         }
 
-        return Deserialize(buffer);
+        TinyDatabase result = Deserialize(buffer);
+
+        event.end();
+        if (event.shouldCommit())
+        {
+            event.operation = DatabaseEvent.DESERIALIZE;
+            event.name = result != null ? result.getName() : null;
+            event.path = path;
+            event.bytes = buffer != null ? buffer.length : 0;
+            event.commit();
+        }
+
+        return result;
     }
 
     public void serializeToFile(String path)
     {
+        DatabaseEvent event = new DatabaseEvent();
+        event.begin();
+
         byte[] data = new byte[getSize()];
         getBytes(data, 0);
         try
@@ -137,5 +157,15 @@ class TinyDatabase extends TinyBase
         {
             e.printStackTrace();
         }
+
+        event.end();
+        if (event.shouldCommit())
+        {
+            event.operation = DatabaseEvent.SERIALIZE;
+            event.name = getName();
+            event.path = path;
+            event.bytes = data.length;
+            event.commit();
+        }
     }
 }
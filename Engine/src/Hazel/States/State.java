@@ -1,6 +1,7 @@
 package Hazel.States;
 
 import Hazel.GameEngine.Interfaces.Cortex;
+import Hazel.System.Profiler.Profiler;
 
 /**
  * {@code State} is the generic game state for a game.
@@ -11,6 +12,8 @@ public abstract class State implements Cortex
 {
     private String name; //The key of the state
     protected StateManager stateManager; //The game state manager object
+    final int updateScope; //Profiler scope of the state's updates
+    final int renderScope; //Profiler scope of the state's rendering
 
     /**
      * The constructor used to create a game state.
@@ -22,6 +25,8 @@ public abstract class State implements Cortex
     {
         this.name = name;
         this.stateManager = stateManager;
+        this.updateScope = Profiler.register("State.update[" + name + "]");
+        this.renderScope = Profiler.register("State.render[" + name + "]");
     }
 
     /**
@@ -7,6 +7,7 @@ import Hazel.GameEngine.Manager;
 import Hazel.GameEngine.Interfaces.Cortex;
 import Hazel.Graphics.Context;
 import Hazel.System.Error;
+import Hazel.System.Profiler.Profiler;
 
 /**
  * {@code GameStateManager} is the state manager class.
@@ -38,13 +39,19 @@ public class StateManager implements Cortex
     @Override
     public void update(Manager manager, double deltaTime)
     {
-        peek().update(manager, deltaTime);
+        State state = peek();
+        long start = Profiler.begin();
+        state.update(manager, deltaTime);
+        Profiler.end(state.updateScope, start);
     }
 
     @Override
     public void render(Manager manager, Context context)
     {
-        peek().render(manager, context);
+        State state = peek();
+        long start = Profiler.begin();
+        state.render(manager, context);
+        Profiler.end(state.renderScope, start);
     }
 
 
@@ -197,6 +197,14 @@ public abstract class Asset
         return name;
     }
 
+    /**
+     * @return The size of the loaded resource in memory, in bytes (0 if unknown or not loaded).
+     */
+    public long getSize()
+    {
+        return 0;
+    }
+
     /**
      * @return Checks if the asset has been cached.
      */
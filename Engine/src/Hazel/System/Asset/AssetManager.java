@@ -1,7 +1,9 @@
 package Hazel.System.Asset;
 
 import java.util.ArrayDeque;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Queue;
 
@@ -11,6 +13,8 @@ import Hazel.Graphics.Bitmap;
 import Hazel.Graphics.Sprites.Spritesheet;
 import Hazel.System.Error;
 import Hazel.System.Util;
+import Hazel.System.Profiler.AssetLoadEvent;
+import Hazel.System.Profiler.Profiler;
 import Hazel.System.Asset.Type.Audio.Audio;
 import Hazel.System.Asset.Type.Fonts.Font;
 import Hazel.System.Asset.Type.Images.Image;
@@ -52,6 +56,11 @@ public class AssetManager
      */
     private static final Queue<Asset> LOAD_QUEUE = new ArrayDeque<>();
 
+    /**
+     * Profiler scope of loading a single asset
+     */
+    private static final int LOAD_SCOPE = Profiler.register("AssetManager.load");
+
     /**
      * An instance of AssetManager
      */
@@ -91,7 +100,20 @@ public class AssetManager
         while (!isLoaded())
         {
             Asset asset = LOAD_QUEUE.peek();
+            long start = Profiler.begin();
+            AssetLoadEvent event = new AssetLoadEvent();
+            event.begin();
             assert asset != null; asset.load();
+            event.end();
+            Profiler.end(LOAD_SCOPE, start);
+            if (event.shouldCommit())
+            {
+                event.type = asset.getType();
+                event.name = asset.getName();
+                event.filePath = asset.getFilePath();
+                event.size = asset.getSize();
+                event.commit();
+            }
             Util.logCached(AssetManager.CLASS_NAME, asset.getFileName());
             LOAD_QUEUE.remove(asset);
         }
@@ -170,6 +192,23 @@ public class AssetManager
         return (type + ":" + name).toLowerCase();
     }
 
+    /**
+     * Supplies every registered asset of a given type.
+     *
+     * @param type The type associated with the resources (e.g. <code>Image.TYPE</code>).
+     * @return All registered assets of the type.
+     */
+    public synchronized static List<Asset> getAssets(String type)
+    {
+        String prefix = createKey(type, "");
+        List<Asset> assets = new ArrayList<>();
+        for (Map.Entry<String, Asset> entry : REGISTRAR.entrySet())
+        {
+            if (entry.getKey().startsWith(prefix)) assets.add(entry.getValue());
+        }
+        return assets;
+    }
+
     /**
      * @return The asset load queue.
      */
@@ -79,4 +79,13 @@ public class Audio extends Asset
 
         return (Clip) target;
     }
+
+    @Override
+    public synchronized long getSize()
+    {
+        if (target == null) return 0;
+
+        Clip clip = (Clip) target;
+        return (long) clip.getFrameLength() * Math.max(0, clip.getFormat().getFrameSize());
+    }
 }
@@ -2,6 +2,7 @@ package Hazel.System.Asset.Type.Fonts;
 
 import java.awt.image.BufferedImage;
 import java.io.IOException;
+import java.util.Arrays;
 import java.util.HashMap;
 
 import Hazel.Graphics.Bitmap;
@@ -16,6 +17,11 @@ public class Font extends Asset
 {
     public static final String TYPE = "Font";
 
+    /**
+     * Number of scales whose glyph bitmaps are kept; drawing at a further scale evicts the least recently used one
+     */
+    public static final int MAX_GLYPH_SCALES = 8;
+
     /**
      * Default font used by the engine
      */
@@ -65,6 +71,34 @@ public class Font extends Asset
      */
     private Tuple2i defaultGlyphSize;
 
+    /**
+     * Glyph index of each character up to the highest one in the glyph map (-1 if absent)
+     */
+    private int[] glyphIndex;
+
+    /**
+     * Advance width and sink of each glyph, indexed like the glyph map
+     */
+    private int[] glyphWidths, glyphSinks;
+
+    /**
+     * Glyph bitmaps at 1:1 scale, cropped on first use
+     */
+    private Bitmap[] glyphs;
+
+    /**
+     * Scales glyphs have been drawn at, most recently used first, and the glyph bitmaps generated for each of them.
+     * Text drawn at an animated scale keeps cycling through these slots instead of piling up tables.
+     */
+    private final float[] glyphScales = new float[MAX_GLYPH_SCALES];
+    private final Bitmap[][] scaledGlyphs = new Bitmap[MAX_GLYPH_SCALES][];
+    private int glyphScaleCount;
+
+    /**
+     * Incremented whenever the glyph bitmaps or metrics change, so retained layouts can tell they are out of date
+     */
+    private int revision;
+
     public Font(String name, String filePath, String glyphMap, int rows, int columns, Tuple2i defaultGlyphSize)
     {
         super(Font.TYPE, name, filePath);
@@ -80,6 +114,21 @@ public class Font extends Asset
             char glyph = glyphMap.charAt(i);
             kerningRules.put(glyph, defaultRule);
         }
+
+        int highest = 0;
+        for (int i = 0; i < glyphMap.length(); i++) highest = Math.max(highest, glyphMap.charAt(i));
+
+        glyphIndex = new int[highest + 1];
+        Arrays.fill(glyphIndex, -1);
+        glyphWidths = new int[glyphMap.length()];
+        glyphSinks = new int[glyphMap.length()];
+        for (int i = glyphMap.length() - 1; i >= 0; i--)
+        {
+            //Filled backwards so a character listed twice maps to its first glyph
+            glyphIndex[glyphMap.charAt(i)] = i;
+            glyphWidths[i] = defaultRule.glyphWidth;
+        }
+        glyphs = new Bitmap[glyphMap.length()];
     }
 
     @Override
@@ -105,6 +154,7 @@ public class Font extends Asset
         assert image != null;
         image = Image.convertTo(BufferedImage.TYPE_INT_ARGB, image);
         target = new Spritesheet(image, defaultGlyphSize, new Tuple2i(0, 0), 0, 0);
+        clearGlyphCache();
     }
 
     public static Spritesheet load(Class<?> className, String filePath, Tuple2i defaultGlyphSize)
@@ -142,9 +192,17 @@ public class Font extends Asset
         return (Spritesheet) target;
     }
 
+    @Override
+    public long getSize()
+    {
+        return target != null ? Image.getSize(((Spritesheet) target).getImage()) : 0;
+    }
+
     /**
      * Draws a string of text using the bitmap font at a specified location
      * with a color tint, custom glyph scaling and transparency.
+     * Glyphs are looked up in constant time and scaled glyphs are generated once
+     * per scale, so drawing text does not allocate.
      *
      * @param ctx   The Game render 'canvas'.
      * @param text  The string of message.
@@ -154,20 +212,47 @@ public class Font extends Asset
      * @param scale Custom sizing for each glyph.
      * @param alpha Custom alpha (transparency) to be applied to each glyph.
      */
-    public void render(Context ctx, String text, int x, int y, int color, float scale, float alpha)
+    public void render(Context ctx, CharSequence text, int x, int y, int color, float scale, float alpha)
+    {
+        render(ctx, text, null, 0, text.length(), x, y, color, scale, alpha);
+    }
+
+    /**
+     * Draws a range of characters using the bitmap font at a specified location
+     * with a color tint, custom glyph scaling and transparency.
+     *
+     * @param ctx    The Game render 'canvas'.
+     * @param text   Buffer holding the characters.
+     * @param offset Index of the first character to be drawn.
+     * @param length Number of characters to be drawn.
+     * @param x      x co-ordinate on screen.
+     * @param y      y co-ordinate on screen.
+     * @param color  Color tint to be applied to each glyph.
+     * @param scale  Custom sizing for each glyph.
+     * @param alpha  Custom alpha (transparency) to be applied to each glyph.
+     */
+    public void render(Context ctx, char[] text, int offset, int length, int x, int y, int color, float scale, float alpha)
+    {
+        render(ctx, null, text, offset, length, x, y, color, scale, alpha);
+    }
+
+    /**
+     * Draws characters read either from a sequence or from a buffer.
+     */
+    private void render(Context ctx, CharSequence sequence, char[] buffer, int offset, int length,
+                        int x, int y, int color, float scale, float alpha)
     {
         int xRender = x, yRender = y;
+        Bitmap[] glyphs = glyphsAt(scale);
 
-        for (int i = 0; i < text.length(); i++)
+        for (int i = 0; i < length; i++)
         {
-            int index = glyphMap.indexOf(text.charAt(i));
+            int index = indexOf(buffer != null ? buffer[offset + i] : sequence.charAt(offset + i));
             if (index < 0) continue;
 
             char c = glyphMap.charAt(index);
-            KerningRule kerning = getKerningRuleFor(c);
-            int glyphHeight = defaultGlyphSize.y;
-            int glyphWidth = kerning.glyphWidth;
-            int glyphSink = kerning.glyphSink;
+            int glyphWidth = glyphWidths[index];
+            int glyphSink = glyphSinks[index];
 
             if (c == ' ')
             {
@@ -178,25 +263,143 @@ public class Font extends Asset
             if (c == '\n')
             {
                 xRender = x;
-                yRender += (int) ((float) glyphHeight * scale / 6 * 7);
+                yRender += lineHeight(scale);
                 continue;
             }
 
-            Bitmap glyph = ((Spritesheet) target).crop(index % columns, index / columns);
             if (scale != 1.0f)
             {
-                glyph = glyph.getScaled(scale);
                 glyphWidth = (int) ((float) glyphWidth * scale);
                 glyphSink = (int) ((float) glyphSink * scale);
-                glyphHeight = (int) ((float) glyphHeight * scale);
             }
 
-            ctx.renderBitmap(glyph, xRender, yRender + glyphSink, alpha, color);
+            ctx.renderBitmap(glyph(glyphs, index, scale), xRender, yRender + glyphSink, alpha, color);
 
             xRender += glyphWidth;
         }
     }
 
+    /**
+     * Supplies the index of the glyph for a character.
+     *
+     * @param c Character to be looked up.
+     * @return Index of the glyph within the glyph map, or -1 if the font has none.
+     */
+    public int indexOf(char c)
+    {
+        return c < glyphIndex.length ? glyphIndex[c] : -1;
+    }
+
+    /**
+     * Supplies a glyph bitmap at a given scale, generating it on first use.
+     *
+     * @param index Index of the glyph within the glyph map.
+     * @param scale Custom sizing of the glyph.
+     * @return The glyph bitmap.
+     */
+    Bitmap glyphAt(int index, float scale)
+    {
+        return glyph(glyphsAt(scale), index, scale);
+    }
+
+    /**
+     * @return The character of a glyph in the glyph map.
+     */
+    char charOf(int index)
+    {
+        return glyphMap.charAt(index);
+    }
+
+    /**
+     * @return The unscaled advance width of a glyph.
+     */
+    int advanceOf(int index)
+    {
+        return glyphWidths[index];
+    }
+
+    /**
+     * @return The unscaled sink of a glyph.
+     */
+    int sinkOf(int index)
+    {
+        return glyphSinks[index];
+    }
+
+    /**
+     * @return Revision of the glyph bitmaps and metrics, incremented whenever they change.
+     */
+    int getRevision()
+    {
+        return revision;
+    }
+
+    /**
+     * @return Distance between two lines of text at a given scale.
+     */
+    int lineHeight(float scale)
+    {
+        return (int) ((float) defaultGlyphSize.y * scale / 6 * 7);
+    }
+
+    /**
+     * Supplies the glyph bitmaps generated for a scale, registering the scale if it is new.
+     * The scale becomes the most recently used one; if all slots are taken, the table of the
+     * least recently used scale is emptied and reused for it.
+     */
+    private Bitmap[] glyphsAt(float scale)
+    {
+        if (scale == 1.0f) return glyphs;
+
+        int i = 0;
+        while (i < glyphScaleCount && glyphScales[i] != scale) i++;
+        if (i == 0 && glyphScaleCount > 0) return scaledGlyphs[0];
+
+        Bitmap[] table;
+        if (i < glyphScaleCount) table = scaledGlyphs[i];
+        else if (glyphScaleCount < MAX_GLYPH_SCALES)
+        {
+            table = new Bitmap[glyphMap.length()];
+            i = glyphScaleCount++;
+        } else
+        {
+            i = MAX_GLYPH_SCALES - 1;
+            table = scaledGlyphs[i];
+            Arrays.fill(table, null);
+        }
+
+        System.arraycopy(glyphScales, 0, glyphScales, 1, i);
+        System.arraycopy(scaledGlyphs, 0, scaledGlyphs, 1, i);
+        glyphScales[0] = scale;
+        scaledGlyphs[0] = table;
+        return table;
+    }
+
+    /**
+     * Supplies a glyph bitmap from a scale's table, cropping or scaling it on first use.
+     */
+    private Bitmap glyph(Bitmap[] table, int index, float scale)
+    {
+        Bitmap glyph = table[index];
+        if (glyph != null) return glyph;
+
+        glyph = ((Spritesheet) target).crop(index % columns, index / columns);
+        if (scale != 1.0f) glyph = glyph.getScaled(scale);
+        table[index] = glyph;
+        return glyph;
+    }
+
+    /**
+     * Discards every cropped and scaled glyph, e.g. after the font image has changed.
+     */
+    public void clearGlyphCache()
+    {
+        Arrays.fill(glyphs, null);
+        Arrays.fill(scaledGlyphs, null);
+        glyphScaleCount = 0;
+        revision++;
+    }
+
     /**
      * Assigns a spacing rule for a set of glyphs.
      *
@@ -223,6 +426,12 @@ public class Font extends Asset
     {
         KerningRule rule = new KerningRule(glyphWidth, glyphSink);
         kerningRules.put(c, rule);
+
+        int index = indexOf(c);
+        if (index < 0) return;
+        glyphWidths[index] = glyphWidth;
+        glyphSinks[index] = glyphSink;
+        revision++;
     }
 
     /**
@@ -231,36 +440,42 @@ public class Font extends Asset
      * @param text Text used to calculate width.
      * @return Width of the given text.
      */
-    public int widthOf(String text)
+    public int widthOf(CharSequence text)
     {
         return widthOf(text, 1.0f);
     }
 
     /**
      * Supplies the width of a string using this font at a custom scaling.
+     * For text spanning several lines, this is the width of the widest line.
      *
      * @param text  Text used to calculate width.
      * @param scale Scale at which this string would be hypothetically rendered in.
      * @return The width of a string using this font at a custom scaling.
      */
-    public int widthOf(String text, float scale)
+    public int widthOf(CharSequence text, float scale)
     {
-        int width = 0;
+        int width = 0, lineWidth = 0;
         for (int i = 0; i < text.length(); i++)
         {
-            int index = text.indexOf(text.charAt(i));
+            int index = indexOf(text.charAt(i));
             if (index < 0) continue;
 
-            char c = text.charAt(index);
-            KerningRule kerning = getKerningRuleFor(c);
-            int glyphWidth = kerning.glyphWidth;
+            if (glyphMap.charAt(index) == '\n')
+            {
+                width = Math.max(width, lineWidth);
+                lineWidth = 0;
+                continue;
+            }
+
+            int glyphWidth = glyphWidths[index];
             if (scale != 1f)
             {
                 glyphWidth = (int) ((float) glyphWidth * scale);
             }
-            width += glyphWidth;
+            lineWidth += glyphWidth;
         }
-        return width;
+        return Math.max(width, lineWidth);
     }
 
     /**
@@ -0,0 +1,438 @@
+package Hazel.System.Asset.Type.Fonts;
+
+import java.util.Arrays;
+
+import Hazel.Graphics.Bitmap;
+import Hazel.Graphics.Color;
+import Hazel.Graphics.Context;
+import Hazel.System.Util;
+
+/**
+ * A retained layout of a piece of text drawn with a bitmap font.
+ * <p>
+ * The glyphs of the text are looked up, kerned and positioned once, and the resulting
+ * glyph runs are replayed every frame until the text, color or scale changes. Setting the
+ * same text again is detected and costs a comparison only, so labels, menu items and
+ * counters can be updated every frame without allocating. A layout can also be
+ * composited into a single bitmap, so that it is drawn as one transfer.
+ */
+public class TextLayout
+{
+    /**
+     * Font used to lay out the text
+     */
+    private final Font font;
+
+    /**
+     * Color tint and scale of the glyphs
+     */
+    private int color;
+    private float scale;
+
+    /**
+     * Characters of the text
+     */
+    private char[] text = new char[16];
+    private int length;
+
+    /**
+     * Scratch space for formatting numbers
+     */
+    private final char[] digits = new char[20];
+
+    /**
+     * Positioned glyphs, relative to the top-left corner of the layout
+     */
+    private Bitmap[] glyphs = new Bitmap[16];
+    private int[] xs = new int[16], ys = new int[16];
+    private int count;
+
+    /**
+     * Offset of the area covered by the glyphs from the top-left corner of the layout
+     * (negative if a glyph rises above the first line or starts left of the origin), and its size
+     */
+    private int left, top;
+    private int width, height;
+
+    /**
+     * Whether the glyph runs reflect the text, color and scale
+     */
+    private boolean valid;
+
+    /**
+     * Revision of the font's glyphs and metrics the glyph runs were laid out with
+     */
+    private int fontRevision;
+
+    /**
+     * Whether the layout is drawn from a single pre-composited bitmap
+     */
+    private boolean composited;
+
+    /**
+     * Pre-composited glyphs (null until needed)
+     */
+    private Bitmap composite;
+
+    /**
+     * Creates an empty layout with untinted glyphs at 1:1 scale.
+     *
+     * @param font Font used to lay out the text.
+     */
+    public TextLayout(Font font)
+    {
+        this(font, 0x00000000, 1.0f);
+    }
+
+    /**
+     * Creates an empty layout.
+     *
+     * @param font  Font used to lay out the text.
+     * @param color Color tint to be applied to each glyph.
+     * @param scale Custom sizing for each glyph.
+     */
+    public TextLayout(Font font, int color, float scale)
+    {
+        if (font == null) throw new IllegalArgumentException("A text layout requires a font!");
+
+        this.font = font;
+        this.color = color;
+        this.scale = scale;
+    }
+
+    /**
+     * Sets the text of the layout. Nothing is laid out again if the text is unchanged.
+     *
+     * @param text Text to be laid out.
+     * @return Whether the text has changed.
+     */
+    public boolean setText(CharSequence text)
+    {
+        int n = text.length();
+        if (n == length)
+        {
+            int i = 0;
+            while (i < n && this.text[i] == text.charAt(i)) i++;
+            if (i == n) return false;
+        }
+
+        reserve(n);
+        for (int i = 0; i < n; i++) this.text[i] = text.charAt(i);
+        length = n;
+        invalidate();
+        return true;
+    }
+
+    /**
+     * Sets the text of the layout from a range of a character buffer.
+     * Nothing is laid out again if the text is unchanged.
+     *
+     * @param text   Buffer holding the characters.
+     * @param offset Index of the first character.
+     * @param length Number of characters.
+     * @return Whether the text has changed.
+     */
+    public boolean setText(char[] text, int offset, int length)
+    {
+        if (length == this.length)
+        {
+            int i = 0;
+            while (i < length && this.text[i] == text[offset + i]) i++;
+            if (i == length) return false;
+        }
+
+        reserve(length);
+        System.arraycopy(text, offset, this.text, 0, length);
+        this.length = length;
+        invalidate();
+        return true;
+    }
+
+    /**
+     * Sets the text of the layout to the decimal representation of a number, without
+     * creating a <code>String</code>.
+     *
+     * @param value Number to be laid out.
+     * @return Whether the text has changed.
+     */
+    public boolean setNumber(long value)
+    {
+        int start = Util.getChars(value, digits);
+        return setText(digits, start, digits.length - start);
+    }
+
+    /**
+     * Sets the color tint of the glyphs.
+     *
+     * @param color Color tint to be applied to each glyph.
+     */
+    public void setColor(int color)
+    {
+        if (color == this.color) return;
+
+        this.color = color;
+        invalidate();
+    }
+
+    /**
+     * Sets the scale of the glyphs.
+     *
+     * @param scale Custom sizing for each glyph.
+     */
+    public void setScale(float scale)
+    {
+        if (scale == this.scale) return;
+
+        this.scale = scale;
+        invalidate();
+    }
+
+    /**
+     * Sets whether the layout is drawn from a single pre-composited bitmap instead of
+     * one transfer per glyph. Compositing suits long, rarely changing text.
+     *
+     * @param composited Whether the glyphs are pre-composited.
+     */
+    public void setComposited(boolean composited)
+    {
+        this.composited = composited;
+        if (!composited) composite = null;
+    }
+
+    /**
+     * Draws the text with its top-left corner at a specified location.
+     *
+     * @param ctx The Game render 'canvas'.
+     * @param x   x co-ordinate on screen.
+     * @param y   y co-ordinate on screen.
+     */
+    public void render(Context ctx, int x, int y)
+    {
+        render(ctx, x, y, 1.0f);
+    }
+
+    /**
+     * Draws the text with its top-left corner at a specified location and a custom transparency.
+     *
+     * @param ctx   The Game render 'canvas'.
+     * @param x     x co-ordinate on screen.
+     * @param y     y co-ordinate on screen.
+     * @param alpha Custom alpha (transparency) to be applied to the text.
+     */
+    public void render(Context ctx, int x, int y, float alpha)
+    {
+        layout();
+
+        if (composited)
+        {
+            Bitmap bitmap = toBitmap();
+            if (bitmap != null) ctx.renderBitmap(bitmap, x + left, y + top, alpha);
+            return;
+        }
+
+        for (int i = 0; i < count; i++)
+        {
+            ctx.renderBitmap(glyphs[i], x + xs[i], y + ys[i], alpha, color);
+        }
+    }
+
+    /**
+     * Supplies the glyphs of the layout composited into a single, already tinted bitmap.
+     * The bitmap covers the area from {@link #getLeft()}, {@link #getTop()} relative to the
+     * top-left corner of the layout, and is kept until the layout changes.
+     *
+     * @return The composited text, or null if the layout covers no pixels.
+     */
+    public Bitmap toBitmap()
+    {
+        layout();
+        if (composite != null) return composite;
+        if (width <= 0 || height <= 0) return null;
+
+        Bitmap bitmap = new Bitmap(width, height);
+        int[] dst = bitmap.getBackingData();
+
+        for (int i = 0; i < count; i++)
+        {
+            Bitmap glyph = glyphs[i];
+            int[] src = glyph.getBackingData();
+            int w = glyph.pixelWidth(), h = glyph.pixelHeight();
+
+            for (int row = 0; row < h; row++)
+            {
+                int srcRow = glyph.getOffset() + row * glyph.getStride();
+                int dstRow = (ys[i] - top + row) * width + xs[i] - left;
+                for (int column = 0; column < w; column++)
+                {
+                    int pixel = src[srcRow + column];
+                    int pixelAlpha = pixel >>> 24;
+                    if (pixelAlpha == 0) continue;
+
+                    //The tint replaces the color channels only, so glyph edges stay translucent
+                    if (color != 0) pixel = (pixelAlpha << 24) | (Color.tint(pixel, color) & 0x00FFFFFF);
+                    dst[dstRow + column] = pixel;
+                }
+            }
+        }
+
+        bitmap.updateSpans();
+        composite = bitmap;
+        return composite;
+    }
+
+    /**
+     * Positions the glyphs of the text, unless they already reflect it and the font is unchanged.
+     */
+    private void layout()
+    {
+        if (fontRevision != font.getRevision()) invalidate();
+        if (valid) return;
+
+        fontRevision = font.getRevision();
+
+        count = 0;
+        left = 0;
+        top = 0;
+        int right = 0, bottom = 0;
+
+        int x = 0, y = 0;
+        for (int i = 0; i < length; i++)
+        {
+            int index = font.indexOf(text[i]);
+            if (index < 0) continue;
+
+            char c = font.charOf(index);
+            int glyphWidth = font.advanceOf(index);
+            int glyphSink = font.sinkOf(index);
+
+            if (c == ' ')
+            {
+                x += (int) ((float) glyphWidth * scale);
+                continue;
+            }
+
+            if (c == '\n')
+            {
+                x = 0;
+                y += font.lineHeight(scale);
+                continue;
+            }
+
+            if (scale != 1.0f)
+            {
+                glyphWidth = (int) ((float) glyphWidth * scale);
+                glyphSink = (int) ((float) glyphSink * scale);
+            }
+
+            Bitmap glyph = font.glyphAt(index, scale);
+            add(glyph, x, y + glyphSink);
+            left = Math.min(left, x);
+            top = Math.min(top, y + glyphSink);
+            right = Math.max(right, x + glyph.pixelWidth());
+            bottom = Math.max(bottom, y + glyphSink + glyph.pixelHeight());
+
+            x += glyphWidth;
+        }
+
+        width = right - left;
+        height = bottom - top;
+        valid = true;
+    }
+
+    /**
+     * Appends a positioned glyph, growing the storage if needed.
+     */
+    private void add(Bitmap glyph, int x, int y)
+    {
+        if (count == glyphs.length)
+        {
+            int capacity = count * 2;
+            glyphs = Arrays.copyOf(glyphs, capacity);
+            xs = Arrays.copyOf(xs, capacity);
+            ys = Arrays.copyOf(ys, capacity);
+        }
+
+        glyphs[count] = glyph;
+        xs[count] = x;
+        ys[count] = y;
+        count++;
+    }
+
+    /**
+     * Makes room for a text of a given length.
+     */
+    private void reserve(int length)
+    {
+        if (length > text.length) text = Arrays.copyOf(text, Math.max(length, text.length * 2));
+    }
+
+    /**
+     * Marks the glyph runs and the composited bitmap as out of date.
+     */
+    private void invalidate()
+    {
+        valid = false;
+        composite = null;
+    }
+
+    /**
+     * @return Font used to lay out the text.
+     */
+    public Font getFont()
+    {
+        return font;
+    }
+
+    /**
+     * @return Number of characters of the text.
+     */
+    public int length()
+    {
+        return length;
+    }
+
+    /**
+     * @return Number of glyphs drawn by the layout.
+     */
+    public int getGlyphCount()
+    {
+        layout();
+        return count;
+    }
+
+    /**
+     * @return Horizontal offset of the area covered by the glyphs from the left edge of the layout (0 or less).
+     */
+    public int getLeft()
+    {
+        layout();
+        return left;
+    }
+
+    /**
+     * @return Vertical offset of the area covered by the glyphs from the top edge of the layout (0 or less).
+     */
+    public int getTop()
+    {
+        layout();
+        return top;
+    }
+
+    /**
+     * @return Width of the area covered by the glyphs.
+     */
+    public int getWidth()
+    {
+        layout();
+        return width;
+    }
+
+    /**
+     * @return Height of the area covered by the glyphs.
+     */
+    public int getHeight()
+    {
+        layout();
+        return height;
+    }
+}
@@ -4,8 +4,10 @@ import java.awt.*;
 import java.awt.geom.AffineTransform;
 import java.awt.image.AffineTransformOp;
 import java.awt.image.BufferedImage;
+import java.awt.image.DataBuffer;
 import java.awt.image.DataBufferInt;
-import java.awt.image.VolatileImage;
+import java.awt.image.Raster;
+import java.awt.image.SinglePixelPackedSampleModel;
 import java.io.IOException;
 import java.io.InputStream;
 import java.nio.file.Files;
@@ -16,6 +18,7 @@ import javax.imageio.ImageIO;
 
 import Hazel.Graphics.Bitmap;
 import Hazel.Graphics.Context;
+import Hazel.Graphics.Scaler;
 import Hazel.Graphics.Sprites.Sprite;
 import Hazel.Graphics.Sprites.Spritesheet;
 import Hazel.System.Error;
@@ -144,6 +147,22 @@ public class Image extends Asset
         return (BufferedImage) target;
     }
 
+    @Override
+    public long getSize()
+    {
+        return target != null ? getSize((BufferedImage) target) : 0;
+    }
+
+    /**
+     * @param image The image in question.
+     * @return The size of the pixel data of the image, in bytes.
+     */
+    public static long getSize(BufferedImage image)
+    {
+        DataBuffer buffer = image.getRaster().getDataBuffer();
+        return (long) buffer.getSize() * buffer.getNumBanks() * DataBuffer.getDataTypeSize(buffer.getDataType()) / 8;
+    }
+
     /**
      * Crops the image into a given width and height based
      * on the inputted x-coordinate, and y-coordinate.
@@ -266,7 +285,8 @@ public class Image extends Asset
     }
 
     /**
-     * Generates a scaled version of a given image based on a new given dimension.
+     * Generates a scaled version of a given image based on a new given dimension,
+     * using nearest-neighbour sampling.
      *
      * @param width  Width of scaled bitmap.
      * @param height Height of scaled bitmap.
@@ -274,44 +294,60 @@ public class Image extends Asset
      */
     public static BufferedImage getScaledImage(BufferedImage image, int width, int height)
     {
-        VolatileImage img = GraphicsEnvironment.getLocalGraphicsEnvironment()
-                .getDefaultScreenDevice().getDefaultConfiguration()
-                .createCompatibleVolatileImage(width, height, VolatileImage.TRANSLUCENT);
-        Graphics2D _g = img.createGraphics();
-        _g.setComposite(AlphaComposite.DstOut);
-        _g.setColor(new Color(0f, 0f, 0f, 0f));
-        _g.fillRect(0, 0, width, height);
-        _g.setComposite(AlphaComposite.Src);
-        _g.drawImage(image, 0, 0, width, height, null);
-        _g.dispose();
-        BufferedImage result = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
-        result.setRGB(0, 0, width, height, img.getSnapshot().getRGB(0, 0, width, height, null, 0, width), 0, width);
-        return result;
+        return getScaledImage(image, width, height, Scaler.NEAREST);
     }
 
-    public static BufferedImage getFlipped(BufferedImage image, boolean horizontal, boolean vertical)
+    /**
+     * Generates a scaled version of a given image based on a new given dimension.
+     * Scaling is done in software and does not require a display device.
+     *
+     * @param width  Width of scaled bitmap.
+     * @param height Height of scaled bitmap.
+     * @param filter Scaling filter (<code>Scaler.NEAREST</code> or <code>Scaler.BILINEAR</code>).
+     * @return The scaled version of a given image based on a new given dimension.
+     */
+    public static BufferedImage getScaledImage(BufferedImage image, int width, int height, int filter)
     {
-        if (!horizontal && !vertical) return image;
-
-        BufferedImage result = null;
+        int[] data;
+        int offset = 0, stride = image.getWidth();
 
-        if (horizontal && !vertical)
+        //Sub-images share the raster of their parent, at an offset and with the parent's scanline stride
+        Raster raster = image.getRaster();
+        if (image.getType() == BufferedImage.TYPE_INT_ARGB && raster.getSampleModel() instanceof SinglePixelPackedSampleModel)
         {
-            AffineTransform affineTransform = AffineTransform.getScaleInstance(-1, 1);
-            affineTransform.translate(-image.getWidth(null), 0);
-            AffineTransformOp affineTransformOp = new AffineTransformOp(affineTransform, AffineTransformOp.TYPE_NEAREST_NEIGHBOR);
-            result = affineTransformOp.filter(image, null);
-        } else if (!horizontal)
+            SinglePixelPackedSampleModel model = (SinglePixelPackedSampleModel) raster.getSampleModel();
+            DataBufferInt buffer = (DataBufferInt) raster.getDataBuffer();
+            data = buffer.getData();
+            stride = model.getScanlineStride();
+            offset = buffer.getOffset() + model.getOffset(-raster.getSampleModelTranslateX(), -raster.getSampleModelTranslateY());
+        } else
         {
-            AffineTransform affineTransform = AffineTransform.getScaleInstance(1, -1);
-            affineTransform.translate(0, -image.getHeight(null));
-            AffineTransformOp affineTransformOp = new AffineTransformOp(affineTransform, AffineTransformOp.TYPE_NEAREST_NEIGHBOR);
-            result = affineTransformOp.filter(image, null);
+            data = image.getRGB(0, 0, image.getWidth(), image.getHeight(), null, 0, image.getWidth());
         }
 
+        BufferedImage result = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+        Scaler.scale(data, offset, stride, image.getWidth(), image.getHeight(), getData(result), width, height, filter);
         return result;
     }
 
+    /**
+     * Creates a mirrored copy of a given image.
+     *
+     * @param image      The image to be mirrored.
+     * @param horizontal Flag for mirroring left to right.
+     * @param vertical   Flag for mirroring upside down.
+     * @return The mirrored copy, or the image itself if neither flag is set.
+     */
+    public static BufferedImage getFlipped(BufferedImage image, boolean horizontal, boolean vertical)
+    {
+        if (!horizontal && !vertical) return image;
+
+        AffineTransform affineTransform = AffineTransform.getScaleInstance(horizontal ? -1 : 1, vertical ? -1 : 1);
+        affineTransform.translate(horizontal ? -image.getWidth(null) : 0, vertical ? -image.getHeight(null) : 0);
+        AffineTransformOp affineTransformOp = new AffineTransformOp(affineTransform, AffineTransformOp.TYPE_NEAREST_NEIGHBOR);
+        return affineTransformOp.filter(image, null);
+    }
+
     /**
      * Extracts the pixel data of a given image based on a file-path.
      *
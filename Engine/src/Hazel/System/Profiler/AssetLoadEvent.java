@@ -0,0 +1,34 @@
+package Hazel.System.Profiler;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * {@code AssetLoadEvent} is the Flight Recorder event of loading a single asset.
+ * <br>
+ * The duration of the event is the time taken to read and decode the resource. It is
+ * enabled and disabled through the {@code Hazel.AssetLoad} entry of the recording settings.
+ */
+@Name("Hazel.AssetLoad")
+@Label("Asset Load")
+@Category({"Hazel", "Assets"})
+@Description("Loading and decoding of a single asset")
+public class AssetLoadEvent extends jdk.jfr.Event
+{
+    @Label("Type")
+    public String type;
+
+    @Label("Name")
+    public String name;
+
+    @Label("File Path")
+    public String filePath;
+
+    @Label("Size")
+    @Description("Size of the decoded resource in memory")
+    @DataAmount
+    public long size;
+}
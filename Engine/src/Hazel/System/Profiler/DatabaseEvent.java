@@ -0,0 +1,35 @@
+package Hazel.System.Profiler;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * {@code DatabaseEvent} is the Flight Recorder event of writing or reading a database file.
+ * <br>
+ * It is enabled and disabled through the {@code Hazel.Database} entry of the recording settings.
+ */
+@Name("Hazel.Database")
+@Label("Database")
+@Category({"Hazel", "Serialization"})
+@Description("Serialization or deserialization of a database file")
+public class DatabaseEvent extends jdk.jfr.Event
+{
+    public static final String SERIALIZE = "serialize";
+    public static final String DESERIALIZE = "deserialize";
+
+    @Label("Operation")
+    public String operation;
+
+    @Label("Name")
+    public String name;
+
+    @Label("Path")
+    public String path;
+
+    @Label("Bytes")
+    @DataAmount
+    public long bytes;
+}
@@ -0,0 +1,46 @@
+package Hazel.System.Profiler;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+/**
+ * {@code FrameEvent} is the Flight Recorder event of a single iteration of the game loop.
+ * <br>
+ * The event spans the whole iteration and carries the time spent in each phase, so that
+ * engine frames can be lined up with garbage collections and allocations of the same
+ * recording. It is enabled and disabled like any other event, through the
+ * {@code Hazel.Frame} entry of the recording settings.
+ */
+@Name("Hazel.Frame")
+@Label("Frame")
+@Category({"Hazel", "Game Loop"})
+@Description("A single iteration of the game loop")
+@StackTrace(false)
+public class FrameEvent extends jdk.jfr.Event
+{
+    @Label("Frame")
+    @Description("Number of the frame since the engine started")
+    public long frame;
+
+    @Label("Updates")
+    @Description("Number of updates run during the frame")
+    public int updates;
+
+    @Label("Update Time")
+    @Timespan(Timespan.NANOSECONDS)
+    public long updateTime;
+
+    @Label("Render Time")
+    @Description("Time spent rendering, or recording the frame when the render thread is used")
+    @Timespan(Timespan.NANOSECONDS)
+    public long renderTime;
+
+    @Label("Present Time")
+    @Description("Time spent presenting the latest frame")
+    @Timespan(Timespan.NANOSECONDS)
+    public long presentTime;
+}
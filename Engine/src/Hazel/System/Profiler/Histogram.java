@@ -0,0 +1,142 @@
+package Hazel.System.Profiler;
+
+import java.util.Arrays;
+
+/**
+ * {@code Histogram} is a log-linear histogram of durations.
+ * <br>
+ * Values are counted in buckets whose width doubles every power of two, and every power of
+ * two is split into 16 linear sub-buckets, so any recorded value is known to within about
+ * 6% across the whole range (in the manner of an HDR histogram). Recording is a handful
+ * of integer operations and never allocates.
+ */
+public class Histogram
+{
+    private static final int SUB_BITS = 4; //Number of bits of linear precision within a power of two
+    private static final int SUB_BUCKETS = 1 << SUB_BITS; //Number of sub-buckets per power of two
+    private static final int BUCKETS = (64 - SUB_BITS) * SUB_BUCKETS + SUB_BUCKETS; //Buckets covering every positive long
+
+    private final long[] counts = new long[BUCKETS]; //Number of values recorded in each bucket
+    private long count; //Number of values recorded
+    private long total; //Sum of all recorded values
+    private long min = Long.MAX_VALUE; //Smallest recorded value
+    private long max; //Largest recorded value
+
+    /**
+     * Method used to record a value.
+     *
+     * @param value The value to record (negative values are recorded as 0).
+     */
+    public void record(long value)
+    {
+        if (value < 0) value = 0;
+
+        counts[indexOf(value)]++;
+        count++;
+        total += value;
+        if (value < min) min = value;
+        if (value > max) max = value;
+    }
+
+    /**
+     * Method used to supply the value below which a given percentage of the recorded values fall.
+     *
+     * @param percentile The percentage (between 0 and 100).
+     * @return The value at the percentile, accurate to the width of its bucket (0 if empty).
+     */
+    public long getValueAtPercentile(double percentile)
+    {
+        if (count == 0) return 0;
+
+        long rank = Math.max(1, (long) Math.ceil(Math.min(100, Math.max(0, percentile)) / 100 * count));
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++)
+        {
+            seen += counts[i];
+            if (seen >= rank) return Math.max(min, Math.min(max, highestValueOf(i)));
+        }
+        return max;
+    }
+
+    /**
+     * Method used to add the values recorded by another histogram to this one.
+     *
+     * @param other The histogram to add.
+     */
+    public void add(Histogram other)
+    {
+        for (int i = 0; i < BUCKETS; i++) counts[i] += other.counts[i];
+        count += other.count;
+        total += other.total;
+        min = Math.min(min, other.min);
+        max = Math.max(max, other.max);
+    }
+
+    /**
+     * Method used to discard every recorded value.
+     */
+    public void reset()
+    {
+        Arrays.fill(counts, 0);
+        count = 0;
+        total = 0;
+        min = Long.MAX_VALUE;
+        max = 0;
+    }
+
+    /**
+     * @return The bucket a value is counted in.
+     */
+    private static int indexOf(long value)
+    {
+        if (value < SUB_BUCKETS) return (int) value;
+
+        int exponent = 63 - Long.numberOfLeadingZeros(value);
+        int shift = exponent - SUB_BITS;
+        return (shift + 1) * SUB_BUCKETS + (int) ((value >>> shift) & (SUB_BUCKETS - 1));
+    }
+
+    /**
+     * @return The largest value counted in a bucket.
+     */
+    private static long highestValueOf(int index)
+    {
+        if (index < SUB_BUCKETS) return index;
+
+        int shift = index / SUB_BUCKETS - 1;
+        long lowest = (long) (SUB_BUCKETS + index % SUB_BUCKETS) << shift;
+        return lowest + (1L << shift) - 1;
+    }
+
+    /**
+     * @return The number of recorded values.
+     */
+    public long getCount()
+    {
+        return count;
+    }
+
+    /**
+     * @return The mean of the recorded values (0 if empty).
+     */
+    public double getMean()
+    {
+        return count > 0 ? (double) total / count : 0;
+    }
+
+    /**
+     * @return The smallest recorded value (0 if empty).
+     */
+    public long getMin()
+    {
+        return count > 0 ? min : 0;
+    }
+
+    /**
+     * @return The largest recorded value.
+     */
+    public long getMax()
+    {
+        return max;
+    }
+}
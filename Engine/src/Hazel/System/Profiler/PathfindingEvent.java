@@ -0,0 +1,39 @@
+package Hazel.System.Profiler;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * {@code PathfindingEvent} is the Flight Recorder event of a single path search.
+ * <br>
+ * It is enabled and disabled through the {@code Hazel.Pathfinding} entry of the recording
+ * settings; a threshold keeps only the slow searches.
+ */
+@Name("Hazel.Pathfinding")
+@Label("Pathfinding")
+@Category({"Hazel", "Pathfinding"})
+@Description("A single path search")
+public class PathfindingEvent extends jdk.jfr.Event
+{
+    @Label("Start X")
+    public int startX;
+
+    @Label("Start Y")
+    public int startY;
+
+    @Label("Goal X")
+    public int goalX;
+
+    @Label("Goal Y")
+    public int goalY;
+
+    @Label("Nodes Expanded")
+    @Description("Number of nodes taken off the open list")
+    public int nodesExpanded;
+
+    @Label("Path Length")
+    @Description("Number of nodes of the path found (0 when none was found)")
+    public int pathLength;
+}
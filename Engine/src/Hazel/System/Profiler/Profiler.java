@@ -0,0 +1,238 @@
+package Hazel.System.Profiler;
+
+import java.util.Arrays;
+import java.util.HashMap;
+
+/**
+ * {@code Profiler} is the engine's frame profiler.
+ * <br>
+ * Code is timed in named scopes. A scope is registered once, and each timed section is
+ * wrapped in a {@code begin()} / {@code end()} pair:
+ * <pre>
+ *     private static final int SCOPE = Profiler.register("ObjectManager.update");
+ *     ...
+ *     long start = Profiler.begin();
+ *     ...
+ *     Profiler.end(SCOPE, start);
+ * </pre>
+ * Every timed section is recorded in a log-linear histogram of its scope, giving its
+ * percentiles and maximum, and added to the scope's total for the current frame. When a
+ * frame ends, the totals are kept in a ring buffer of the last {@code HISTORY} frames, so
+ * that single slow frames can be told apart from the average. While the profiler is
+ * disabled, {@code begin()} and {@code end()} only read a flag.
+ */
+public final class Profiler
+{
+    public static final int HISTORY = 240; //Number of frames whose totals are kept
+
+    private static volatile boolean enabled = false; //Whether timed sections are recorded
+
+    private static final HashMap<String, Integer> ids = new HashMap<>(); //The scope ids by name
+    private static String[] names = new String[0]; //The name of each scope
+    private static Histogram[] histograms = new Histogram[0]; //Durations of the timed sections of each scope
+    private static long[] frameTotals = new long[0]; //Time spent in each scope during the current frame
+    private static long[][] history = new long[0][]; //Time spent in each scope during the last frames
+    private static long frames; //Number of frames ended while enabled
+
+    /**
+     * Method used to register a scope, usually once into a static field.
+     *
+     * @param name The name of the scope, e.g. {@code "ObjectManager.update"}.
+     * @return The id of the scope; registering a name twice returns the same id.
+     */
+    public static synchronized int register(String name)
+    {
+        Integer id = ids.get(name);
+        if (id != null) return id;
+
+        int n = names.length;
+        names = Arrays.copyOf(names, n + 1);
+        histograms = Arrays.copyOf(histograms, n + 1);
+        frameTotals = Arrays.copyOf(frameTotals, n + 1);
+        history = Arrays.copyOf(history, n + 1);
+        names[n] = name;
+        histograms[n] = new Histogram();
+        history[n] = new long[HISTORY];
+        ids.put(name, n);
+        return n;
+    }
+
+    /**
+     * Method used to start timing a section.
+     *
+     * @return The start time to pass to {@code end()}, or 0 when the profiler is disabled.
+     */
+    public static long begin()
+    {
+        return enabled ? System.nanoTime() : 0;
+    }
+
+    /**
+     * Method used to finish timing a section.
+     *
+     * @param scope The id of the scope.
+     * @param start The start time returned by {@code begin()}.
+     */
+    public static void end(int scope, long start)
+    {
+        if (start == 0 || !enabled) return;
+
+        record(scope, System.nanoTime() - start);
+    }
+
+    /**
+     * Method used to finish timing a section whose duration is needed even while the
+     * profiler is disabled, e.g. to fill in a Flight Recorder event.
+     *
+     * @param scope The id of the scope.
+     * @param start The start time, as given by {@code System.nanoTime()}.
+     * @return The duration of the section, in nanoseconds.
+     */
+    public static long elapsed(int scope, long start)
+    {
+        long duration = System.nanoTime() - start;
+        if (enabled) record(scope, duration);
+        return duration;
+    }
+
+    /**
+     * Method used to record the duration of a section timed by other means.
+     *
+     * @param scope    The id of the scope.
+     * @param duration The duration, in nanoseconds.
+     */
+    public static synchronized void record(int scope, long duration)
+    {
+        histograms[scope].record(duration);
+        frameTotals[scope] += duration;
+    }
+
+    /**
+     * Method used to end the current frame, moving the time spent in each scope into the
+     * frame history.
+     */
+    public static synchronized void endFrame()
+    {
+        if (!enabled) return;
+
+        int slot = (int) (frames % HISTORY);
+        for (int i = 0; i < names.length; i++)
+        {
+            history[i][slot] = frameTotals[i];
+            frameTotals[i] = 0;
+        }
+        frames++;
+    }
+
+    /**
+     * Method used to discard everything recorded so far.
+     */
+    public static synchronized void reset()
+    {
+        for (int i = 0; i < names.length; i++)
+        {
+            histograms[i].reset();
+            Arrays.fill(history[i], 0);
+        }
+        Arrays.fill(frameTotals, 0);
+        frames = 0;
+    }
+
+    /**
+     * Sets whether timed sections are recorded.
+     *
+     * @param enabled Profiling flag.
+     */
+    public static void setEnabled(boolean enabled)
+    {
+        Profiler.enabled = enabled;
+    }
+
+    /**
+     * @return Whether timed sections are recorded.
+     */
+    public static boolean isEnabled()
+    {
+        return enabled;
+    }
+
+    /**
+     * @return The number of registered scopes.
+     */
+    public static synchronized int getScopeCount()
+    {
+        return names.length;
+    }
+
+    /**
+     * @param scope The id of the scope.
+     * @return The name of the scope.
+     */
+    public static synchronized String getName(int scope)
+    {
+        return names[scope];
+    }
+
+    /**
+     * Method used to supply a copy of the histogram of a scope.
+     *
+     * @param scope The id of the scope.
+     * @return The durations of the timed sections of the scope, in nanoseconds.
+     */
+    public static synchronized Histogram getHistogram(int scope)
+    {
+        Histogram copy = new Histogram();
+        copy.add(histograms[scope]);
+        return copy;
+    }
+
+    /**
+     * Method used to supply a percentile of the durations of a scope without copying its histogram.
+     *
+     * @param scope      The id of the scope.
+     * @param percentile The percentage (between 0 and 100).
+     * @return The duration at the percentile, in nanoseconds.
+     */
+    public static synchronized long getValueAtPercentile(int scope, double percentile)
+    {
+        return histograms[scope].getValueAtPercentile(percentile);
+    }
+
+    /**
+     * @param scope The id of the scope.
+     * @return The longest duration recorded in the scope, in nanoseconds.
+     */
+    public static synchronized long getMax(int scope)
+    {
+        return histograms[scope].getMax();
+    }
+
+    /**
+     * Method used to supply the time spent in a scope during each of the last frames.
+     *
+     * @param scope       The id of the scope.
+     * @param destination The array receiving the totals, oldest first.
+     * @return The number of frames written, at most {@code HISTORY} and the length of the destination.
+     */
+    public static synchronized int getFrameTotals(int scope, long[] destination)
+    {
+        int n = (int) Math.min(Math.min(frames, HISTORY), destination.length);
+        for (int i = 0; i < n; i++)
+        {
+            destination[i] = history[scope][(int) ((frames - n + i) % HISTORY)];
+        }
+        return n;
+    }
+
+    /**
+     * @return The number of frames ended while the profiler was enabled.
+     */
+    public static synchronized long getFrameCount()
+    {
+        return frames;
+    }
+
+    private Profiler()
+    {
+    }
+}
@@ -0,0 +1,115 @@
+package Hazel.System.Profiler;
+
+import Hazel.Graphics.Context;
+
+/**
+ * {@code ProfilerOverlay} draws the profiler's results on screen.
+ * <br>
+ * Each scope is listed with the p50, p99 and maximum of its timed sections, in
+ * milliseconds, above a graph of the time spent in one scope during the last frames.
+ * Text is assembled in a reused buffer, so drawing the overlay does not allocate.
+ */
+public class ProfilerOverlay
+{
+    private static final int BACKGROUND = 0xFF101010; //Color behind the overlay
+    private static final int TEXT = 0xFFFFFFFF; //Color of the text
+    private static final int BAR = 0xFF40C040; //Color of frames within budget
+    private static final int SLOW_BAR = 0xFFE04040; //Color of frames over budget
+
+    private final StringBuilder line = new StringBuilder(); //Reused text buffer
+    private final long[] totals = new long[Profiler.HISTORY]; //Reused frame history buffer
+    private int graphScope; //The scope shown in the frame graph
+    private long budget = 1000000000L / 60; //Frame time above which bars are drawn as slow, in nanoseconds
+    private float scale = 1.0f; //Scale of the text
+
+    /**
+     * Creates an overlay that graphs a given scope.
+     *
+     * @param graphScope The id of the scope shown in the frame graph.
+     */
+    public ProfilerOverlay(int graphScope)
+    {
+        this.graphScope = graphScope;
+    }
+
+    /**
+     * Method used to draw the overlay.
+     *
+     * @param ctx The Game render 'canvas'.
+     * @param x   x-coordinate on screen.
+     * @param y   y-coordinate on screen.
+     */
+    public void render(Context ctx, int x, int y)
+    {
+        if (ctx.getFont() == null) return;
+
+        int scopes = Profiler.getScopeCount();
+        int lineHeight = (int) (12 * scale);
+        int graphHeight = 40;
+        int width = Math.max(Profiler.HISTORY, (int) (200 * scale));
+
+        ctx.renderFilledRectangle(x, y, width + 4, scopes * lineHeight + graphHeight + 8, BACKGROUND);
+
+        for (int i = 0; i < scopes; i++)
+        {
+            line.setLength(0);
+            line.append(Profiler.getName(i)).append(' ');
+            appendMillis(Profiler.getValueAtPercentile(i, 50)).append(' ');
+            appendMillis(Profiler.getValueAtPercentile(i, 99)).append(' ');
+            appendMillis(Profiler.getMax(i));
+            ctx.renderText(line, x + 2, y + 2 + i * lineHeight, TEXT, scale);
+        }
+
+        if (graphScope < 0 || graphScope >= scopes) return;
+
+        int n = Profiler.getFrameTotals(graphScope, totals);
+        int bottom = y + 4 + scopes * lineHeight + graphHeight;
+        for (int i = 0; i < n; i++)
+        {
+            //One pixel per millisecond
+            int height = (int) Math.min(graphHeight, totals[i] / 1000000L + 1);
+            ctx.renderFilledRectangle(x + 2 + i, bottom - height, 1, height, totals[i] > budget ? SLOW_BAR : BAR);
+        }
+    }
+
+    /**
+     * Appends a duration in milliseconds with two decimals.
+     */
+    private StringBuilder appendMillis(long nanos)
+    {
+        long hundredths = (nanos + 5000) / 10000;
+        line.append(hundredths / 100).append('.');
+        if (hundredths % 100 < 10) line.append('0');
+        return line.append(hundredths % 100);
+    }
+
+    /**
+     * Sets the scope shown in the frame graph.
+     *
+     * @param graphScope The id of the scope.
+     */
+    public void setGraphScope(int graphScope)
+    {
+        this.graphScope = graphScope;
+    }
+
+    /**
+     * Sets the frame time above which bars are drawn as slow.
+     *
+     * @param budget The frame budget, in nanoseconds.
+     */
+    public void setBudget(long budget)
+    {
+        this.budget = budget;
+    }
+
+    /**
+     * Sets the scale of the text.
+     *
+     * @param scale Custom scaling per glyph (1.0f is 1:1 ratio).
+     */
+    public void setScale(float scale)
+    {
+        this.scale = scale;
+    }
+}
@@ -54,6 +54,31 @@ public class Util
         log("[" + className + "]: [" + filePath + "] has been cached.");
     }
 
+    /**
+     * Method used to write the decimal digits of a number into the end of a buffer, without
+     * creating a {@code String}. A buffer of 20 characters holds any {@code long}.
+     *
+     * @param value  The number to write.
+     * @param buffer The buffer receiving the digits, right-aligned.
+     * @return The index of the first character written.
+     */
+    public static int getChars(long value, char[] buffer)
+    {
+        int i = buffer.length;
+        boolean negative = value < 0;
+
+        //Digits are taken from the negated value, which also covers Long.MIN_VALUE
+        long remaining = negative ? value : -value;
+        do
+        {
+            buffer[--i] = (char) ('0' - remaining % 10);
+            remaining /= 10;
+        } while (remaining != 0);
+
+        if (negative) buffer[--i] = '-';
+        return i;
+    }
+
     /**
      * Method used to generate an alphanumeric code.
      *
@@ -0,0 +1,179 @@
+package Hazel.Graphics;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.AfterClass;
+import org.junit.Test;
+
+/**
+ * Checks that rasterizing in horizontal bands on several threads, or redrawing only the
+ * regions that changed, gives the same pixels as flushing the whole render queue on a single thread.
+ */
+public class ContextTest
+{
+    private static final int WIDTH = 320, HEIGHT = 240;
+
+    private static final ForkJoinPool POOL = new ForkJoinPool(4);
+
+    @AfterClass
+    public static void shutDown()
+    {
+        POOL.shutdown();
+    }
+
+    @Test
+    public void bandedFlushMatchesSerialFlush()
+    {
+        for (long seed = 0; seed < 50; seed++)
+        {
+            Context serial = new Context(WIDTH, HEIGHT);
+            serial.setDeferred(true);
+
+            Context banded = new Context(WIDTH, HEIGHT);
+            banded.setRenderPool(POOL);
+            banded.setBandCount(7);
+            banded.setParallel(true);
+
+            drawFrame(serial, seed);
+            drawFrame(banded, seed);
+            serial.flush();
+            banded.flush();
+
+            assertArrayEquals("frame " + seed, serial.getPixels(), banded.getPixels());
+        }
+    }
+
+    @Test
+    public void dirtyFlushMatchesFullRedraw()
+    {
+        Random random = new Random(1);
+        List<int[]> scene = new ArrayList<>();
+        for (int i = 0; i < 100; i++) scene.add(rectangle(random));
+
+        Context dirty = new Context(WIDTH, HEIGHT);
+        dirty.setDirtyTracking(true);
+
+        for (int frame = 0; frame < 200; frame++)
+        {
+            //Add, remove and move a few rectangles anywhere in the scene
+            for (int change = random.nextInt(4); change > 0; change--)
+            {
+                int at = random.nextInt(scene.size());
+                switch (random.nextInt(3))
+                {
+                    case 0:
+                        scene.add(at, rectangle(random));
+                        break;
+                    case 1:
+                        if (scene.size() > 1) scene.remove(at);
+                        break;
+                    default:
+                        scene.get(at)[0] += random.nextInt(9) - 4;
+                        break;
+                }
+            }
+
+            Context full = new Context(WIDTH, HEIGHT);
+            full.setDeferred(true);
+            full.clear();
+            drawScene(full, scene);
+            drawScene(dirty, scene);
+            full.flush();
+            dirty.flush();
+
+            assertArrayEquals("frame " + frame, full.getPixels(), dirty.getPixels());
+        }
+    }
+
+    @Test
+    public void commandAddedEarlyOnlyDamagesItsBounds()
+    {
+        List<int[]> scene = new ArrayList<>();
+        for (int y = 0; y < HEIGHT; y += 20)
+        {
+            for (int x = 0; x < WIDTH; x += 20) scene.add(new int[]{x, y, 16, 16, 0xFF000000 | x * y, 0});
+        }
+
+        Context ctx = new Context(WIDTH, HEIGHT);
+        ctx.setDirtyTracking(true);
+        drawScene(ctx, scene);
+        ctx.flush();
+
+        scene.add(0, new int[]{100, 100, 10, 10, 0xFFFFFFFF, 0});
+        drawScene(ctx, scene);
+        ctx.flush();
+
+        DamageRegion damage = ctx.getDamage();
+        assertEquals(1, damage.size());
+        assertEquals(100, damage.getX(0));
+        assertEquals(100, damage.getY(0));
+        assertEquals(10, damage.getWidth(0));
+        assertEquals(10, damage.getHeight(0));
+    }
+
+    private static int[] rectangle(Random random)
+    {
+        return new int[]{random.nextInt(WIDTH), random.nextInt(HEIGHT), 1 + random.nextInt(40), 1 + random.nextInt(40),
+                random.nextInt(), random.nextInt(3)};
+    }
+
+    /**
+     * Records a scene of filled rectangles, each given as x, y, width, height, color and layer.
+     */
+    private static void drawScene(Context ctx, List<int[]> scene)
+    {
+        for (int[] r : scene)
+        {
+            ctx.setLayer(r[5]);
+            ctx.renderFilledRectangle(r[0], r[1], r[2], r[3], r[4]);
+        }
+    }
+
+    /**
+     * Records a random frame of bitmaps and rectangles, opaque and translucent, on several layers,
+     * many of them straddling band edges or the edges of the context.
+     */
+    private static void drawFrame(Context ctx, long seed)
+    {
+        Random random = new Random(seed);
+        ctx.clear();
+
+        for (int i = 0; i < 200; i++)
+        {
+            ctx.setLayer(random.nextInt(4));
+            int x = random.nextInt(WIDTH + 64) - 32, y = random.nextInt(HEIGHT + 64) - 32;
+            int w = 1 + random.nextInt(80), h = 1 + random.nextInt(80);
+            int color = random.nextInt();
+
+            switch (random.nextInt(4))
+            {
+                case 0:
+                    ctx.renderFilledRectangle(x, y, w, h, color | 0xFF000000);
+                    break;
+                case 1:
+                    ctx.renderFilledRectangle(x, y, w, h, color);
+                    break;
+                case 2:
+                    ctx.renderRectangle(x, y, w, h, 1.0f, color | 0xFF000000);
+                    break;
+                default:
+                    ctx.renderBitmap(bitmap(w, h, random), x, y, 0.25f + random.nextFloat() * 0.75f,
+                            1.0f, random.nextInt(), random.nextInt(8));
+                    break;
+            }
+        }
+    }
+
+    private static Bitmap bitmap(int width, int height, Random random)
+    {
+        int[] data = new int[width * height];
+        for (int i = 0; i < data.length; i++) data[i] = random.nextInt(4) == 0 ? 0 : random.nextInt();
+        return new Bitmap(data, width, height);
+    }
+}
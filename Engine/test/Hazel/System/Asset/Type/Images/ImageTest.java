@@ -0,0 +1,61 @@
+package Hazel.System.Asset.Type.Images;
+
+import static org.junit.Assert.assertArrayEquals;
+
+import java.awt.image.BufferedImage;
+
+import org.junit.Test;
+
+import Hazel.Graphics.Scaler;
+
+/**
+ * Checks that scaling reads the pixels of sub-images, which share the raster of their parent.
+ */
+public class ImageTest
+{
+    /**
+     * Creates a 10x10 image whose pixel at (x, y) holds the value <code>x + y * 10</code>, fully opaque.
+     */
+    private static BufferedImage numbered()
+    {
+        BufferedImage image = new BufferedImage(10, 10, BufferedImage.TYPE_INT_ARGB);
+        for (int y = 0; y < 10; y++)
+        {
+            for (int x = 0; x < 10; x++) image.setRGB(x, y, 0xFF000000 | (x + y * 10));
+        }
+        return image;
+    }
+
+    private static int[] pixels(BufferedImage image)
+    {
+        return image.getRGB(0, 0, image.getWidth(), image.getHeight(), null, 0, image.getWidth());
+    }
+
+    @Test
+    public void scalingASubImageReadsItsOwnPixels()
+    {
+        BufferedImage cropped = Image.crop(numbered(), 1, 1, 2);
+
+        BufferedImage same = Image.getScaledImage(cropped, 2, 2);
+        assertArrayEquals(new int[]{0xFF000000 | 22, 0xFF000000 | 23, 0xFF000000 | 32, 0xFF000000 | 33}, pixels(same));
+
+        BufferedImage doubled = Image.getScaledImage(cropped, 4, 4, Scaler.NEAREST);
+        int[] expected = new int[16];
+        for (int i = 0; i < 16; i++) expected[i] = 0xFF000000 | (22 + (i % 4) / 2 + (i / 8) * 10);
+        assertArrayEquals(expected, pixels(doubled));
+    }
+
+    @Test
+    public void scalingASubImageMatchesScalingACopy()
+    {
+        BufferedImage cropped = numbered().getSubimage(3, 1, 5, 7);
+        BufferedImage copy = new BufferedImage(5, 7, BufferedImage.TYPE_INT_ARGB);
+        copy.setRGB(0, 0, 5, 7, pixels(cropped), 0, 5);
+
+        for (int filter : new int[]{Scaler.NEAREST, Scaler.BILINEAR})
+        {
+            assertArrayEquals(pixels(Image.getScaledImage(copy, 13, 9, filter)),
+                    pixels(Image.getScaledImage(cropped, 13, 9, filter)));
+        }
+    }
+}